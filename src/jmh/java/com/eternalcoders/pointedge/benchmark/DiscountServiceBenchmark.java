@@ -0,0 +1,188 @@
+package com.eternalcoders.pointedge.benchmark;
+
+import com.eternalcoders.pointedge.PointEdgeApplication;
+import com.eternalcoders.pointedge.entity.Customer;
+import com.eternalcoders.pointedge.entity.Discount;
+import com.eternalcoders.pointedge.entity.LoyaltyThresholds;
+import com.eternalcoders.pointedge.entity.Product;
+import com.eternalcoders.pointedge.repository.CustomerRepository;
+import com.eternalcoders.pointedge.repository.DiscountRepository;
+import com.eternalcoders.pointedge.repository.ProductRepository;
+import com.eternalcoders.pointedge.service.DiscountService;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.orm.jpa.EntityManagerFactoryUtils;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Throughput of the discount engine entry points used by checkout, against the in-memory
+ * "benchmark" profile database seeded by {@code DataSeeder} plus a realistic discount mix.
+ * Allocation rate comes from {@code -prof gc} (on by default in the jmh profile); JDBC statements
+ * per call are printed at the end of each trial. Compare {@code gc.alloc.rate.norm} of the v1
+ * map-based entry points with {@code quoteCart}, with and without JSON serialization.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class DiscountServiceBenchmark {
+    private static final String LOYAL_PHONE = "0770000001";
+    private static final String REGULAR_PHONE = "0770000002";
+
+    @Param({"1", "10", "100"})
+    public int lines;
+
+    @Param({"true", "false"})
+    public boolean loyaltyTier;
+
+    private ConfigurableApplicationContext context;
+    private DiscountService discountService;
+    private ObjectMapper objectMapper;
+    private Statistics statistics;
+    private Map<Long, Integer> cart;
+    private String phone;
+
+    private final AtomicLong calls = new AtomicLong();
+    private long statementsAtStart;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(PointEdgeApplication.class)
+                .profiles("benchmark")
+                .web(WebApplicationType.NONE)
+                .run();
+        discountService = context.getBean(DiscountService.class);
+        objectMapper = context.getBean(ObjectMapper.class);
+        statistics = context.getBean(EntityManagerFactory.class).unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+
+        List<Product> products = context.getBean(ProductRepository.class).findAll();
+        seedDiscountsAndCustomers(products);
+
+        cart = new LinkedHashMap<>();
+        for (int i = 0; i < lines; i++) {
+            Product product = products.get(i % products.size());
+            cart.merge(product.getId(), 1 + i % 3, Integer::sum);
+        }
+        phone = loyaltyTier ? LOYAL_PHONE : REGULAR_PHONE;
+        statementsAtStart = statistics.getPrepareStatementCount();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        long statements = statistics.getPrepareStatementCount() - statementsAtStart;
+        System.out.printf("%n[lines=%d, loyaltyTier=%s] %.1f JDBC statements per call%n",
+                lines, loyaltyTier, calls.get() == 0 ? 0 : (double) statements / calls.get());
+        context.close();
+    }
+
+    @Benchmark
+    public void getAllApplicableDiscounts(Blackhole blackhole) {
+        calls.incrementAndGet();
+        blackhole.consume(discountService.getAllApplicableDiscounts(phone, cart));
+    }
+
+    @Benchmark
+    public void getApplicableDiscountIds(Blackhole blackhole) {
+        calls.incrementAndGet();
+        blackhole.consume(discountService.getApplicableDiscountIds(phone, cart));
+    }
+
+    @Benchmark
+    public void getCompleteDiscountAndPointsInfo(Blackhole blackhole) {
+        calls.incrementAndGet();
+        blackhole.consume(discountService.getCompleteDiscountAndPointsInfo(phone, cart));
+    }
+
+    @Benchmark
+    public void quoteCart(Blackhole blackhole) {
+        calls.incrementAndGet();
+        blackhole.consume(discountService.quoteCart(phone, cart));
+    }
+
+    @Benchmark
+    public void getCompleteDiscountAndPointsInfoJson(Blackhole blackhole) throws JsonProcessingException {
+        calls.incrementAndGet();
+        blackhole.consume(objectMapper.writeValueAsBytes(discountService.getCompleteDiscountAndPointsInfo(phone, cart)));
+    }
+
+    @Benchmark
+    public void quoteCartJson(Blackhole blackhole) throws JsonProcessingException {
+        calls.incrementAndGet();
+        blackhole.consume(objectMapper.writeValueAsBytes(discountService.quoteCart(phone, cart)));
+    }
+
+    @Benchmark
+    public void calculateTotalAmount(Blackhole blackhole) {
+        calls.incrementAndGet();
+        blackhole.consume(discountService.calculateTotalAmount(cart));
+    }
+
+    private void seedDiscountsAndCustomers(List<Product> products) {
+        TransactionTemplate transactionTemplate = context.getBean(TransactionTemplate.class);
+        EntityManagerFactory entityManagerFactory = context.getBean(EntityManagerFactory.class);
+        DiscountRepository discountRepository = context.getBean(DiscountRepository.class);
+        CustomerRepository customerRepository = context.getBean(CustomerRepository.class);
+
+        transactionTemplate.executeWithoutResult(status -> {
+            if (discountRepository.count() > 0) {
+                return;
+            }
+            EntityManagerFactoryUtils.getTransactionalEntityManager(entityManagerFactory)
+                    .persist(new LoyaltyThresholds(null, 5000, 2500, 1000, 1));
+
+            // every third product has an item discount, half of them tier-restricted
+            for (int i = 0; i < products.size(); i += 3) {
+                Product product = products.get(i);
+                Discount discount = newDiscount("Item " + product.getName(), Discount.DiscountType.ITEM);
+                discount.setItem(product);
+                discount.setPercentage(5.0 + i % 20);
+                discount.setLoyaltyType(i % 2 == 0 ? null : Discount.LoyaltyTier.GOLD);
+                discountRepository.save(discount);
+            }
+            // one universal amount discount per category
+            products.stream().map(Product::getCategory).distinct().forEach(category -> {
+                Discount discount = newDiscount("Category " + category.getName(), Discount.DiscountType.CATEGORY);
+                discount.setCategory(category);
+                discount.setAmount(10.0);
+                discountRepository.save(discount);
+            });
+            Discount loyalty = newDiscount("Gold members", Discount.DiscountType.LOYALTY);
+            loyalty.setLoyaltyType(Discount.LoyaltyTier.GOLD);
+            loyalty.setPercentage(3.0);
+            discountRepository.save(loyalty);
+
+            customerRepository.save(new Customer(null, "Loyal Customer", Customer.Title.MR, "loyal@example.com",
+                    LOYAL_PHONE, 6000.0, Customer.Tier.GOLD));
+            customerRepository.save(new Customer(null, "Regular Customer", Customer.Title.MRS, "regular@example.com",
+                    REGULAR_PHONE, 0.0, Customer.Tier.NOTLOYALTY));
+        });
+    }
+
+    private static Discount newDiscount(String name, Discount.DiscountType type) {
+        Discount discount = new Discount();
+        discount.setName(name);
+        discount.setType(type);
+        discount.setStartDate(LocalDateTime.now().minusDays(1));
+        discount.setDuration("30 days");
+        discount.setIsActive(true);
+        return discount;
+    }
+}
@@ -0,0 +1,98 @@
+package com.eternalcoders.pointedge.config;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Caps the number of connections borrowed at once with a fair semaphore. With virtual threads
+ * thousands of requests can reach the pool simultaneously; queueing them here, in arrival order,
+ * keeps the pool's own connection timeout from firing under bursts. A request that still has no
+ * permit after the acquire timeout fails with a transient error.
+ */
+public class BulkheadDataSource extends DelegatingDataSource {
+    private final Semaphore permits;
+    private final long acquireTimeoutMillis;
+
+    public BulkheadDataSource(DataSource target, int permits, Duration acquireTimeout) {
+        super(target);
+        this.permits = new Semaphore(permits, true);
+        this.acquireTimeoutMillis = acquireTimeout.toMillis();
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        acquire();
+        try {
+            return guard(obtainTargetDataSource().getConnection());
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        acquire();
+        try {
+            return guard(obtainTargetDataSource().getConnection(username, password));
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    public int getAvailablePermits() {
+        return permits.availablePermits();
+    }
+
+    public int getQueueLength() {
+        return permits.getQueueLength();
+    }
+
+    private void acquire() throws SQLException {
+        try {
+            if (!permits.tryAcquire(acquireTimeoutMillis, TimeUnit.MILLISECONDS)) {
+                throw new SQLTransientConnectionException(
+                        "No database connection permit available within " + acquireTimeoutMillis + "ms");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLTransientConnectionException("Interrupted while waiting for a database connection", e);
+        }
+    }
+
+    private Connection guard(Connection connection) {
+        AtomicBoolean released = new AtomicBoolean();
+        return (Connection) Proxy.newProxyInstance(
+                Connection.class.getClassLoader(),
+                new Class<?>[]{Connection.class},
+                (proxy, method, args) -> {
+                    if ("close".equals(method.getName()) && method.getParameterCount() == 0) {
+                        try {
+                            connection.close();
+                        } finally {
+                            if (released.compareAndSet(false, true)) {
+                                permits.release();
+                            }
+                        }
+                        return null;
+                    }
+                    try {
+                        return method.invoke(connection, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getTargetException();
+                    }
+                }
+        );
+    }
+}
@@ -0,0 +1,29 @@
+package com.eternalcoders.pointedge.config;
+
+import com.eternalcoders.pointedge.service.BlockInvoiceNumberAllocator;
+import com.eternalcoders.pointedge.service.InvoiceNumberAllocator;
+import com.eternalcoders.pointedge.service.InvoiceNumberBlockService;
+import com.eternalcoders.pointedge.service.RandomInvoiceNumberAllocator;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class InvoiceNumberConfig {
+
+    @Bean
+    @ConditionalOnProperty(name = "pointedge.invoice-numbers.strategy", havingValue = "block", matchIfMissing = true)
+    public InvoiceNumberAllocator blockInvoiceNumberAllocator(
+            InvoiceNumberBlockService invoiceNumberBlockService,
+            @Value("${pointedge.invoice-numbers.store-prefix:INV-S01}") String storePrefix,
+            @Value("${pointedge.invoice-numbers.block-size:100}") int blockSize) {
+        return new BlockInvoiceNumberAllocator(storePrefix, blockSize, invoiceNumberBlockService::reserveBlock);
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "pointedge.invoice-numbers.strategy", havingValue = "random")
+    public InvoiceNumberAllocator randomInvoiceNumberAllocator() {
+        return new RandomInvoiceNumberAllocator();
+    }
+}
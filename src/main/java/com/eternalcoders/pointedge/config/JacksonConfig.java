@@ -1,12 +1,23 @@
 package com.eternalcoders.pointedge.config;
 
+import com.eternalcoders.pointedge.dto.AppliedDiscountDTO;
+import com.eternalcoders.pointedge.dto.CartQuoteDTO;
+import com.eternalcoders.pointedge.dto.LinePricingDTO;
+import com.eternalcoders.pointedge.dto.LoyaltyPricingDTO;
+import com.eternalcoders.pointedge.dto.PointsQuoteDTO;
+import com.eternalcoders.pointedge.entity.Customer;
+import com.eternalcoders.pointedge.entity.Discount;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.datatype.jsr310.deser.LocalDateTimeDeserializer;
 import com.fasterxml.jackson.datatype.jsr310.ser.LocalDateTimeSerializer;
+import org.springframework.boot.ApplicationRunner;
 import org.springframework.boot.autoconfigure.jackson.Jackson2ObjectMapperBuilderCustomizer;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
+import java.math.BigDecimal;
 import java.time.format.DateTimeFormatter;
+import java.util.List;
 
 @Configuration
 public class JacksonConfig {
@@ -17,4 +28,22 @@ public class JacksonConfig {
                 .serializers(new LocalDateTimeSerializer(DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss.SSSSSS")))
                 .deserializers(new LocalDateTimeDeserializer(DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss.SSSSSS")));
     }
+
+    // serializes a fully populated v2 quote once at startup, so the serializers of the pricing
+    // records are built and cached in the shared ObjectMapper before the first till request
+    @Bean
+    public ApplicationRunner pricingSerializerWarmUp(ObjectMapper objectMapper) {
+        return args -> {
+            AppliedDiscountDTO discount = new AppliedDiscountDTO(
+                    1L, "warm-up", Discount.DiscountType.ITEM, 1L, BigDecimal.ONE, null, BigDecimal.ONE);
+            LinePricingDTO line = new LinePricingDTO(
+                    1L, 1, BigDecimal.TEN, BigDecimal.TEN, List.of(discount), List.of(discount), BigDecimal.ONE, BigDecimal.TEN);
+            LoyaltyPricingDTO loyalty = new LoyaltyPricingDTO(
+                    Discount.LoyaltyTier.GOLD, BigDecimal.TEN, List.of(discount), BigDecimal.ONE);
+            objectMapper.writeValueAsBytes(new CartQuoteDTO(
+                    "", "", Customer.Tier.GOLD, List.of(line), loyalty,
+                    BigDecimal.TEN, BigDecimal.ONE, BigDecimal.ONE, BigDecimal.ONE, BigDecimal.ONE, BigDecimal.TEN,
+                    new PointsQuoteDTO(0, 1, 0, 0, 0)));
+        };
+    }
 }
@@ -0,0 +1,52 @@
+package com.eternalcoders.pointedge.config;
+
+import jakarta.persistence.EntityManagerFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.jdbc.BadSqlGrammarException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+/**
+ * Orders, order items, invoice items and return items take their ids from pooled,
+ * table-backed sequences (MySQL has no native sequences) so Hibernate can batch their
+ * inserts. Tables created before the switch already hold AUTO_INCREMENT ids, so each
+ * sequence is moved past the current maximum id before any insert can happen.
+ */
+@Slf4j
+@Component
+public class SequenceTableInitializer implements InitializingBean {
+    // must match the allocationSize of the entities' @SequenceGenerator
+    private static final int ALLOCATION_SIZE = 50;
+
+    private static final Map<String, String> SEQUENCES = Map.of(
+            "orders_seq", "orders",
+            "order_item_seq", "order_item",
+            "invoice_item_seq", "invoice_item",
+            "return_item_seq", "return_item"
+    );
+
+    private final JdbcTemplate jdbcTemplate;
+
+    // depending on the EntityManagerFactory guarantees the schema update has already run
+    public SequenceTableInitializer(JdbcTemplate jdbcTemplate, EntityManagerFactory entityManagerFactory) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        SEQUENCES.forEach((sequence, table) -> {
+            try {
+                jdbcTemplate.update(
+                        "UPDATE " + sequence + " SET next_val = GREATEST(next_val, "
+                                + "(SELECT COALESCE(MAX(id), 0) + " + ALLOCATION_SIZE + " FROM " + table + "))"
+                );
+            } catch (BadSqlGrammarException e) {
+                // databases with native sequences (e.g. the H2 benchmark profile) have no table to align
+                log.debug("Skipping alignment of sequence {}: {}", sequence, e.getMessage());
+            }
+        });
+    }
+}
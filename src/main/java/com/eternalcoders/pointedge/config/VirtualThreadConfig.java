@@ -0,0 +1,47 @@
+package com.eternalcoders.pointedge.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+/**
+ * Virtual-thread request execution is switched on with {@code spring.threads.virtual.enabled=true},
+ * which moves Tomcat, {@code @Scheduled} and {@code @Async} work onto virtual threads. In that mode
+ * the DataSource is wrapped in a {@link BulkheadDataSource} sized to the Hikari pool.
+ */
+@Slf4j
+@Configuration
+@ConditionalOnProperty(name = "spring.threads.virtual.enabled", havingValue = "true")
+public class VirtualThreadConfig {
+
+    @Bean
+    public static BeanPostProcessor connectionBulkheadPostProcessor(Environment environment) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (!(bean instanceof DataSource dataSource) || bean instanceof BulkheadDataSource) {
+                    return bean;
+                }
+                int permits = environment.getProperty("pointedge.db-bulkhead.permits", Integer.class, 0);
+                if (permits <= 0) {
+                    permits = dataSource instanceof HikariDataSource hikari ? hikari.getMaximumPoolSize() : 10;
+                }
+                // queue at least as long as the pool itself would; a shorter timeout sheds load instead
+                Duration poolTimeout = dataSource instanceof HikariDataSource hikari
+                        ? Duration.ofMillis(hikari.getConnectionTimeout()) : Duration.ofSeconds(30);
+                Duration timeout = environment.getProperty(
+                        "pointedge.db-bulkhead.acquire-timeout", Duration.class, poolTimeout);
+                log.info("Virtual threads enabled, limiting DataSource '{}' to {} concurrent connections, waiting at most {}",
+                        beanName, permits, timeout);
+                return new BulkheadDataSource(dataSource, permits, timeout);
+            }
+        };
+    }
+}
@@ -2,40 +2,132 @@ package com.eternalcoders.pointedge.controller;
 
 import com.eternalcoders.pointedge.dto.*;
 import com.eternalcoders.pointedge.service.AnalyticsService;
+import com.eternalcoders.pointedge.service.DashboardResponseCache;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
 
+import java.time.DateTimeException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/api/analytics")
 public class AnalyticsController {
+    private static final int MAX_LIMIT = 100;
 
     @Autowired
     private AnalyticsService analyticsService;
 
+    @Autowired
+    private DashboardResponseCache dashboardCache;
+
+    // top sellers by units; brandId, categoryId and the inclusive from/to days are optional filters
     @GetMapping("/top-selling-products")
-    public List<TopSellingProductDTO> getTopSellingProducts() {
-        return analyticsService.getTopSellingProducts();
+    public List<TopSellingProductDTO> getTopSellingProducts(
+            @RequestParam(defaultValue = "10") int limit,
+            @RequestParam(required = false) Long brandId,
+            @RequestParam(required = false) Long categoryId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        int validLimit = validLimit(limit);
+        return dashboardCache.get("analytics.top-selling-products",
+                () -> analyticsService.getTopSellingProducts(validLimit, brandId, categoryId, from, to),
+                validLimit, brandId, categoryId, from, to);
     }
 
+    // points of the sales series below, for charts that only need the values
     @GetMapping("/sales-over-time")
-    public List<DailySalesDTO> getSalesOverTime() {
-        return analyticsService.getSalesOverTime();
+    public List<DailySalesDTO> getSalesOverTime(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(defaultValue = "day") String bucket,
+            @RequestParam(required = false) String zone) {
+        return getSalesSeries(from, to, bucket, zone).getPoints();
+    }
+
+    // sales per minute/hour/day/week/month; from defaults to the first sale, to to now, zone to the server's
+    @GetMapping("/sales-series")
+    public SalesSeriesDTO getSalesSeries(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(defaultValue = "day") String bucket,
+            @RequestParam(required = false) String zone) {
+        SalesSeriesDTO.Bucket validBucket = parseBucket(bucket);
+        ZoneId validZone = parseZone(zone);
+        return dashboardCache.get("analytics.sales-series",
+                () -> analyticsService.getSalesSeries(from, to, validBucket, validZone),
+                from, to, validBucket, validZone);
     }
 
+    // top products by revenue, same filters as above
     @GetMapping("/revenue")
-    public List<ProductRevenueDTO> getRevenueByProduct() {
-        return analyticsService.getRevenueByProduct();
+    public List<ProductRevenueDTO> getRevenueByProduct(
+            @RequestParam(defaultValue = "10") int limit,
+            @RequestParam(required = false) Long brandId,
+            @RequestParam(required = false) Long categoryId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        int validLimit = validLimit(limit);
+        return dashboardCache.get("analytics.revenue",
+                () -> analyticsService.getRevenueByProduct(validLimit, brandId, categoryId, from, to),
+                validLimit, brandId, categoryId, from, to);
     }
 
     @GetMapping("/return-rates")
     public List<ProductReturnRateDTO> getReturnRatesByProduct() {
-        return analyticsService.getReturnRatesByProduct();
+        return dashboardCache.get("analytics.return-rates", analyticsService::getReturnRatesByProduct);
     }
 
     @GetMapping("/category-distribution")
     public List<CategoryDistributionDTO> getCategoryDistribution() {
-        return analyticsService.getProductCategoryDistribution();
+        return dashboardCache.get("analytics.category-distribution", analyticsService::getProductCategoryDistribution);
+    }
+
+    // hits, shared loads and misses of the dashboard response cache, per endpoint
+    @GetMapping("/cache/stats")
+    public List<DashboardCacheStatsDTO> getDashboardCacheStats() {
+        return dashboardCache.getStats();
+    }
+
+    private static int validLimit(int limit) {
+        if (limit < 1) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Limit must be at least 1");
+        }
+        return Math.min(limit, MAX_LIMIT);
+    }
+
+    private static SalesSeriesDTO.Bucket parseBucket(String bucket) {
+        try {
+            return SalesSeriesDTO.Bucket.valueOf(bucket.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Unknown bucket '" + bucket + "'");
+        }
+    }
+
+    private static ZoneId parseZone(String zone) {
+        if (zone == null || zone.isBlank()) {
+            return ZoneId.systemDefault();
+        }
+        try {
+            return ZoneId.of(zone.trim());
+        } catch (DateTimeException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Unknown zone '" + zone + "'");
+        }
+    }
+
+    // backfill: recompute the sales rollup from the full order and return history
+    @PostMapping("/rollups/rebuild")
+    public Map<String, Object> rebuildSalesRollup() {
+        Map<String, Object> response = new HashMap<>();
+        response.put("rows", analyticsService.rebuildSalesRollup());
+        return response;
     }
-}
\ No newline at end of file
+}
@@ -10,8 +10,10 @@ import org.springframework.web.bind.annotation.CrossOrigin;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.server.ResponseStatusException;
+import com.eternalcoders.pointedge.dto.CustomerCacheStatsDTO;
 import com.eternalcoders.pointedge.dto.CustomerDTO;
 import com.eternalcoders.pointedge.dto.LoyaltyThresholdsDTO;
+import com.eternalcoders.pointedge.dto.TierRecalculationStatusDTO;
 import com.eternalcoders.pointedge.entity.Customer;
 import com.eternalcoders.pointedge.entity.Customer.Tier;
 import com.eternalcoders.pointedge.service.CustomerService;
@@ -62,6 +64,12 @@ public class CustomerController {
         }
     }
 
+    // customer cache metrics
+    @GetMapping("/cache/stats")
+    public ResponseEntity<CustomerCacheStatsDTO> getCustomerCacheStats() {
+        return ResponseEntity.ok(customerService.getCustomerCacheStats());
+    }
+
     // get customer count
     @GetMapping("/count")
     public ResponseEntity<Long> countCustomers() {
@@ -170,17 +178,16 @@ public class CustomerController {
     @PatchMapping("/update-all-tiers")
     public ResponseEntity<Map<String, Object>> updateAllCustomerTiers() {
         try {
-            customerService.updateAllCustomerTiers();
-            
-            Map<Customer.Tier, Long> tierCounts = customerService.countCustomersByTier();
+            TierRecalculationStatusDTO recalculation = customerService.updateAllCustomerTiers();
 
             LoyaltyThresholdsDTO currentThresholds = customerService.getLoyaltyThresholds();
             
             Map<String, Object> response = new HashMap<>();
             response.put("status", "success");
-            response.put("message", "All customer tiers updated successfully using current thresholds");
+            // tier counts only settle once the run completes; poll /tier-recalculation, then /count-by-tier
+            response.put("message", "Customer tier recalculation started using current thresholds");
             response.put("thresholds", currentThresholds);
-            response.put("counts", tierCounts);
+            response.put("recalculation", recalculation);
             
             return ResponseEntity.ok(response);
         } catch (Exception e) {
@@ -191,4 +198,22 @@ public class CustomerController {
         }
     }
 
+    // progress of the background tier recalculation
+    @GetMapping("/tier-recalculation")
+    public ResponseEntity<TierRecalculationStatusDTO> getTierRecalculationStatus() {
+        return ResponseEntity.ok(customerService.getTierRecalculationStatus());
+    }
+
+    // pause the tier recalculation after the current chunk
+    @PatchMapping("/tier-recalculation/pause")
+    public ResponseEntity<TierRecalculationStatusDTO> pauseTierRecalculation() {
+        return ResponseEntity.ok(customerService.pauseTierRecalculation());
+    }
+
+    // resume a paused or failed tier recalculation from its last chunk
+    @PatchMapping("/tier-recalculation/resume")
+    public ResponseEntity<TierRecalculationStatusDTO> resumeTierRecalculation() {
+        return ResponseEntity.ok(customerService.resumeTierRecalculation());
+    }
+
 }
\ No newline at end of file
@@ -1,10 +1,12 @@
 package com.eternalcoders.pointedge.controller;
 
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.CrossOrigin;
@@ -12,6 +14,7 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 import com.eternalcoders.pointedge.dto.DiscountDTO;
+import com.eternalcoders.pointedge.dto.DiscountTimelineEventDTO;
 import com.eternalcoders.pointedge.dto.LoyaltyThresholdsDTO;
 import com.eternalcoders.pointedge.entity.Discount;
 import com.eternalcoders.pointedge.entity.Discount.DiscountType;
@@ -48,7 +51,7 @@ public class DiscountController {
     public DiscountDTO updateDiscountDetails(
         @PathVariable Long id, 
         @RequestBody DiscountDTO discountDTO) {
-        discountDTO.id = id; 
+        discountDTO.setId(id);
         return discountService.updateDiscount(discountDTO);
     }
     
@@ -235,6 +238,20 @@ public ResponseEntity<?> updateLoyaltyThresholds(
         return ResponseEntity.ok(discounts);
     }
 
+    // upcoming discount activations and expiries
+    @GetMapping("/timeline")
+    public ResponseEntity<List<DiscountTimelineEventDTO>> getDiscountTimeline(
+            @RequestParam(defaultValue = "24") int hours) {
+        return ResponseEntity.ok(discountService.getDiscountTimeline(hours));
+    }
+
+    // preview of the discounts active at a future time
+    @GetMapping("/active-at")
+    public ResponseEntity<List<DiscountDTO>> getDiscountsActiveAt(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime at) {
+        return ResponseEntity.ok(discountService.getDiscountsActiveAt(at));
+    }
+
     // get price of an item by id
     @GetMapping("/product-price/{itemId}")
     public ResponseEntity<Map<String, Object>> getProductPrice(@PathVariable Long itemId) {
@@ -7,6 +7,7 @@ import com.eternalcoders.pointedge.entity.Attendance;
 import com.eternalcoders.pointedge.entity.Employee;
 import com.eternalcoders.pointedge.repository.OrderRepository;
 import com.eternalcoders.pointedge.service.AttendanceService;
+import com.eternalcoders.pointedge.service.DashboardResponseCache;
 import com.eternalcoders.pointedge.service.EmployeeService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
@@ -26,20 +27,27 @@ public class EmployeeDashboardController {
     private final EmployeeService employeeService;
     private final AttendanceService attendanceService;
     private final OrderRepository orderRepository; 
+    private final DashboardResponseCache dashboardCache;
 
     private static final int STANDARD_MONTHLY_WORKING_HOURS = 160;
     private static final int MAX_OT_HOURS_PER_EMPLOYEE = 20;
 
     @Autowired
-    public EmployeeDashboardController(EmployeeService employeeService, AttendanceService attendanceService, OrderRepository orderRepository) {
+    public EmployeeDashboardController(EmployeeService employeeService, AttendanceService attendanceService,
+                                       OrderRepository orderRepository, DashboardResponseCache dashboardCache) {
         this.employeeService = employeeService;
         this.attendanceService = attendanceService;
         this.orderRepository = orderRepository;
+        this.dashboardCache = dashboardCache;
     }
 
     //Get all dashboard data in a single API call
     @GetMapping("/employee-stats")
     public ResponseEntity<EmployeeDashboardDTO> getEmployeeDashboard() {
+        return ResponseEntity.ok(dashboardCache.get("dashboard.employee-stats", this::buildEmployeeDashboard));
+    }
+
+    private EmployeeDashboardDTO buildEmployeeDashboard() {
         EmployeeDashboardDTO dashboard = new EmployeeDashboardDTO();
 
         // Orders and sales
@@ -138,7 +146,7 @@ public class EmployeeDashboardController {
         dashboard.setProductivityData(calculateMonthlyProductivity());
         dashboard.setWeeklyAttendance(calculateWeeklyAttendance());
 
-        return ResponseEntity.ok(dashboard);
+        return dashboard;
     }
 
     private List<MonthlyProductivity> calculateMonthlyProductivity() {
@@ -0,0 +1,70 @@
+package com.eternalcoders.pointedge.controller;
+
+import com.eternalcoders.pointedge.service.ExportService;
+import com.eternalcoders.pointedge.service.ExportService.Dataset;
+import com.eternalcoders.pointedge.service.ExportService.Format;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Locale;
+
+@RestController
+@CrossOrigin
+@RequestMapping("/api/export")
+public class ExportController {
+    private static final MediaType NDJSON = MediaType.parseMediaType("application/x-ndjson");
+    private static final DateTimeFormatter FILE_DATE = DateTimeFormatter.ofPattern("yyyyMMdd'T'HHmmss");
+
+    private final ExportService exportService;
+
+    public ExportController(ExportService exportService) {
+        this.exportService = exportService;
+    }
+
+    // orders, order-items or order-details in [from, to); afterId resumes after the last id received
+    @GetMapping("/{dataset}")
+    public ResponseEntity<StreamingResponseBody> export(
+            @PathVariable String dataset,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(defaultValue = "csv") String format,
+            @RequestParam(defaultValue = "0") long afterId,
+            NativeWebRequest request
+    ) {
+        Dataset target = Dataset.fromPath(dataset)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Unknown export " + dataset));
+        Format outputFormat = parseFormat(format);
+        if (!from.isBefore(to)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "'from' must be before 'to'");
+        }
+        if (afterId < 0) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "afterId must not be negative");
+        }
+
+        String fileName = target.getPath() + "-" + FILE_DATE.format(from) + "-" + FILE_DATE.format(to)
+                + (afterId > 0 ? "-after-" + afterId : "")
+                + (outputFormat == Format.CSV ? ".csv" : ".ndjson");
+        return ResponseEntity.ok()
+                .contentType(outputFormat == Format.CSV ? new MediaType("text", "csv") : NDJSON)
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment().filename(fileName).build().toString())
+                .body(exportService.export(target, outputFormat, from, to, afterId, request));
+    }
+
+    private Format parseFormat(String format) {
+        try {
+            return Format.valueOf(format.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Format must be csv or ndjson");
+        }
+    }
+}
@@ -1,9 +1,11 @@
 package com.eternalcoders.pointedge.controller;
 
+import com.eternalcoders.pointedge.dto.OfflineSaleResultDTO;
 import com.eternalcoders.pointedge.dto.OrderRequestDTO;
 import com.eternalcoders.pointedge.dto.OrderStatsDTO;
 import com.eternalcoders.pointedge.dto.ProductOrderQuantityDTO;
 import com.eternalcoders.pointedge.entity.Order;
+import com.eternalcoders.pointedge.service.OfflineSaleSyncService;
 import com.eternalcoders.pointedge.service.OrderService;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
@@ -13,15 +15,18 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.time.LocalDate;
+import java.util.List;
 import java.util.Map;
 
 @RestController
 @RequestMapping("/orders")
 public class OrderController {
     private final OrderService orderService;
+    private final OfflineSaleSyncService offlineSaleSyncService;
 
-    public OrderController(OrderService orderService) {
+    public OrderController(OrderService orderService, OfflineSaleSyncService offlineSaleSyncService) {
         this.orderService = orderService;
+        this.offlineSaleSyncService = offlineSaleSyncService;
     }
 
     @GetMapping("/{id}")
@@ -58,6 +63,11 @@ public class OrderController {
         return ResponseEntity.status(HttpStatus.CREATED).body(orderService.createOrderWithInvoice(orderRequestDTO));
     }
 
+    @PostMapping("/sync")
+    public ResponseEntity<List<OfflineSaleResultDTO>> syncOfflineSales(@RequestBody List<OrderRequestDTO> sales) {
+        return ResponseEntity.ok(offlineSaleSyncService.syncSales(sales));
+    }
+
     @GetMapping("/stats")
     public ResponseEntity<OrderStatsDTO> getOrderStats(
             @RequestParam(required = false) Long brandId,
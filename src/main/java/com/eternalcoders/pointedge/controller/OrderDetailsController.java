@@ -4,6 +4,7 @@ import java.time.LocalDateTime;
 import java.util.Map;
 import com.eternalcoders.pointedge.service.OrderDetailsService;
 import com.eternalcoders.pointedge.service.CustomerService;
+import com.eternalcoders.pointedge.service.DashboardResponseCache;
 import com.eternalcoders.pointedge.service.DiscountService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.format.annotation.DateTimeFormat;
@@ -23,52 +24,55 @@ public class OrderDetailsController {
     @Autowired
     private DiscountService discountService;
 
+    @Autowired
+    private DashboardResponseCache dashboardCache;
+
     // count orders by time slot  
     @GetMapping("/orders/count")
     public ResponseEntity<Map<String, Long>> getOrderCounts() {
-        return ResponseEntity.ok(orderDetailsService.getOrderCounts());
+        return ResponseEntity.ok(dashboardCache.get("order-details.orders-count", orderDetailsService::getOrderCounts));
     }
 
     // count discounts by time slot
     @GetMapping("/discounts/count-by-type")
     public ResponseEntity<Map<String, Map<String, Long>>> getDiscountCountsByType() {
-        return ResponseEntity.ok(orderDetailsService.getDiscountCountsByType());
+        return ResponseEntity.ok(dashboardCache.get("order-details.discounts-count-by-type", orderDetailsService::getDiscountCountsByType));
     }
 
     //count customers by time slot
     @GetMapping("/customers/count-by-tier")
     public ResponseEntity<Map<String, Object>> getCustomerCountsByTier() {
-        return ResponseEntity.ok(orderDetailsService.getCustomerCountsByTier());
+        return ResponseEntity.ok(dashboardCache.get("order-details.customers-count-by-tier", orderDetailsService::getCustomerCountsByTier));
     }
 
     // count total loyalty discount
     @GetMapping("/loyalty-discounts/by-tier")
     public ResponseEntity<Map<String, Object>> getLoyaltyDiscountDataByTier() {
-        return ResponseEntity.ok(orderDetailsService.getLoyaltyDiscountDataByTier());
+        return ResponseEntity.ok(dashboardCache.get("order-details.loyalty-discounts-by-tier", orderDetailsService::getLoyaltyDiscountDataByTier));
     }
 
     // amount and top 3 items
     @GetMapping("/item-discounts/analytics")
     public ResponseEntity<Map<String, Object>> getItemDiscountAnalytics() {
-        return ResponseEntity.ok(orderDetailsService.getItemDiscountAnalytics());
+        return ResponseEntity.ok(dashboardCache.get("order-details.item-discounts-analytics", orderDetailsService::getItemDiscountAnalytics));
     }
 
     // category discounts
     @GetMapping("/category-discounts/analytics")
     public ResponseEntity<Map<String, Object>> getCategoryDiscountAnalytics() {
-        return ResponseEntity.ok(orderDetailsService.getCategoryDiscountAnalytics());
+        return ResponseEntity.ok(dashboardCache.get("order-details.category-discounts-analytics", orderDetailsService::getCategoryDiscountAnalytics));
     }
 
     // get total discount
     @GetMapping("/discounts/totals")
     public ResponseEntity<Map<String, Object>> getAllDiscountTotals() {
-        return ResponseEntity.ok(orderDetailsService.getAllDiscountTotals());
+        return ResponseEntity.ok(dashboardCache.get("order-details.discounts-totals", orderDetailsService::getAllDiscountTotals));
     }
 
     // total amount
     @GetMapping("/orders/total-amount")
     public ResponseEntity<Map<String, Object>> getOrderSummaryMetrics() {
-        return ResponseEntity.ok(orderDetailsService.getOrderSummaryMetrics());
+        return ResponseEntity.ok(dashboardCache.get("order-details.orders-total-amount", orderDetailsService::getOrderSummaryMetrics));
     }
 
     // Add these methods to OrderDetailsController.java
@@ -77,56 +81,64 @@ public class OrderDetailsController {
 public ResponseEntity<Map<String, Long>> getOrderCountsByCustomRange(
         @RequestParam("start") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startDate,
         @RequestParam("end") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endDate) {
-    return ResponseEntity.ok(orderDetailsService.getOrderCountsByCustomRange(startDate, endDate));
+    return ResponseEntity.ok(dashboardCache.get("order-details.orders-count-custom",
+            () -> orderDetailsService.getOrderCountsByCustomRange(startDate, endDate), startDate, endDate));
 }
 
 @GetMapping("/discounts/count-by-type/custom")
 public ResponseEntity<Map<String, Map<String, Long>>> getDiscountCountsByTypeForCustomRange(
         @RequestParam("start") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startDate,
         @RequestParam("end") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endDate) {
-    return ResponseEntity.ok(orderDetailsService.getDiscountCountsByTypeForCustomRange(startDate, endDate));
+    return ResponseEntity.ok(dashboardCache.get("order-details.discounts-count-by-type-custom",
+            () -> orderDetailsService.getDiscountCountsByTypeForCustomRange(startDate, endDate), startDate, endDate));
 }
 
 @GetMapping("/customers/count-by-tier/custom")
 public ResponseEntity<Map<String, Object>> getCustomerCountsByTierForCustomRange(
         @RequestParam("start") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startDate,
         @RequestParam("end") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endDate) {
-    return ResponseEntity.ok(orderDetailsService.getCustomerCountsByTierForCustomRange(startDate, endDate));
+    return ResponseEntity.ok(dashboardCache.get("order-details.customers-count-by-tier-custom",
+            () -> orderDetailsService.getCustomerCountsByTierForCustomRange(startDate, endDate), startDate, endDate));
 }
 
 @GetMapping("/loyalty-discounts/by-tier/custom")
 public ResponseEntity<Map<String, Object>> getLoyaltyDiscountDataByTierForCustomRange(
         @RequestParam("start") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startDate,
         @RequestParam("end") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endDate) {
-    return ResponseEntity.ok(orderDetailsService.getLoyaltyDiscountDataByTierForCustomRange(startDate, endDate));
+    return ResponseEntity.ok(dashboardCache.get("order-details.loyalty-discounts-by-tier-custom",
+            () -> orderDetailsService.getLoyaltyDiscountDataByTierForCustomRange(startDate, endDate), startDate, endDate));
 }
 
 @GetMapping("/item-discounts/analytics/custom")
 public ResponseEntity<Map<String, Object>> getItemDiscountAnalyticsForCustomRange(
         @RequestParam("start") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startDate,
         @RequestParam("end") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endDate) {
-    return ResponseEntity.ok(orderDetailsService.getItemDiscountAnalyticsForCustomRange(startDate, endDate));
+    return ResponseEntity.ok(dashboardCache.get("order-details.item-discounts-analytics-custom",
+            () -> orderDetailsService.getItemDiscountAnalyticsForCustomRange(startDate, endDate), startDate, endDate));
 }
 
 @GetMapping("/category-discounts/analytics/custom")
 public ResponseEntity<Map<String, Object>> getCategoryDiscountAnalyticsForCustomRange(
         @RequestParam("start") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startDate,
         @RequestParam("end") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endDate) {
-    return ResponseEntity.ok(orderDetailsService.getCategoryDiscountAnalyticsForCustomRange(startDate, endDate));
+    return ResponseEntity.ok(dashboardCache.get("order-details.category-discounts-analytics-custom",
+            () -> orderDetailsService.getCategoryDiscountAnalyticsForCustomRange(startDate, endDate), startDate, endDate));
 }
 
 @GetMapping("/discounts/totals/custom")
 public ResponseEntity<Map<String, Object>> getAllDiscountTotalsForCustomRange(
         @RequestParam("start") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startDate,
         @RequestParam("end") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endDate) {
-    return ResponseEntity.ok(orderDetailsService.getAllDiscountTotalsForCustomRange(startDate, endDate));
+    return ResponseEntity.ok(dashboardCache.get("order-details.discounts-totals-custom",
+            () -> orderDetailsService.getAllDiscountTotalsForCustomRange(startDate, endDate), startDate, endDate));
 }
 
 @GetMapping("/orders/total-amount/custom")
 public ResponseEntity<Map<String, Object>> getOrderSummaryMetricsForCustomRange(
         @RequestParam("start") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startDate,
         @RequestParam("end") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endDate) {
-    return ResponseEntity.ok(orderDetailsService.getOrderSummaryMetricsForCustomRange(startDate, endDate));
+    return ResponseEntity.ok(dashboardCache.get("order-details.orders-total-amount-custom",
+            () -> orderDetailsService.getOrderSummaryMetricsForCustomRange(startDate, endDate), startDate, endDate));
 }
 
 }
\ No newline at end of file
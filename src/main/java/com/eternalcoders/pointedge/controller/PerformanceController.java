@@ -1,6 +1,7 @@
 package com.eternalcoders.pointedge.controller;
 
 import com.eternalcoders.pointedge.dto.PerformanceDTO;
+import com.eternalcoders.pointedge.service.DashboardResponseCache;
 import com.eternalcoders.pointedge.service.PerformanceService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.format.annotation.DateTimeFormat;
@@ -17,10 +18,12 @@ import java.util.List;
 public class PerformanceController {
 
     private final PerformanceService performanceService;
+    private final DashboardResponseCache dashboardCache;
 
     @Autowired
-    public PerformanceController(PerformanceService performanceService) {
+    public PerformanceController(PerformanceService performanceService, DashboardResponseCache dashboardCache) {
         this.performanceService = performanceService;
+        this.dashboardCache = dashboardCache;
     }
 
     @GetMapping("/top-performers")
@@ -36,19 +39,25 @@ public class PerformanceController {
             
             if (includeAllData) {
                 // For "All Time" - get all performance data without date restrictions
-                performers = performanceService.getAllEmployeePerformance(sortBy, sortDirection);
+                performers = dashboardCache.get("performance.top-performers",
+                        () -> performanceService.getAllEmployeePerformance(sortBy, sortDirection),
+                        sortBy, sortDirection, null, null);
                 System.out.println("🌍 All Time Request: Fetching all performance data");
             } else if (startDate != null && endDate != null) {
                 // For specific date ranges (Last Month, Last Week)
                 LocalDate start = LocalDate.parse(startDate);
                 LocalDate end = LocalDate.parse(endDate);
-                performers = performanceService.getTopPerformers(start, end, sortBy, sortDirection);
+                performers = dashboardCache.get("performance.top-performers",
+                        () -> performanceService.getTopPerformers(start, end, sortBy, sortDirection),
+                        sortBy, sortDirection, start, end);
                 System.out.println("📅 Date Range Request: " + startDate + " to " + endDate);
             } else {
                 // Default fallback - current month
                 LocalDate startOfMonth = LocalDate.now().withDayOfMonth(1);
                 LocalDate today = LocalDate.now();
-                performers = performanceService.getTopPerformers(startOfMonth, today, sortBy, sortDirection);
+                performers = dashboardCache.get("performance.top-performers",
+                        () -> performanceService.getTopPerformers(startOfMonth, today, sortBy, sortDirection),
+                        sortBy, sortDirection, startOfMonth, today);
                 System.out.println("⚠️ No specific parameters - using current month");
             }
             
@@ -69,7 +78,9 @@ public class PerformanceController {
             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate) {
         
         try {
-            List<PerformanceDTO> performance = performanceService.searchEmployeePerformance(query, startDate, endDate);
+            List<PerformanceDTO> performance = dashboardCache.get("performance.search",
+                    () -> performanceService.searchEmployeePerformance(query, startDate, endDate),
+                    query, startDate, endDate);
             return ResponseEntity.ok(performance);
         } catch (Exception e) {
             System.err.println("❌ Error in searchEmployeePerformance: " + e.getMessage());
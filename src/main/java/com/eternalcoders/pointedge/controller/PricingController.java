@@ -0,0 +1,60 @@
+package com.eternalcoders.pointedge.controller;
+
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+
+import com.eternalcoders.pointedge.dto.CartQuoteDTO;
+import com.eternalcoders.pointedge.dto.LinePricingDTO;
+import com.eternalcoders.pointedge.dto.LoyaltyPricingDTO;
+import com.eternalcoders.pointedge.dto.PricingRequestDTO;
+import com.eternalcoders.pointedge.service.DiscountService;
+
+// typed cart pricing; errors are reported with HTTP status codes instead of a "success" flag
+@RestController
+@CrossOrigin
+@RequestMapping(value = "api/v2/pricing")
+public class PricingController {
+
+    @Autowired
+    private DiscountService discountService;
+
+    // full quote: lines, loyalty discounts, totals and points
+    @PostMapping("/quote")
+    public ResponseEntity<CartQuoteDTO> quote(@RequestBody PricingRequestDTO request) {
+        return ResponseEntity.ok(discountService.quoteCart(request.phone(), validItems(request)));
+    }
+
+    // item and category discounts per cart line
+    @PostMapping("/lines")
+    public ResponseEntity<List<LinePricingDTO>> lines(@RequestBody PricingRequestDTO request) {
+        return ResponseEntity.ok(discountService.quoteCart(request.phone(), validItems(request)).lines());
+    }
+
+    // loyalty discounts of the customer's tier on the discountable subtotal
+    @PostMapping("/loyalty")
+    public ResponseEntity<LoyaltyPricingDTO> loyalty(@RequestBody PricingRequestDTO request) {
+        return ResponseEntity.ok(discountService.quoteCart(request.phone(), validItems(request)).loyalty());
+    }
+
+    private Map<Long, Integer> validItems(PricingRequestDTO request) {
+        if (request.items() == null || request.items().isEmpty()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Items are required");
+        }
+        for (Map.Entry<Long, Integer> entry : request.items().entrySet()) {
+            if (entry.getKey() == null || entry.getValue() == null || entry.getValue() <= 0) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid item ID or quantity");
+            }
+        }
+        return request.items();
+    }
+}
@@ -1,5 +1,6 @@
 package com.eternalcoders.pointedge.controller;
 
+import com.eternalcoders.pointedge.dto.CatalogCacheStatsDTO;
 import com.eternalcoders.pointedge.entity.Product;
 import com.eternalcoders.pointedge.service.ImageService;
 import com.eternalcoders.pointedge.service.ProductService;
@@ -40,6 +41,11 @@ public class ProductController {
         return ResponseEntity.ok(productService.getFilteredProducts(brandId, categoryId, hidden, search, pageable));
     }
 
+    @GetMapping("/cache/stats")
+    public ResponseEntity<CatalogCacheStatsDTO> getCatalogCacheStats() {
+        return ResponseEntity.ok(productService.getCatalogCacheStats());
+    }
+
     @GetMapping("/{barcode}")
     public ResponseEntity<Product> getProductByBarcode(@PathVariable String barcode) {
         return ResponseEntity.ok(productService.getProductByBarcode(barcode));
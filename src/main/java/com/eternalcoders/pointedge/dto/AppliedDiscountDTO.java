@@ -0,0 +1,16 @@
+package com.eternalcoders.pointedge.dto;
+
+import java.math.BigDecimal;
+
+import com.eternalcoders.pointedge.entity.Discount.DiscountType;
+
+// one discount applied to a cart line (itemId set) or to the cart's discountable subtotal
+public record AppliedDiscountDTO(
+        Long id,
+        String name,
+        DiscountType type,
+        Long itemId,
+        BigDecimal percentage,
+        BigDecimal amount,
+        BigDecimal discount) {
+}
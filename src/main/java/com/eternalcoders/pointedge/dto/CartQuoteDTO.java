@@ -0,0 +1,22 @@
+package com.eternalcoders.pointedge.dto;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import com.eternalcoders.pointedge.entity.Customer.Tier;
+
+// v2 pricing result; customer fields and points are null for guests and unknown phone numbers
+public record CartQuoteDTO(
+        String phone,
+        String customerName,
+        Tier customerTier,
+        List<LinePricingDTO> lines,
+        LoyaltyPricingDTO loyalty,
+        BigDecimal subtotal,
+        BigDecimal itemDiscount,
+        BigDecimal categoryDiscount,
+        BigDecimal loyaltyDiscount,
+        BigDecimal totalDiscount,
+        BigDecimal total,
+        PointsQuoteDTO points) {
+}
@@ -0,0 +1,15 @@
+package com.eternalcoders.pointedge.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class CatalogCacheStatsDTO {
+    private int size;
+    private int maxSize;
+    private long hits;
+    private long misses;
+    private long evictions;
+    private double hitRatio;
+}
@@ -0,0 +1,16 @@
+package com.eternalcoders.pointedge.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class CustomerCacheStatsDTO {
+    private int size;
+    private int maxSize;
+    private long hits;
+    private long misses;
+    private long writes;
+    private long evictions;
+    private double hitRatio;
+}
@@ -3,6 +3,7 @@ package com.eternalcoders.pointedge.dto;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 
 @Data
@@ -10,4 +11,9 @@ import java.time.LocalDateTime;
 public class DailySalesDTO {
     private LocalDateTime date;
     private Double totalSales;
-}
\ No newline at end of file
+
+    // one point per day, at midnight
+    public DailySalesDTO(LocalDate day, Double totalSales) {
+        this(day.atStartOfDay(), totalSales);
+    }
+}
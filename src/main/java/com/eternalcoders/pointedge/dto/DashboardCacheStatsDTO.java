@@ -0,0 +1,16 @@
+package com.eternalcoders.pointedge.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class DashboardCacheStatsDTO {
+    private String endpoint;
+    private long ttlSeconds;
+    private long hits;
+    // requests that waited for a computation another request had already started
+    private long sharedLoads;
+    private long misses;
+    private double hitRatio;
+}
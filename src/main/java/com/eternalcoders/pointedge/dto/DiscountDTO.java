@@ -14,7 +14,7 @@ import com.eternalcoders.pointedge.entity.Discount.LoyaltyTier;
 @AllArgsConstructor
 public class DiscountDTO {
     
-    public Long id;
+    private Long id;
     
     private String name;
     
@@ -0,0 +1,23 @@
+package com.eternalcoders.pointedge.dto;
+
+import java.time.LocalDateTime;
+
+import com.eternalcoders.pointedge.entity.Discount.DiscountType;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class DiscountTimelineEventDTO {
+    public enum Change {
+        ACTIVATES,
+        EXPIRES
+    }
+
+    private LocalDateTime at;
+    private Change change;
+    private Long discountId;
+    private String name;
+    private DiscountType type;
+}
@@ -0,0 +1,10 @@
+package com.eternalcoders.pointedge.dto;
+
+import java.time.LocalDateTime;
+
+// cheap fingerprint of the discounts table; changes on any insert, update or delete
+public record DiscountsVersionDTO(
+        long count,
+        Long maxId,
+        LocalDateTime lastUpdated) {
+}
@@ -0,0 +1,16 @@
+package com.eternalcoders.pointedge.dto;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+// a cart line with its item and category discounts
+public record LinePricingDTO(
+        Long itemId,
+        int quantity,
+        BigDecimal unitPrice,
+        BigDecimal lineTotal,
+        List<AppliedDiscountDTO> itemDiscounts,
+        List<AppliedDiscountDTO> categoryDiscounts,
+        BigDecimal totalDiscount,
+        BigDecimal discountedTotal) {
+}
@@ -0,0 +1,14 @@
+package com.eternalcoders.pointedge.dto;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import com.eternalcoders.pointedge.entity.Discount.LoyaltyTier;
+
+// loyalty discounts apply to the subtotal of lines that already have an item or category discount
+public record LoyaltyPricingDTO(
+        LoyaltyTier tier,
+        BigDecimal discountableSubtotal,
+        List<AppliedDiscountDTO> discounts,
+        BigDecimal totalDiscount) {
+}
@@ -0,0 +1,20 @@
+package com.eternalcoders.pointedge.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class OfflineSaleResultDTO {
+    public enum Status {
+        CREATED,
+        DUPLICATE,
+        REJECTED
+    }
+
+    private String clientSaleId;
+    private Status status;
+    private Long orderId;
+    private String invoiceNumber;
+    private String message;
+}
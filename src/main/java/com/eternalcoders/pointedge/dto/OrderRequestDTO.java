@@ -19,5 +19,6 @@ public class OrderRequestDTO {
     private BigDecimal cashAmount;
     private BigDecimal cardAmount;
     private List<OrderItemDTO> items;
+    private String clientSaleId;
 }
 
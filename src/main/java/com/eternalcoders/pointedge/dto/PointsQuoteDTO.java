@@ -0,0 +1,9 @@
+package com.eternalcoders.pointedge.dto;
+
+public record PointsQuoteDTO(
+        double currentPoints,
+        double pointsRate,
+        double usedPoints,
+        double earnedPoints,
+        double newPointsBalance) {
+}
@@ -0,0 +1,7 @@
+package com.eternalcoders.pointedge.dto;
+
+import java.util.Map;
+
+// v2 pricing request; phone is optional, items maps product id to quantity
+public record PricingRequestDTO(String phone, Map<Long, Integer> items) {
+}
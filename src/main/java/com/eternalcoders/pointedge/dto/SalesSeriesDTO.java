@@ -0,0 +1,28 @@
+package com.eternalcoders.pointedge.dto;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+// sales per bucket over [from, to), with times local to the requested zone
+@Getter
+@AllArgsConstructor
+public class SalesSeriesDTO {
+    public enum Bucket {
+        MINUTE,
+        HOUR,
+        DAY,
+        WEEK,
+        MONTH
+    }
+
+    private Bucket requestedBucket;
+    // coarser than the requested bucket when the range would have exceeded the point limit
+    private Bucket bucket;
+    private String zone;
+    private LocalDateTime from;
+    private LocalDateTime to;
+    private List<DailySalesDTO> points;
+}
@@ -0,0 +1,13 @@
+package com.eternalcoders.pointedge.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class StockShortfallDTO {
+    private Long productId;
+    private String productName;
+    private long requested;
+    private long available;
+}
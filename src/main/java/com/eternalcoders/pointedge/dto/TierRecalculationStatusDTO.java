@@ -0,0 +1,30 @@
+package com.eternalcoders.pointedge.dto;
+
+import java.time.LocalDateTime;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class TierRecalculationStatusDTO {
+    public enum State {
+        IDLE,
+        RUNNING,
+        PAUSED,
+        COMPLETED,
+        FAILED,
+        CANCELLED
+    }
+
+    private State state;
+    private long thresholdsVersion;
+    private long lastCustomerId;
+    private long processedCustomers;
+    private long changedCustomers;
+    private long totalCustomers;
+    private double progress;
+    private LocalDateTime startedAt;
+    private LocalDateTime finishedAt;
+    private String message;
+}
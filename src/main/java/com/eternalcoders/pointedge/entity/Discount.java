@@ -5,6 +5,7 @@ import jakarta.validation.constraints.AssertTrue;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.UpdateTimestamp;
 import java.time.LocalDateTime;
 
 @Entity
@@ -78,6 +79,11 @@ public class Discount {
     
     @Column(name = "duration", nullable = false)
     private String duration;
+
+    // bumped on every change so the rule index on other nodes can tell it is stale
+    @UpdateTimestamp
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
     
     @AssertTrue(message = "Invalid target combination")
     private boolean isValidTarget() {
@@ -0,0 +1,34 @@
+package com.eternalcoders.pointedge.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDate;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+
+@Entity
+@Table(
+        name = "employee_order_counters",
+        uniqueConstraints = @UniqueConstraint(columnNames = {"employee_id", "order_day"})
+)
+public class EmployeeOrderCounter {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "employee_id", nullable = false)
+    private Long employeeId;
+
+    @Column(name = "order_day", nullable = false)
+    private LocalDate orderDay;
+
+    @Column(name = "order_count", nullable = false)
+    private long orderCount;
+}
@@ -1,16 +1,19 @@
 package com.eternalcoders.pointedge.entity;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
+import org.springframework.data.domain.Persistable;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.Setter;
 
 @Getter
 @Setter
 @Entity
-public class Invoice {
+public class Invoice implements Persistable<String> {
     @Id
     private String invoiceNumber;
 
@@ -32,4 +35,28 @@ public class Invoice {
     @OneToMany(mappedBy = "invoice", cascade = CascadeType.ALL)
     private List<InvoiceItem> items;
 
+    // invoice numbers are assigned up front, so track newness here instead of letting save() merge (and SELECT)
+    @Transient
+    @JsonIgnore
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private boolean newInvoice = true;
+
+    @Override
+    @JsonIgnore
+    public String getId() {
+        return invoiceNumber;
+    }
+
+    @Override
+    @JsonIgnore
+    public boolean isNew() {
+        return newInvoice;
+    }
+
+    @PostLoad
+    @PostPersist
+    void markNotNew() {
+        this.newInvoice = false;
+    }
 }
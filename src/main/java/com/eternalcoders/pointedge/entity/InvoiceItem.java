@@ -10,7 +10,8 @@ import lombok.Setter;
 public class InvoiceItem {
 
     @Id
-    @GeneratedValue
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "invoice_item_seq")
+    @SequenceGenerator(name = "invoice_item_seq", sequenceName = "invoice_item_seq", allocationSize = 50)
     private Long id;
 
     private Long productId; // Still needed for stock updates
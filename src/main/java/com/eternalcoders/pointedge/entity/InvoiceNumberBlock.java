@@ -0,0 +1,22 @@
+package com.eternalcoders.pointedge.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+
+@Entity
+@Table(name = "invoice_number_blocks")
+public class InvoiceNumberBlock {
+    @Id
+    private String prefix;
+
+    // first number not yet handed out to any node
+    private long nextValue;
+}
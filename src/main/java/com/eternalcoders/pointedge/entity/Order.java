@@ -21,7 +21,8 @@ import java.util.List;
 @Table(name = "orders")
 public class Order {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "orders_seq")
+    @SequenceGenerator(name = "orders_seq", sequenceName = "orders_seq", allocationSize = 50)
     private Long id;
 
     @CreationTimestamp
@@ -42,6 +43,10 @@ public class Order {
     private BigDecimal cashAmount;
     private BigDecimal cardAmount;
 
+    // id assigned by the till for sales captured offline, used to drop replays
+    @Column(unique = true)
+    private String clientSaleId;
+
     @OneToMany(mappedBy = "order", cascade = CascadeType.ALL, orphanRemoval = true)
     @JsonManagedReference
     private List<OrderItem> orderItems;
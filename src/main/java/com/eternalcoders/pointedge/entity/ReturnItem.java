@@ -10,7 +10,8 @@ import lombok.Setter;
 public class ReturnItem {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "return_item_seq")
+    @SequenceGenerator(name = "return_item_seq", sequenceName = "return_item_seq", allocationSize = 50)
     private Long id;
 
     private int quantity;
@@ -0,0 +1,54 @@
+package com.eternalcoders.pointedge.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDate;
+
+// sales and returns per day, product and employee; employee 0 holds returns and orders without a cashier
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+
+@Entity
+@Table(
+        name = "sales_rollup",
+        uniqueConstraints = @UniqueConstraint(columnNames = {"sale_day", "product_id", "category_id", "brand_id", "employee_id"}),
+        indexes = @Index(name = "idx_sales_rollup_product", columnList = "product_id")
+)
+public class SalesRollup {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "sale_day", nullable = false)
+    private LocalDate saleDay;
+
+    @Column(name = "product_id", nullable = false)
+    private Long productId;
+
+    @Column(name = "category_id", nullable = false)
+    private Long categoryId;
+
+    @Column(name = "brand_id", nullable = false)
+    private Long brandId;
+
+    @Column(name = "employee_id", nullable = false)
+    private Long employeeId;
+
+    @Column(name = "quantity_sold", nullable = false)
+    private long quantitySold;
+
+    @Column(name = "revenue", nullable = false)
+    private double revenue;
+
+    @Column(name = "quantity_returned", nullable = false)
+    private long quantityReturned;
+
+    @Column(name = "refunded_amount", nullable = false)
+    private double refundedAmount;
+}
@@ -0,0 +1,26 @@
+package com.eternalcoders.pointedge.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.Instant;
+
+// single row (id 1) every node locks to flush, rebuild or backfill the sales rollup
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+
+@Entity
+@Table(name = "sales_rollup_state")
+public class SalesRollupState {
+    @Id
+    private Long id;
+
+    // start of the last rebuild; sales any node received before it are already in the rollup
+    @Column(name = "rebuilt_at")
+    private Instant rebuiltAt;
+}
@@ -0,0 +1,8 @@
+package com.eternalcoders.pointedge.event;
+
+/**
+ * Published after the sales rollup has stored deltas or been rebuilt. The rollup trails the order
+ * and return commits it is derived from.
+ */
+public class AnalyticsDataChangedEvent {
+}
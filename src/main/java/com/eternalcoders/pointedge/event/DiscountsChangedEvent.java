@@ -0,0 +1,14 @@
+package com.eternalcoders.pointedge.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Published whenever discount rows are added, changed or deleted. {@code discountId} is null for
+ * bulk changes such as deleting every discount of a type.
+ */
+@Getter
+@AllArgsConstructor
+public class DiscountsChangedEvent {
+    private final Long discountId;
+}
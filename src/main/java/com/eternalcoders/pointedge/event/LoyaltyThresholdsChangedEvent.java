@@ -0,0 +1,7 @@
+package com.eternalcoders.pointedge.event;
+
+/**
+ * Published when the loyalty thresholds row is updated; listeners reload it after commit.
+ */
+public class LoyaltyThresholdsChangedEvent {
+}
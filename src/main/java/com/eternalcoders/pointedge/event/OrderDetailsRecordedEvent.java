@@ -0,0 +1,18 @@
+package com.eternalcoders.pointedge.event;
+
+import com.eternalcoders.pointedge.entity.OrderDetails;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+/**
+ * Published by {@code DiscountService.saveOrderDetails} after the analytics rows of one order
+ * are written, all stamped with the same order id and timestamp.
+ */
+@Getter
+@AllArgsConstructor
+public class OrderDetailsRecordedEvent {
+    private final String orderId;
+    private final List<OrderDetails> rows;
+}
@@ -0,0 +1,23 @@
+package com.eternalcoders.pointedge.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Published when an order is saved, from checkout and offline sync alike. Listeners that must
+ * only see committed orders should use {@code @TransactionalEventListener}.
+ */
+@Getter
+@AllArgsConstructor
+public class OrderRecordedEvent {
+    private final Long orderId;
+    private final Long employeeId;
+    private final LocalDateTime orderDate;
+    private final List<Line> lines;
+
+    public record Line(Long productId, Long categoryId, Long brandId, long quantity, double revenue) {
+    }
+}
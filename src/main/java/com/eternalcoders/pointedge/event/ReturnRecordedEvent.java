@@ -0,0 +1,19 @@
+package com.eternalcoders.pointedge.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+
+/**
+ * Published for every saved return record, whatever the refund method. Listeners that must
+ * only see committed returns should use {@code @TransactionalEventListener}.
+ */
+@Getter
+@AllArgsConstructor
+public class ReturnRecordedEvent {
+    private final Long productId;
+    private final int quantityReturned;
+    private final double refundAmount;
+    private final LocalDateTime returnedAt;
+}
@@ -0,0 +1,17 @@
+package com.eternalcoders.pointedge.event;
+
+import com.eternalcoders.pointedge.entity.SalesRollup;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+/**
+ * Published synchronously by {@code SalesRollupService.flush} with the deltas this node has just
+ * committed to the sales rollup, while the flush still holds its lock.
+ */
+@Getter
+@AllArgsConstructor
+public class SalesRollupFlushedEvent {
+    private final List<SalesRollup> deltas;
+}
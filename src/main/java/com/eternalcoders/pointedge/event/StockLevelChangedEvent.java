@@ -0,0 +1,17 @@
+package com.eternalcoders.pointedge.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Published by checkout for every product whose stock was reserved. Listeners that care about
+ * the committed state should use {@code @TransactionalEventListener}.
+ */
+@Getter
+@AllArgsConstructor
+public class StockLevelChangedEvent {
+    private final Long productId;
+    private final String productName;
+    private final long remainingQuantity;
+    private final long minimumQuantity;
+}
@@ -1,7 +1,28 @@
 package com.eternalcoders.pointedge.exception;
 
+import com.eternalcoders.pointedge.dto.StockShortfallDTO;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
 public class InsufficientStockException extends RuntimeException {
+    private final List<StockShortfallDTO> shortfalls;
+
     public InsufficientStockException(String message) {
         super(message);
+        this.shortfalls = List.of();
+    }
+
+    public InsufficientStockException(List<StockShortfallDTO> shortfalls) {
+        super(shortfalls.stream()
+                .map(s -> "Cannot order " + s.getRequested()
+                        + " of product " + s.getProductName()
+                        + " (only " + s.getAvailable() + " left)")
+                .collect(Collectors.joining("; ")));
+        this.shortfalls = List.copyOf(shortfalls);
+    }
+
+    public List<StockShortfallDTO> getShortfalls() {
+        return shortfalls;
     }
 }
@@ -4,6 +4,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
@@ -63,15 +64,31 @@ public interface CustomerRepository extends JpaRepository<Customer, Long> {
        @Query("SELECT lt FROM LoyaltyThresholds lt WHERE lt.id = 1")
        Optional<LoyaltyThresholds> findLoyaltyThresholds();
 
-       // update customer tiers based on points
+       // next chunk of customer ids for the tier recalculation job
+       @Query("SELECT c.id FROM Customer c WHERE c.id > :afterId ORDER BY c.id")
+       List<Long> findIdsAfter(@Param("afterId") Long afterId, Pageable pageable);
+
+       // re-tier customers with afterId < id <= lastId, touching only rows whose tier changes
        @Modifying
        @Query("UPDATE Customer c SET c.tier = CASE " +
               "WHEN c.points >= :gold THEN 'GOLD' " +
               "WHEN c.points >= :silver THEN 'SILVER' " +
               "WHEN c.points >= :bronze THEN 'BRONZE' " +
-              "ELSE 'NOTLOYALTY' END")
-       void updateAllCustomerTiers(@Param("gold") double gold, 
-                            @Param("silver") double silver, 
+              "ELSE 'NOTLOYALTY' END " +
+              "WHERE c.id > :afterId AND c.id <= :lastId " +
+              "AND (c.tier IS NULL OR c.tier <> CASE " +
+              "WHEN c.points >= :gold THEN 'GOLD' " +
+              "WHEN c.points >= :silver THEN 'SILVER' " +
+              "WHEN c.points >= :bronze THEN 'BRONZE' " +
+              "ELSE 'NOTLOYALTY' END)")
+       int updateTiersInRange(@Param("afterId") Long afterId,
+                            @Param("lastId") Long lastId,
+                            @Param("gold") double gold,
+                            @Param("silver") double silver,
                             @Param("bronze") double bronze);
 
+       // phone and tier of customers with afterId < id <= lastId, to refresh cached tiers after a chunk
+       @Query("SELECT c.phone, c.tier FROM Customer c WHERE c.id > :afterId AND c.id <= :lastId")
+       List<Object[]> findPhonesAndTiersInRange(@Param("afterId") Long afterId, @Param("lastId") Long lastId);
+
        }
\ No newline at end of file
@@ -1,12 +1,12 @@
 package com.eternalcoders.pointedge.repository;
 
 import java.math.BigDecimal;
-import java.time.LocalDateTime;
 import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 import org.springframework.stereotype.Repository;
+import com.eternalcoders.pointedge.dto.DiscountsVersionDTO;
 import com.eternalcoders.pointedge.entity.Customer;
 import com.eternalcoders.pointedge.entity.Customer.Tier;
 import com.eternalcoders.pointedge.entity.Discount;
@@ -63,30 +63,13 @@ public interface DiscountRepository extends JpaRepository<Discount, Long> {
         @Param("points") double points
     );
 
-    // get all applicable discounts for a given product ID and customer phone number
-    @Query("SELECT d FROM Discount d WHERE " +
-           "d.item.id = :itemId AND " +
-           "d.isActive = true AND " +
-           "(:loyaltyTier IS NULL OR d.loyaltyType = :loyaltyTier)")
-    List<Discount> findActiveItemDiscounts(
-        @Param("itemId") Long itemId,
-        @Param("loyaltyTier") Discount.LoyaltyTier loyaltyTier);
-
-    // get all applicable discounts for a given category ID and customer phone number
-    @Query("SELECT d FROM Discount d WHERE " +
-           "d.category.id = :categoryId AND " +
-           "d.isActive = true AND " +
-           "(:loyaltyTier IS NULL OR d.loyaltyType = :loyaltyTier)")
-    List<Discount> findActiveCategoryDiscounts(
-        @Param("categoryId") Long categoryId,
-        @Param("loyaltyTier") Discount.LoyaltyTier loyaltyTier);
-
-    // get all applicable discounts for a given product ID and customer phone number
-    @Query("SELECT d FROM Discount d WHERE " +
-           "d.loyaltyType = :tier AND " +
-           "d.isActive = true")
-    List<Discount> findActiveLoyaltyDiscounts(
-        @Param("tier") Discount.LoyaltyTier tier);
+    // get every enabled discount with its product and category; the rule index applies the date windows
+    @Query("SELECT d FROM Discount d LEFT JOIN FETCH d.item LEFT JOIN FETCH d.category WHERE d.isActive = true ORDER BY d.id")
+    List<Discount> findAllActiveDiscounts();
+
+    // get the discounts table fingerprint, so nodes notice edits made elsewhere without reloading
+    @Query("SELECT new com.eternalcoders.pointedge.dto.DiscountsVersionDTO(COUNT(d), MAX(d.id), MAX(d.updatedAt)) FROM Discount d")
+    DiscountsVersionDTO findDiscountsVersion();
 
     // get price of an item by id
     @Query("SELECT p.price FROM Product p WHERE p.id = :itemId")
@@ -132,33 +115,15 @@ public interface DiscountRepository extends JpaRepository<Discount, Long> {
     @Query("UPDATE Customer c SET c.points = :points WHERE c.phone = :phone")
     void updateCustomerPoints(@Param("phone") String phone, @Param("points") Double points);
 
+    // add to customer points by phone number; matches nothing if the balance would go negative
+    @Modifying
+    @Query("UPDATE Customer c SET c.points = c.points + :delta WHERE c.phone = :phone AND c.points + :delta >= 0")
+    int addCustomerPoints(@Param("phone") String phone, @Param("delta") double delta);
+
     // update orderdetails table
     @Query("SELECT p.name FROM Product p WHERE p.id = :itemId")
         Optional<String> findProductNameById(@Param("itemId") Long itemId);
 
-    //update orderdetails table
-    @Modifying
-    @Query(value = "INSERT INTO order_details (" +
-        "order_id, customer_id, item_id, discount_id, datetime, amount, " +
-        "total_discount, item_discount, category_discount, " +
-        "loyalty_discount, loyalty_tier, points_earned) " +
-        "VALUES (:orderId, :customerId, :itemId, :discountId, :datetime, :amount, " +
-        ":totalDiscount, :itemDiscount, :categoryDiscount, " +
-        ":loyaltyDiscount, :loyaltyTier, :pointsEarned)", nativeQuery = true)
-    void saveOrderDetails(
-        @Param("orderId") String orderId,
-        @Param("customerId") Long customerId,
-        @Param("itemId") Long itemId,
-        @Param("discountId") Long discountId,
-        @Param("datetime") LocalDateTime datetime,
-        @Param("amount") Double amount,
-        @Param("totalDiscount") Double totalDiscount,
-        @Param("itemDiscount") Double itemDiscount,
-        @Param("categoryDiscount") Double categoryDiscount,
-        @Param("loyaltyDiscount") Double loyaltyDiscount,
-        @Param("loyaltyTier") String loyaltyTier,
-        @Param("pointsEarned") Double pointsEarned);
-
     // update customer tier by phone number
     @Modifying
     @Query("UPDATE Customer c SET c.tier = :tier WHERE c.phone = :phone")
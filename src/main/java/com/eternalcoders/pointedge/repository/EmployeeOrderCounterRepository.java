@@ -0,0 +1,22 @@
+package com.eternalcoders.pointedge.repository;
+
+import com.eternalcoders.pointedge.entity.EmployeeOrderCounter;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDate;
+import java.util.List;
+
+public interface EmployeeOrderCounterRepository extends JpaRepository<EmployeeOrderCounter, Long>, EmployeeOrderCounterRepositoryCustom {
+    @Query("SELECT MAX(c.orderDay) FROM EmployeeOrderCounter c")
+    LocalDate findLatestOrderDay();
+
+    // per-employee totals of all days before the given day, as (employeeId, count) pairs
+    @Query("SELECT c.employeeId, SUM(c.orderCount) FROM EmployeeOrderCounter c WHERE c.orderDay < :day GROUP BY c.employeeId")
+    List<Object[]> sumOrderCountsBefore(@Param("day") LocalDate day);
+
+    // per-employee totals of all days, as (employeeId, count) pairs
+    @Query("SELECT c.employeeId, SUM(c.orderCount) FROM EmployeeOrderCounter c GROUP BY c.employeeId")
+    List<Object[]> sumOrderCounts();
+}
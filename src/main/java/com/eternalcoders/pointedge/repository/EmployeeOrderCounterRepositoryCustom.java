@@ -0,0 +1,20 @@
+package com.eternalcoders.pointedge.repository;
+
+import com.eternalcoders.pointedge.entity.EmployeeOrderCounter;
+
+import java.util.Collection;
+
+public interface EmployeeOrderCounterRepositoryCustom {
+    /**
+     * Adds the order count of every delta to its (employee, day) row with multi-row
+     * INSERT ... ON DUPLICATE KEY UPDATE statements, creating rows that do not exist yet, so
+     * several nodes can flush into the same row. Ids of the deltas are ignored.
+     */
+    void addAll(Collection<EmployeeOrderCounter> deltas);
+
+    /**
+     * Overwrites the order count of every (employee, day) row with the given absolute count,
+     * creating rows that do not exist yet. Ids of the counters are ignored.
+     */
+    void replaceAll(Collection<EmployeeOrderCounter> counts);
+}
@@ -0,0 +1,58 @@
+package com.eternalcoders.pointedge.repository;
+
+import com.eternalcoders.pointedge.entity.EmployeeOrderCounter;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Query;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+public class EmployeeOrderCounterRepositoryCustomImpl implements EmployeeOrderCounterRepositoryCustom {
+    private static final int MAX_ROWS_PER_STATEMENT = 500;
+
+    private static final String ADD_ON_DUPLICATE = " ON DUPLICATE KEY UPDATE order_count = order_count + VALUES(order_count)";
+    private static final String REPLACE_ON_DUPLICATE = " ON DUPLICATE KEY UPDATE order_count = VALUES(order_count)";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public void addAll(Collection<EmployeeOrderCounter> deltas) {
+        upsert(deltas, ADD_ON_DUPLICATE);
+    }
+
+    @Override
+    public void replaceAll(Collection<EmployeeOrderCounter> counts) {
+        upsert(counts, REPLACE_ON_DUPLICATE);
+    }
+
+    private void upsert(Collection<EmployeeOrderCounter> counters, String onDuplicate) {
+        List<EmployeeOrderCounter> rows = new ArrayList<>(counters);
+        for (int from = 0; from < rows.size(); from += MAX_ROWS_PER_STATEMENT) {
+            upsertChunk(rows.subList(from, Math.min(rows.size(), from + MAX_ROWS_PER_STATEMENT)), onDuplicate);
+        }
+    }
+
+    private void upsertChunk(List<EmployeeOrderCounter> rows, String onDuplicate) {
+        StringBuilder sql = new StringBuilder("INSERT INTO employee_order_counters (employee_id, order_day, order_count) VALUES ");
+        int position = 1;
+        for (int i = 0; i < rows.size(); i++) {
+            if (i > 0) {
+                sql.append(", ");
+            }
+            sql.append("(?").append(position++).append(", ?").append(position++).append(", ?").append(position++).append(')');
+        }
+        sql.append(onDuplicate);
+
+        Query query = entityManager.createNativeQuery(sql.toString());
+        position = 1;
+        for (EmployeeOrderCounter row : rows) {
+            query.setParameter(position++, row.getEmployeeId());
+            query.setParameter(position++, row.getOrderDay());
+            query.setParameter(position++, row.getOrderCount());
+        }
+        query.executeUpdate();
+    }
+}
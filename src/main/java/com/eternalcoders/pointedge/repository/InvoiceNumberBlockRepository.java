@@ -0,0 +1,23 @@
+package com.eternalcoders.pointedge.repository;
+
+import com.eternalcoders.pointedge.entity.InvoiceNumberBlock;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Optional;
+
+public interface InvoiceNumberBlockRepository extends JpaRepository<InvoiceNumberBlock, String> {
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT b FROM InvoiceNumberBlock b WHERE b.prefix = :prefix")
+    Optional<InvoiceNumberBlock> findByPrefixForUpdate(@Param("prefix") String prefix);
+
+    // creates the counter if no node has yet; a concurrent insert waits for the other one instead of failing
+    @Modifying
+    @Query(value = "INSERT INTO invoice_number_blocks (prefix, next_value) VALUES (:prefix, 1) "
+            + "ON DUPLICATE KEY UPDATE prefix = prefix", nativeQuery = true)
+    void insertIfMissing(@Param("prefix") String prefix);
+}
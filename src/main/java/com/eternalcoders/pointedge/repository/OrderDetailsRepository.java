@@ -11,7 +11,7 @@ import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface OrderDetailsRepository extends JpaRepository<OrderDetails, Long> {
+public interface OrderDetailsRepository extends JpaRepository<OrderDetails, Long>, OrderDetailsRepositoryCustom {
     
     
     // Find orders by customer
@@ -48,6 +48,39 @@ public interface OrderDetailsRepository extends JpaRepository<OrderDetails, Long
     @Query("SELECT SUM(o.totalDiscount) FROM OrderDetails o WHERE o.customer.id = :customerId")
     Double sumTotalDiscountByCustomer(@Param("customerId") Long customerId);
     
+    // Dashboard totals per slice between the window boundaries: 0 = since last24Hours, 1 = since last7Days,
+    // 2 = since last30Days, 3 = since lastYear; see OrderDetailsService.windowTotals for the columns
+    @Query("SELECT CASE WHEN o.datetime >= :last24Hours THEN 0 WHEN o.datetime >= :last7Days THEN 1 " +
+           "WHEN o.datetime >= :last30Days THEN 2 ELSE 3 END AS slice, " +
+           "SUM(CASE WHEN o.itemDiscount > 0 THEN 1 ELSE 0 END), " +
+           "SUM(CASE WHEN o.categoryDiscount > 0 THEN 1 ELSE 0 END), " +
+           "SUM(CASE WHEN o.loyaltyDiscount > 0 THEN 1 ELSE 0 END), " +
+           "SUM(o.totalDiscount), SUM(o.itemDiscount), SUM(o.categoryDiscount), SUM(o.loyaltyDiscount), " +
+           "SUM(o.pointsEarned), SUM(o.amount), " +
+           "SUM(CASE WHEN o.loyaltyDiscount > 0 THEN o.amount ELSE 0 END), " +
+           "SUM(CASE WHEN o.itemDiscount > 0 THEN o.amount ELSE 0 END), " +
+           "SUM(CASE WHEN o.categoryDiscount > 0 THEN o.amount ELSE 0 END) " +
+           "FROM OrderDetails o WHERE o.datetime BETWEEN :lastYear AND :now " +
+           "GROUP BY slice")
+    List<Object[]> sumTotalsByWindow(@Param("last24Hours") LocalDateTime last24Hours,
+                                     @Param("last7Days") LocalDateTime last7Days,
+                                     @Param("last30Days") LocalDateTime last30Days,
+                                     @Param("lastYear") LocalDateTime lastYear,
+                                     @Param("now") LocalDateTime now);
+    
+    // Distinct orders in each dashboard window, counted per window rather than per slice so that an
+    // order whose rows straddle a window boundary is still counted once
+    @Query("SELECT COUNT(DISTINCT CASE WHEN o.datetime >= :last24Hours THEN o.orderId END), " +
+           "COUNT(DISTINCT CASE WHEN o.datetime >= :last7Days THEN o.orderId END), " +
+           "COUNT(DISTINCT CASE WHEN o.datetime >= :last30Days THEN o.orderId END), " +
+           "COUNT(DISTINCT o.orderId) " +
+           "FROM OrderDetails o WHERE o.datetime BETWEEN :lastYear AND :now")
+    List<Object[]> countOrdersByWindow(@Param("last24Hours") LocalDateTime last24Hours,
+                                       @Param("last7Days") LocalDateTime last7Days,
+                                       @Param("last30Days") LocalDateTime last30Days,
+                                       @Param("lastYear") LocalDateTime lastYear,
+                                       @Param("now") LocalDateTime now);
+    
     // Count total orders in date range
     @Query("SELECT COUNT(DISTINCT o.orderId) FROM OrderDetails o WHERE o.datetime BETWEEN :startDate AND :endDate")
     Long countTotalOrdersInDateRange(@Param("startDate") LocalDateTime startDate, @Param("endDate") LocalDateTime endDate);
@@ -126,28 +159,22 @@ public interface OrderDetailsRepository extends JpaRepository<OrderDetails, Long
        List<Object[]> sumLoyaltyDiscountByTierInDateRange(@Param("startDate") LocalDateTime startDate, 
                                                         @Param("endDate") LocalDateTime endDate);
 
-       // Item discount analytics
-       @Query("SELECT o.itemId, SUM(o.amount) as totalAmount, SUM(o.itemDiscount) as totalDiscount, COUNT(o) as count " +
-              "FROM OrderDetails o " +
+       // Item discount analytics, with the product name joined in (null for deleted products)
+       @Query("SELECT o.itemId, p.name, SUM(o.amount) as totalAmount, SUM(o.itemDiscount) as totalDiscount, COUNT(o) as count " +
+              "FROM OrderDetails o LEFT JOIN Product p ON o.itemId = p.id " +
               "WHERE o.itemDiscount > 0 AND o.datetime BETWEEN :startDate AND :endDate " +
-              "GROUP BY o.itemId " +
+              "GROUP BY o.itemId, p.name " +
               "ORDER BY count DESC")
        List<Object[]> findItemDiscountAnalyticsByDateRange(@Param("startDate") LocalDateTime startDate, @Param("endDate") LocalDateTime endDate);
 
-       @Query("SELECT p.name FROM Product p WHERE p.id = :id")
-       Optional<String> findNameById(@Param("id") Long id);
-
-       // Category discount analytics
-       @Query("SELECT p.category.id, SUM(o.amount) as totalAmount, SUM(o.categoryDiscount) as totalDiscount, COUNT(o) as count " +
-              "FROM OrderDetails o JOIN Product p ON o.itemId = p.id " +
+       // Category discount analytics, with the category name joined in
+       @Query("SELECT c.id, c.name, SUM(o.amount) as totalAmount, SUM(o.categoryDiscount) as totalDiscount, COUNT(o) as count " +
+              "FROM OrderDetails o JOIN Product p ON o.itemId = p.id JOIN p.category c " +
               "WHERE o.categoryDiscount > 0 AND o.datetime BETWEEN :startDate AND :endDate " +
-              "GROUP BY p.category.id " +
+              "GROUP BY c.id, c.name " +
               "ORDER BY count DESC")
        List<Object[]> findCategoryDiscountAnalyticsByDateRange(@Param("startDate") LocalDateTime startDate, 
                                                                @Param("endDate") LocalDateTime endDate);
-       // Category name by ID
-       @Query("SELECT c.name FROM Category c WHERE c.id = :id")
-       Optional<String> findCategoryNameById(@Param("id") Long id);
 
        // Loyalty discount analytics
        @Query("SELECT SUM(o.pointsEarned) FROM OrderDetails o WHERE o.datetime BETWEEN :startDate AND :endDate")
@@ -220,21 +247,23 @@ public interface OrderDetailsRepository extends JpaRepository<OrderDetails, Long
     List<Object[]> countLoyaltyDiscountsByTierAndDateRange(@Param("startDate") LocalDateTime startDate, 
                                                          @Param("endDate") LocalDateTime endDate);
 
-                                                         @Query("SELECT o.itemId, SUM(o.amount), SUM(o.itemDiscount), COUNT(o) " +
-                                                         "FROM OrderDetails o WHERE o.itemDiscount > 0 AND " +
-                                                         "(:startDate IS NULL OR o.datetime >= :startDate) AND " +
-                                                         "(:endDate IS NULL OR o.datetime <= :endDate) " +
-                                                         "GROUP BY o.itemId ORDER BY COUNT(o) DESC")
-                                                  List<Object[]> findTopItemDiscountsByDateRange(@Param("startDate") LocalDateTime startDate, 
-                                                                                               @Param("endDate") LocalDateTime endDate);
-
-                                                                                               @Query("SELECT o.itemId, SUM(o.amount), SUM(o.categoryDiscount), COUNT(o) " +
-                                                                                               "FROM OrderDetails o WHERE o.categoryDiscount > 0 AND " +
-                                                                                               "(:startDate IS NULL OR o.datetime >= :startDate) AND " +
-                                                                                               "(:endDate IS NULL OR o.datetime <= :endDate) " +
-                                                                                               "GROUP BY o.itemId ORDER BY COUNT(o) DESC")
-                                                                                        List<Object[]> findTopCategoryDiscountsByDateRange(@Param("startDate") LocalDateTime startDate, 
-                                                                                                                                         @Param("endDate") LocalDateTime endDate);
+    // same columns as findItemDiscountAnalyticsByDateRange, with optional range bounds
+    @Query("SELECT o.itemId, p.name, SUM(o.amount), SUM(o.itemDiscount), COUNT(o) " +
+           "FROM OrderDetails o LEFT JOIN Product p ON o.itemId = p.id WHERE o.itemDiscount > 0 AND " +
+           "(:startDate IS NULL OR o.datetime >= :startDate) AND " +
+           "(:endDate IS NULL OR o.datetime <= :endDate) " +
+           "GROUP BY o.itemId, p.name ORDER BY COUNT(o) DESC")
+    List<Object[]> findTopItemDiscountsByDateRange(@Param("startDate") LocalDateTime startDate, 
+                                                 @Param("endDate") LocalDateTime endDate);
+
+    // same columns as findCategoryDiscountAnalyticsByDateRange, with optional range bounds
+    @Query("SELECT c.id, c.name, SUM(o.amount), SUM(o.categoryDiscount), COUNT(o) " +
+           "FROM OrderDetails o JOIN Product p ON o.itemId = p.id JOIN p.category c WHERE o.categoryDiscount > 0 AND " +
+           "(:startDate IS NULL OR o.datetime >= :startDate) AND " +
+           "(:endDate IS NULL OR o.datetime <= :endDate) " +
+           "GROUP BY c.id, c.name ORDER BY COUNT(o) DESC")
+    List<Object[]> findTopCategoryDiscountsByDateRange(@Param("startDate") LocalDateTime startDate, 
+                                                     @Param("endDate") LocalDateTime endDate);
 
     @Query("SELECT SUM(o.amount), SUM(o.pointsEarned) FROM OrderDetails o WHERE " +
            "(:startDate IS NULL OR o.datetime >= :startDate) AND " +
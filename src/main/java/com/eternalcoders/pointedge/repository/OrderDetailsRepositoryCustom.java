@@ -0,0 +1,13 @@
+package com.eternalcoders.pointedge.repository;
+
+import com.eternalcoders.pointedge.entity.OrderDetails;
+
+import java.util.List;
+
+public interface OrderDetailsRepositoryCustom {
+    /**
+     * Inserts all rows with multi-row INSERT statements of at most a few hundred rows each,
+     * bypassing the persistence context. Ids are assigned by the database and not read back.
+     */
+    int insertAll(List<OrderDetails> rows);
+}
@@ -0,0 +1,63 @@
+package com.eternalcoders.pointedge.repository;
+
+import com.eternalcoders.pointedge.entity.OrderDetails;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Query;
+
+import java.util.List;
+
+public class OrderDetailsRepositoryCustomImpl implements OrderDetailsRepositoryCustom {
+    // 12 parameters per row keeps a full statement well below driver and packet limits
+    private static final int MAX_ROWS_PER_STATEMENT = 500;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public int insertAll(List<OrderDetails> rows) {
+        int inserted = 0;
+        for (int from = 0; from < rows.size(); from += MAX_ROWS_PER_STATEMENT) {
+            inserted += insertChunk(rows.subList(from, Math.min(rows.size(), from + MAX_ROWS_PER_STATEMENT)));
+        }
+        return inserted;
+    }
+
+    private int insertChunk(List<OrderDetails> rows) {
+        StringBuilder sql = new StringBuilder("INSERT INTO order_details (order_id, customer_id, item_id, discount_id, "
+                + "datetime, amount, total_discount, item_discount, category_discount, loyalty_discount, "
+                + "loyalty_tier, points_earned) VALUES ");
+        int position = 1;
+        for (int i = 0; i < rows.size(); i++) {
+            if (i > 0) {
+                sql.append(", ");
+            }
+            sql.append('(');
+            for (int column = 0; column < 12; column++) {
+                if (column > 0) {
+                    sql.append(", ");
+                }
+                sql.append('?').append(position++);
+            }
+            sql.append(')');
+        }
+
+        Query query = entityManager.createNativeQuery(sql.toString());
+        position = 1;
+        for (OrderDetails row : rows) {
+            query.setParameter(position++, row.getOrderId());
+            query.setParameter(position++, row.getCustomer().getId());
+            query.setParameter(position++, row.getItemId());
+            query.setParameter(position++, row.getDiscountId());
+            query.setParameter(position++, row.getDatetime());
+            query.setParameter(position++, row.getAmount());
+            query.setParameter(position++, row.getTotalDiscount());
+            query.setParameter(position++, row.getItemDiscount());
+            query.setParameter(position++, row.getCategoryDiscount());
+            query.setParameter(position++, row.getLoyaltyDiscount());
+            query.setParameter(position++, row.getLoyaltyTier());
+            query.setParameter(position++, row.getPointsEarned());
+        }
+        return query.executeUpdate();
+    }
+}
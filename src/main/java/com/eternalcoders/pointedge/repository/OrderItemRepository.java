@@ -33,37 +33,6 @@ public interface OrderItemRepository extends JpaRepository<OrderItem, Long> {
             Pageable pageable
     );
 
-    @Query("""
-                SELECT new com.eternalcoders.pointedge.dto.TopSellingProductDTO(
-                    oi.product.id, oi.product.name, SUM(oi.quantity)
-                )
-                FROM OrderItem oi
-                GROUP BY oi.product.id, oi.product.name
-                ORDER BY SUM(oi.quantity) DESC
-            """)
-    List<TopSellingProductDTO> findTopSellingProducts();
-
-    @Query("""
-                SELECT new com.eternalcoders.pointedge.dto.DailySalesDTO(
-                    o.orderDate, SUM(CAST(oi.pricePerUnit * oi.quantity AS double))
-                )
-                FROM OrderItem oi
-                JOIN oi.order o
-                GROUP BY o.orderDate
-                ORDER BY o.orderDate
-            """)
-    List<DailySalesDTO> getDailySales();
-
-    @Query("""
-                SELECT new com.eternalcoders.pointedge.dto.ProductRevenueDTO(
-                    oi.product.id, oi.product.name, SUM(CAST(oi.pricePerUnit * oi.quantity AS double))
-                )
-                FROM OrderItem oi
-                GROUP BY oi.product.id, oi.product.name
-                ORDER BY SUM(oi.pricePerUnit * oi.quantity) DESC
-            """)
-    List<ProductRevenueDTO> getRevenueByProduct();
-
     @Query("""
                 SELECT new com.eternalcoders.pointedge.dto.CategoryDistributionDTO(
                     p.category.name, COUNT(p.id)
@@ -72,4 +41,19 @@ public interface OrderItemRepository extends JpaRepository<OrderItem, Long> {
                 GROUP BY p.category.name
             """)
     List<CategoryDistributionDTO> getCategoryDistribution();
+
+    // sales per fixed-width slot counted from :start, as (slot number, total) pairs
+    @Query("""
+                SELECT FLOOR(((o.orderDate - :start) by minute) / :slotMinutes) AS slot,
+                    SUM(CAST(oi.pricePerUnit * oi.quantity AS double))
+                FROM OrderItem oi
+                JOIN oi.order o
+                WHERE o.orderDate >= :start AND o.orderDate < :end
+                GROUP BY slot
+            """)
+    List<Object[]> sumSalesBySlot(
+            @Param("start") LocalDateTime start,
+            @Param("end") LocalDateTime end,
+            @Param("slotMinutes") long slotMinutes
+    );
 }
@@ -8,6 +8,7 @@ import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
@@ -101,6 +102,20 @@ public interface OrderRepository extends JpaRepository<Order, Long> {
      */
     List<Order> findTop10ByEmployeeIdOrderByOrderDateDesc(Long employeeId);
 
+    /**
+     * Find already recorded offline sales, as (clientSaleId, orderId) pairs
+     */
+    @Query("SELECT o.clientSaleId, o.id FROM Order o WHERE o.clientSaleId IN :clientSaleIds")
+    List<Object[]> findOrderIdsByClientSaleIds(@Param("clientSaleIds") Collection<String> clientSaleIds);
+
+    /**
+     * Count orders per employee and calendar day placed in [from, until), as (employeeId, day, count) rows
+     */
+    @Query(value = "SELECT employee_id, DATE(order_date), COUNT(*) FROM orders " +
+            "WHERE employee_id IS NOT NULL AND order_date >= :from AND order_date < :until " +
+            "GROUP BY employee_id, DATE(order_date)", nativeQuery = true)
+    List<Object[]> countOrdersByEmployeeAndDay(@Param("from") LocalDateTime from, @Param("until") LocalDateTime until);
+
     @Query("SELECT COUNT(o) FROM Order o WHERE o.employeeId = :employeeId")
     Long countTotalOrdersByEmployee(@Param("employeeId") Long employeeId);
 }
@@ -4,19 +4,27 @@ import com.eternalcoders.pointedge.dto.CategoryDistributionDTO;
 import com.eternalcoders.pointedge.entity.Product;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
-public interface ProductRepository extends JpaRepository<Product, Long> {
+public interface ProductRepository extends JpaRepository<Product, Long>, ProductRepositoryCustom {
     @Modifying
     @Query("UPDATE Product p SET p.stockQuantity = p.stockQuantity - :quantity WHERE p.id = :productId AND p.stockQuantity >= :quantity")
     int reduceStock(@Param("productId") Long productId, @Param("quantity") long quantity);
 
+    // rows are locked in id order so concurrent checkouts cannot deadlock on each other
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT p FROM Product p WHERE p.id IN :ids ORDER BY p.id")
+    List<Product> findAllByIdForUpdate(@Param("ids") Collection<Long> ids);
+
     @Query("SELECT p FROM Product p " +
             "WHERE (:brandId IS NULL OR p.brand.id = :brandId) " +
             "AND (:categoryId IS NULL OR p.category.id = :categoryId) " +
@@ -0,0 +1,12 @@
+package com.eternalcoders.pointedge.repository;
+
+import java.util.Map;
+
+public interface ProductRepositoryCustom {
+    /**
+     * Decrements stock for every product in {@code quantities} (product id -> quantity)
+     * with a single UPDATE statement. A row is only touched when it still holds enough
+     * stock, so the returned count is lower than {@code quantities.size()} on a shortfall.
+     */
+    int reserveStock(Map<Long, Long> quantities);
+}
@@ -0,0 +1,49 @@
+package com.eternalcoders.pointedge.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Query;
+
+import java.util.Map;
+
+public class ProductRepositoryCustomImpl implements ProductRepositoryCustom {
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public int reserveStock(Map<Long, Long> quantities) {
+        if (quantities.isEmpty()) {
+            return 0;
+        }
+
+        StringBuilder delta = new StringBuilder("CASE id");
+        StringBuilder ids = new StringBuilder();
+        int position = 1;
+        for (int i = 0; i < quantities.size(); i++) {
+            delta.append(" WHEN ?").append(position++).append(" THEN ?").append(position++);
+        }
+        delta.append(" END");
+        for (int i = 0; i < quantities.size(); i++) {
+            if (i > 0) {
+                ids.append(", ");
+            }
+            ids.append('?').append(position++);
+        }
+
+        Query query = entityManager.createNativeQuery(
+                "UPDATE products SET stock_quantity = stock_quantity - " + delta
+                        + " WHERE id IN (" + ids + ") AND stock_quantity >= " + delta
+        );
+
+        position = 1;
+        for (Map.Entry<Long, Long> entry : quantities.entrySet()) {
+            query.setParameter(position++, entry.getKey());
+            query.setParameter(position++, entry.getValue());
+        }
+        for (Long productId : quantities.keySet()) {
+            query.setParameter(position++, productId);
+        }
+
+        return query.executeUpdate();
+    }
+}
@@ -0,0 +1,100 @@
+package com.eternalcoders.pointedge.repository;
+
+import com.eternalcoders.pointedge.dto.DailySalesDTO;
+import com.eternalcoders.pointedge.dto.ProductReturnRateDTO;
+import com.eternalcoders.pointedge.dto.ProductRevenueDTO;
+import com.eternalcoders.pointedge.dto.TopSellingProductDTO;
+import com.eternalcoders.pointedge.entity.SalesRollup;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDate;
+import java.util.List;
+
+public interface SalesRollupRepository extends JpaRepository<SalesRollup, Long>, SalesRollupRepositoryCustom {
+    // best sellers by units sold; brand, category and the inclusive day range are optional
+    @Query("""
+                SELECT new com.eternalcoders.pointedge.dto.TopSellingProductDTO(
+                    r.productId, p.name, SUM(r.quantitySold)
+                )
+                FROM SalesRollup r
+                JOIN Product p ON r.productId = p.id
+                WHERE (:brandId IS NULL OR r.brandId = :brandId)
+                AND (:categoryId IS NULL OR r.categoryId = :categoryId)
+                AND (:from IS NULL OR r.saleDay >= :from)
+                AND (:to IS NULL OR r.saleDay <= :to)
+                GROUP BY r.productId, p.name
+                HAVING SUM(r.quantitySold) > 0
+                ORDER BY SUM(r.quantitySold) DESC, r.productId
+            """)
+    List<TopSellingProductDTO> findTopSellingProducts(
+            @Param("brandId") Long brandId,
+            @Param("categoryId") Long categoryId,
+            @Param("from") LocalDate from,
+            @Param("to") LocalDate to,
+            Pageable pageable
+    );
+
+    @Query("""
+                SELECT new com.eternalcoders.pointedge.dto.DailySalesDTO(
+                    r.saleDay, SUM(r.revenue)
+                )
+                FROM SalesRollup r
+                WHERE r.saleDay >= :from AND r.saleDay < :to
+                GROUP BY r.saleDay
+                HAVING SUM(r.quantitySold) > 0
+                ORDER BY r.saleDay
+            """)
+    List<DailySalesDTO> getDailySales(@Param("from") LocalDate from, @Param("to") LocalDate to);
+
+    @Query("SELECT MIN(r.saleDay) FROM SalesRollup r")
+    LocalDate findFirstSaleDay();
+
+    // same filters as findTopSellingProducts, ranked by revenue
+    @Query("""
+                SELECT new com.eternalcoders.pointedge.dto.ProductRevenueDTO(
+                    r.productId, p.name, SUM(r.revenue)
+                )
+                FROM SalesRollup r
+                JOIN Product p ON r.productId = p.id
+                WHERE (:brandId IS NULL OR r.brandId = :brandId)
+                AND (:categoryId IS NULL OR r.categoryId = :categoryId)
+                AND (:from IS NULL OR r.saleDay >= :from)
+                AND (:to IS NULL OR r.saleDay <= :to)
+                GROUP BY r.productId, p.name
+                HAVING SUM(r.quantitySold) > 0
+                ORDER BY SUM(r.revenue) DESC, r.productId
+            """)
+    List<ProductRevenueDTO> getRevenueByProduct(
+            @Param("brandId") Long brandId,
+            @Param("categoryId") Long categoryId,
+            @Param("from") LocalDate from,
+            @Param("to") LocalDate to,
+            Pageable pageable
+    );
+
+    // all-time (productId, units sold, revenue) per product, seeds the live leaderboard
+    @Query("""
+                SELECT r.productId, SUM(r.quantitySold), SUM(r.revenue)
+                FROM SalesRollup r
+                GROUP BY r.productId
+                HAVING SUM(r.quantitySold) > 0
+            """)
+    List<Object[]> sumSalesByProduct();
+
+    // returned over sold units, for products with at least one return
+    @Query("""
+                SELECT new com.eternalcoders.pointedge.dto.ProductReturnRateDTO(
+                    r.productId, p.name,
+                    CAST(SUM(r.quantityReturned) AS double) /
+                    CASE WHEN SUM(r.quantitySold) > 0 THEN SUM(r.quantitySold) ELSE 1 END
+                )
+                FROM SalesRollup r
+                JOIN Product p ON r.productId = p.id
+                GROUP BY r.productId, p.name
+                HAVING SUM(r.quantityReturned) > 0
+            """)
+    List<ProductReturnRateDTO> getReturnRatesByProduct();
+}
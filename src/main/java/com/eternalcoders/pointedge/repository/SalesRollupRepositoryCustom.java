@@ -0,0 +1,20 @@
+package com.eternalcoders.pointedge.repository;
+
+import com.eternalcoders.pointedge.entity.SalesRollup;
+
+import java.util.Collection;
+
+public interface SalesRollupRepositoryCustom {
+    /**
+     * Adds the quantities and amounts of every delta to its (day, product, category, brand,
+     * employee) row with multi-row INSERT ... ON DUPLICATE KEY UPDATE statements, creating
+     * rows that do not exist yet. Ids of the deltas are ignored.
+     */
+    void addAll(Collection<SalesRollup> deltas);
+
+    /**
+     * Replaces the whole rollup with one aggregated from the order_item and return_record
+     * history. Returns the number of rollup rows afterwards.
+     */
+    long rebuildFromHistory();
+}
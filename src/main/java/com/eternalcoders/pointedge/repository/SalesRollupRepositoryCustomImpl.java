@@ -0,0 +1,96 @@
+package com.eternalcoders.pointedge.repository;
+
+import com.eternalcoders.pointedge.entity.SalesRollup;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Query;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+public class SalesRollupRepositoryCustomImpl implements SalesRollupRepositoryCustom {
+    // 9 parameters per row keeps a full statement well below driver and packet limits
+    private static final int MAX_ROWS_PER_STATEMENT = 500;
+
+    private static final String COLUMNS = "sale_day, product_id, category_id, brand_id, employee_id, "
+            + "quantity_sold, revenue, quantity_returned, refunded_amount";
+
+    private static final String ADD_ON_DUPLICATE = " ON DUPLICATE KEY UPDATE "
+            + "quantity_sold = quantity_sold + VALUES(quantity_sold), "
+            + "revenue = revenue + VALUES(revenue), "
+            + "quantity_returned = quantity_returned + VALUES(quantity_returned), "
+            + "refunded_amount = refunded_amount + VALUES(refunded_amount)";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public void addAll(Collection<SalesRollup> deltas) {
+        List<SalesRollup> rows = new ArrayList<>(deltas);
+        for (int from = 0; from < rows.size(); from += MAX_ROWS_PER_STATEMENT) {
+            addChunk(rows.subList(from, Math.min(rows.size(), from + MAX_ROWS_PER_STATEMENT)));
+        }
+    }
+
+    private void addChunk(List<SalesRollup> rows) {
+        StringBuilder sql = new StringBuilder("INSERT INTO sales_rollup (" + COLUMNS + ") VALUES ");
+        int position = 1;
+        for (int i = 0; i < rows.size(); i++) {
+            if (i > 0) {
+                sql.append(", ");
+            }
+            sql.append('(');
+            for (int column = 0; column < 9; column++) {
+                if (column > 0) {
+                    sql.append(", ");
+                }
+                sql.append('?').append(position++);
+            }
+            sql.append(')');
+        }
+        sql.append(ADD_ON_DUPLICATE);
+
+        Query query = entityManager.createNativeQuery(sql.toString());
+        position = 1;
+        for (SalesRollup row : rows) {
+            query.setParameter(position++, row.getSaleDay());
+            query.setParameter(position++, row.getProductId());
+            query.setParameter(position++, row.getCategoryId());
+            query.setParameter(position++, row.getBrandId());
+            query.setParameter(position++, row.getEmployeeId());
+            query.setParameter(position++, row.getQuantitySold());
+            query.setParameter(position++, row.getRevenue());
+            query.setParameter(position++, row.getQuantityReturned());
+            query.setParameter(position++, row.getRefundedAmount());
+        }
+        query.executeUpdate();
+    }
+
+    @Override
+    public long rebuildFromHistory() {
+        entityManager.createNativeQuery("DELETE FROM sales_rollup").executeUpdate();
+
+        entityManager.createNativeQuery("INSERT INTO sales_rollup (" + COLUMNS + ") "
+                + "SELECT CAST(o.order_date AS DATE), p.id, p.category_id, p.brand_id, COALESCE(o.employee_id, 0), "
+                + "SUM(oi.quantity), SUM(oi.price_per_unit * oi.quantity), 0, 0 "
+                + "FROM order_item oi "
+                + "JOIN orders o ON oi.order_id = o.id "
+                + "JOIN products p ON oi.product_id = p.id "
+                + "WHERE o.order_date IS NOT NULL "
+                + "GROUP BY CAST(o.order_date AS DATE), p.id, p.category_id, p.brand_id, COALESCE(o.employee_id, 0)"
+        ).executeUpdate();
+
+        entityManager.createNativeQuery("INSERT INTO sales_rollup (" + COLUMNS + ") "
+                + "SELECT CAST(r.returned_at AS DATE), p.id, p.category_id, p.brand_id, 0, "
+                + "0, 0, SUM(r.quantity_returned), SUM(r.refund_amount) "
+                + "FROM return_record r "
+                + "JOIN products p ON r.product_id = p.id "
+                + "WHERE r.returned_at IS NOT NULL "
+                + "GROUP BY CAST(r.returned_at AS DATE), p.id, p.category_id, p.brand_id"
+                + ADD_ON_DUPLICATE
+        ).executeUpdate();
+
+        return ((Number) entityManager.createNativeQuery("SELECT COUNT(*) FROM sales_rollup").getSingleResult()).longValue();
+    }
+}
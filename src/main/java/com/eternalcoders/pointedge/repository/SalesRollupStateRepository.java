@@ -0,0 +1,22 @@
+package com.eternalcoders.pointedge.repository;
+
+import com.eternalcoders.pointedge.entity.SalesRollupState;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Optional;
+
+public interface SalesRollupStateRepository extends JpaRepository<SalesRollupState, Long> {
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT s FROM SalesRollupState s WHERE s.id = :id")
+    Optional<SalesRollupState> findByIdForUpdate(@Param("id") Long id);
+
+    // creates the row if no node has yet; a concurrent insert waits for the other one instead of failing
+    @Modifying
+    @Query(value = "INSERT INTO sales_rollup_state (id) VALUES (:id) ON DUPLICATE KEY UPDATE id = id", nativeQuery = true)
+    void insertIfMissing(@Param("id") Long id);
+}
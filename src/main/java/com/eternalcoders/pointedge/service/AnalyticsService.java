@@ -1,44 +1,219 @@
 package com.eternalcoders.pointedge.service;
 
 import com.eternalcoders.pointedge.dto.*;
+import com.eternalcoders.pointedge.dto.SalesSeriesDTO.Bucket;
 import com.eternalcoders.pointedge.repository.OrderItemRepository;
 import com.eternalcoders.pointedge.repository.ProductRepository;
-import com.eternalcoders.pointedge.repository.ReturnRecordRepository;
+import com.eternalcoders.pointedge.repository.SalesRollupRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
 
+import java.time.DayOfWeek;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.temporal.ChronoUnit;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
+// sales figures come from the sales_rollup table, see SalesRollupService
 @Service
 public class AnalyticsService {
 
+    @Autowired
+    private SalesRollupRepository salesRollupRepository;
+
+    @Autowired
+    private SalesRollupService salesRollupService;
+
+    @Autowired
+    private SalesLeaderboard salesLeaderboard;
+
     @Autowired
     private OrderItemRepository orderItemRepository;
 
     @Autowired
-    private ReturnRecordRepository returnRecordRepository;
+    private ProductCatalogCache productCatalogCache;
 
     @Autowired
     private ProductRepository productRepository;
 
+    @Value("${pointedge.sales-series.max-points:500}")
+    private int maxSeriesPoints;
+
     public List<CategoryDistributionDTO> getProductCategoryDistribution() {
         return productRepository.getProductCategoryDistribution();
     }
 
-    public List<TopSellingProductDTO> getTopSellingProducts() {
-        return orderItemRepository.findTopSellingProducts();
+    /**
+     * The {@code limit} best sellers by units sold. Unfiltered rankings come from the live
+     * leaderboard; filtered ones are ranked and cut off by the rollup query.
+     */
+    public List<TopSellingProductDTO> getTopSellingProducts(int limit, Long brandId, Long categoryId, LocalDate from, LocalDate to) {
+        if (brandId == null && categoryId == null && from == null && to == null && salesLeaderboard.isSeeded()) {
+            List<SalesLeaderboard.Standing> top = salesLeaderboard.topByQuantity(limit);
+            Map<Long, ProductCatalogCache.Entry> products = productCatalogCache.findAllById(productIds(top));
+            return top.stream()
+                    .filter(standing -> products.containsKey(standing.productId()))
+                    .map(standing -> new TopSellingProductDTO(
+                            standing.productId(), products.get(standing.productId()).name(), standing.quantity()))
+                    .toList();
+        }
+        return salesRollupRepository.findTopSellingProducts(brandId, categoryId, from, to, PageRequest.of(0, limit));
     }
 
-    public List<DailySalesDTO> getSalesOverTime() {
-        return orderItemRepository.getDailySales();
+    /**
+     * Sales per bucket between {@code from} and {@code to}, both local to {@code zone}; the
+     * range is widened to whole buckets and empty buckets are reported as zero. When the range
+     * holds more buckets than the configured maximum, the next coarser bucket is used instead;
+     * when even months are too many, a start before the first sale is moved up to it, and a
+     * range that still holds too many months is rejected.
+     * Day, week and month buckets are summed from the daily rollup when the zone keeps the
+     * server's clock; anything else is bucketed by the database from the orders in range.
+     */
+    public SalesSeriesDTO getSalesSeries(LocalDateTime from, LocalDateTime to, Bucket requested, ZoneId zone) {
+        ZoneId serverZone = ZoneId.systemDefault();
+        LocalDateTime end = to != null ? to : LocalDateTime.now(zone);
+        LocalDateTime start = from != null ? from : firstSaleTime(end, serverZone, zone);
+        if (!start.isBefore(end)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "'from' must be before 'to'");
+        }
+
+        Bucket bucket = fittingBucket(requested, start, end);
+        if (bucketCount(start, end, bucket) > maxSeriesPoints) {
+            // months before the first sale would all be empty
+            LocalDateTime firstSale = firstSaleTime(end, serverZone, zone);
+            if (firstSale.isAfter(start)) {
+                start = firstSale;
+                bucket = fittingBucket(requested, start, end);
+            }
+            if (bucketCount(start, end, bucket) > maxSeriesPoints) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                        "Range holds more than " + maxSeriesPoints + " months of sales, narrow 'from' or 'to'");
+            }
+        }
+
+        Map<LocalDateTime, Double> totals = new LinkedHashMap<>();
+        LocalDateTime first = truncate(start, bucket);
+        LocalDateTime last = first;
+        while (last.isBefore(end)) {
+            totals.put(last, 0.0);
+            last = next(last, bucket);
+        }
+
+        if (bucket.compareTo(Bucket.DAY) >= 0 && zone.getRules().equals(serverZone.getRules())) {
+            for (DailySalesDTO day : salesRollupRepository.getDailySales(first.toLocalDate(), last.toLocalDate())) {
+                add(totals, truncate(day.getDate(), bucket), day.getTotalSales());
+            }
+        } else {
+            // hour slots line up with the zone's day boundaries even when its offset differs from the server's
+            long slotMinutes = bucket == Bucket.MINUTE ? 1 : 60;
+            LocalDateTime origin = convert(first, zone, serverZone);
+            for (Object[] row : orderItemRepository.sumSalesBySlot(origin, convert(last, zone, serverZone), slotMinutes)) {
+                LocalDateTime slotStart = origin.plusMinutes(((Number) row[0]).longValue() * slotMinutes);
+                add(totals, truncate(convert(slotStart, serverZone, zone), bucket), ((Number) row[1]).doubleValue());
+            }
+        }
+
+        List<DailySalesDTO> points = new ArrayList<>(totals.size());
+        totals.forEach((time, total) -> points.add(new DailySalesDTO(time, total)));
+        return new SalesSeriesDTO(requested, bucket, zone.getId(), first, last, points);
     }
 
-    public List<ProductRevenueDTO> getRevenueByProduct() {
-        return orderItemRepository.getRevenueByProduct();
+    // same as getTopSellingProducts, ranked by revenue
+    public List<ProductRevenueDTO> getRevenueByProduct(int limit, Long brandId, Long categoryId, LocalDate from, LocalDate to) {
+        if (brandId == null && categoryId == null && from == null && to == null && salesLeaderboard.isSeeded()) {
+            List<SalesLeaderboard.Standing> top = salesLeaderboard.topByRevenue(limit);
+            Map<Long, ProductCatalogCache.Entry> products = productCatalogCache.findAllById(productIds(top));
+            return top.stream()
+                    .filter(standing -> products.containsKey(standing.productId()))
+                    .map(standing -> new ProductRevenueDTO(
+                            standing.productId(), products.get(standing.productId()).name(), standing.revenue()))
+                    .toList();
+        }
+        return salesRollupRepository.getRevenueByProduct(brandId, categoryId, from, to, PageRequest.of(0, limit));
     }
 
     public List<ProductReturnRateDTO> getReturnRatesByProduct() {
-        return returnRecordRepository.getReturnRatesByProduct();
+        return salesRollupRepository.getReturnRatesByProduct();
+    }
+
+    public long rebuildSalesRollup() {
+        long rows = salesRollupService.rebuild();
+        salesLeaderboard.seed();
+        return rows;
+    }
+
+    // default start of a series: the first day with sales, in the requested zone
+    private LocalDateTime firstSaleTime(LocalDateTime end, ZoneId serverZone, ZoneId zone) {
+        LocalDate firstDay = salesRollupRepository.findFirstSaleDay();
+        LocalDateTime start = firstDay != null ? convert(firstDay.atStartOfDay(), serverZone, zone) : null;
+        return start != null && start.isBefore(end) ? start : end.minusDays(30);
+    }
+
+    private static List<Long> productIds(List<SalesLeaderboard.Standing> standings) {
+        return standings.stream().map(SalesLeaderboard.Standing::productId).toList();
+    }
+
+    private static void add(Map<LocalDateTime, Double> totals, LocalDateTime bucketStart, Double amount) {
+        if (amount != null) {
+            totals.computeIfPresent(bucketStart, (time, total) -> total + amount);
+        }
+    }
+
+    // the requested bucket, or the first coarser one that keeps the range within the point limit
+    private Bucket fittingBucket(Bucket requested, LocalDateTime start, LocalDateTime end) {
+        Bucket bucket = requested;
+        while (bucket != Bucket.MONTH && bucketCount(start, end, bucket) > maxSeriesPoints) {
+            bucket = Bucket.values()[bucket.ordinal() + 1];
+        }
+        return bucket;
+    }
+
+    private static long bucketCount(LocalDateTime start, LocalDateTime end, Bucket bucket) {
+        return Duration.between(start, end).toMinutes() / nominalMinutes(bucket);
+    }
+
+    private static LocalDateTime convert(LocalDateTime time, ZoneId fromZone, ZoneId toZone) {
+        return time.atZone(fromZone).withZoneSameInstant(toZone).toLocalDateTime();
+    }
+
+    private static long nominalMinutes(Bucket bucket) {
+        return switch (bucket) {
+            case MINUTE -> 1;
+            case HOUR -> 60;
+            case DAY -> 1_440;
+            case WEEK -> 10_080;
+            case MONTH -> 43_200;
+        };
+    }
+
+    private static LocalDateTime truncate(LocalDateTime time, Bucket bucket) {
+        return switch (bucket) {
+            case MINUTE -> time.truncatedTo(ChronoUnit.MINUTES);
+            case HOUR -> time.truncatedTo(ChronoUnit.HOURS);
+            case DAY -> time.toLocalDate().atStartOfDay();
+            case WEEK -> time.toLocalDate().with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY)).atStartOfDay();
+            case MONTH -> time.toLocalDate().withDayOfMonth(1).atStartOfDay();
+        };
+    }
+
+    private static LocalDateTime next(LocalDateTime bucketStart, Bucket bucket) {
+        return switch (bucket) {
+            case MINUTE -> bucketStart.plusMinutes(1);
+            case HOUR -> bucketStart.plusHours(1);
+            case DAY -> bucketStart.plusDays(1);
+            case WEEK -> bucketStart.plusWeeks(1);
+            case MONTH -> bucketStart.plusMonths(1);
+        };
     }
 
 }
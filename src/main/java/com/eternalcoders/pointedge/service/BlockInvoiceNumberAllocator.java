@@ -0,0 +1,63 @@
+package com.eternalcoders.pointedge.service;
+
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Allocates monotonic, store-prefixed invoice numbers (e.g. {@code INV-S01-0000001234}) from
+ * blocks reserved in bulk from a shared counter. Only one reservation per block hits the
+ * database, numbers within a node are strictly increasing, and nodes never share a block, so
+ * numbers stay unique across the cluster. Unused numbers of a block are skipped on restart.
+ */
+public class BlockInvoiceNumberAllocator implements InvoiceNumberAllocator {
+    private static final int DIGITS = 10;
+
+    /**
+     * Reserves {@code size} consecutive numbers for {@code prefix} and returns the first one.
+     */
+    @FunctionalInterface
+    public interface BlockSource {
+        long reserveBlock(String prefix, int size);
+    }
+
+    private final String prefix;
+    private final int blockSize;
+    private final BlockSource blockSource;
+    private final ReentrantLock lock = new ReentrantLock();
+
+    private long next;
+    private long end;
+
+    public BlockInvoiceNumberAllocator(String prefix, int blockSize, BlockSource blockSource) {
+        if (blockSize < 1) {
+            throw new IllegalArgumentException("Invoice number block size must be positive");
+        }
+        this.prefix = prefix;
+        this.blockSize = blockSize;
+        this.blockSource = blockSource;
+    }
+
+    @Override
+    public String nextInvoiceNumber() {
+        long value;
+        lock.lock();
+        try {
+            if (next >= end) {
+                next = blockSource.reserveBlock(prefix, blockSize);
+                end = next + blockSize;
+            }
+            value = next++;
+        } finally {
+            lock.unlock();
+        }
+        return format(value);
+    }
+
+    private String format(long value) {
+        String digits = Long.toString(value);
+        StringBuilder sb = new StringBuilder(prefix.length() + 1 + DIGITS).append(prefix).append('-');
+        for (int i = digits.length(); i < DIGITS; i++) {
+            sb.append('0');
+        }
+        return sb.append(digits).toString();
+    }
+}
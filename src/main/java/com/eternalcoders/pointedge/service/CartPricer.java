@@ -0,0 +1,133 @@
+package com.eternalcoders.pointedge.service;
+
+import com.eternalcoders.pointedge.dto.AppliedDiscountDTO;
+import com.eternalcoders.pointedge.dto.CartQuoteDTO;
+import com.eternalcoders.pointedge.dto.LinePricingDTO;
+import com.eternalcoders.pointedge.dto.LoyaltyPricingDTO;
+import com.eternalcoders.pointedge.dto.PointsQuoteDTO;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Typed counterpart of the v1 discount maps. Prices every cart line against the item and
+ * category rules of the cart's index snapshot, then the loyalty rules against the discounted
+ * lines, in a single pass and without intermediate maps or per-line discount copies. Amounts
+ * are BigDecimal at two decimal places; the discount rules are the same as in v1.
+ */
+final class CartPricer {
+    private static final int MONEY_SCALE = 2;
+    private static final BigDecimal HUNDRED = BigDecimal.valueOf(100);
+    private static final BigDecimal ZERO = BigDecimal.ZERO.setScale(MONEY_SCALE);
+
+    private CartPricer() {
+    }
+
+    static CartQuoteDTO quote(CartPricingContext cart, LoyaltyThresholdsSnapshot thresholds) {
+        Map<Long, Integer> items = cart.getItems();
+        List<LinePricingDTO> lines = new ArrayList<>(items.size());
+
+        BigDecimal subtotal = ZERO;
+        BigDecimal itemDiscount = ZERO;
+        BigDecimal categoryDiscount = ZERO;
+        BigDecimal discountableSubtotal = ZERO;
+
+        for (Map.Entry<Long, Integer> entry : items.entrySet()) {
+            Long itemId = entry.getKey();
+            int quantity = entry.getValue();
+            BigDecimal unitPrice = cart.priceOf(itemId).setScale(MONEY_SCALE, RoundingMode.HALF_UP);
+            BigDecimal lineTotal = unitPrice.multiply(BigDecimal.valueOf(quantity));
+
+            List<AppliedDiscountDTO> itemDiscounts =
+                    apply(cart.getRules().itemDiscounts(itemId, cart.getTier()), itemId, lineTotal, quantity);
+            Long categoryId = cart.getCategoryIds().get(itemId);
+            List<AppliedDiscountDTO> categoryDiscounts = categoryId == null
+                    ? List.of()
+                    : apply(cart.getRules().categoryDiscounts(categoryId, cart.getTier()), itemId, lineTotal, quantity);
+
+            BigDecimal lineItemDiscount = sum(itemDiscounts);
+            BigDecimal lineCategoryDiscount = sum(categoryDiscounts);
+            BigDecimal lineDiscount = lineItemDiscount.add(lineCategoryDiscount);
+            lines.add(new LinePricingDTO(itemId, quantity, unitPrice, lineTotal,
+                    itemDiscounts, categoryDiscounts, lineDiscount, lineTotal.subtract(lineDiscount)));
+
+            subtotal = subtotal.add(lineTotal);
+            itemDiscount = itemDiscount.add(lineItemDiscount);
+            categoryDiscount = categoryDiscount.add(lineCategoryDiscount);
+            if (!itemDiscounts.isEmpty() || !categoryDiscounts.isEmpty()) {
+                discountableSubtotal = discountableSubtotal.add(lineTotal);
+            }
+        }
+
+        List<AppliedDiscountDTO> loyaltyDiscounts =
+                apply(cart.getRules().loyaltyDiscounts(cart.getTier()), null, discountableSubtotal, 1);
+        BigDecimal loyaltyDiscount = sum(loyaltyDiscounts);
+        BigDecimal totalDiscount = itemDiscount.add(categoryDiscount).add(loyaltyDiscount);
+
+        CustomerCache.Entry customer = cart.getCustomer();
+        return new CartQuoteDTO(
+                cart.isGuest() ? null : cart.getPhone(),
+                customer != null ? customer.name() : null,
+                customer != null ? customer.tier() : null,
+                lines,
+                new LoyaltyPricingDTO(cart.getTier(), discountableSubtotal, loyaltyDiscounts, loyaltyDiscount),
+                subtotal,
+                itemDiscount,
+                categoryDiscount,
+                loyaltyDiscount,
+                totalDiscount,
+                subtotal.subtract(totalDiscount),
+                customer != null && customer.points() != null
+                        ? points(customer.points(), thresholds.points(), subtotal, loyaltyDiscount)
+                        : null
+        );
+    }
+
+    // same rule as v1: points are earned on the undiscounted subtotal and spent on the loyalty discount
+    private static PointsQuoteDTO points(double currentPoints, double rate, BigDecimal subtotal, BigDecimal loyaltyDiscount) {
+        double earned = subtotal.doubleValue() / 100 * rate;
+        double used = Math.min(currentPoints, loyaltyDiscount.doubleValue());
+        return new PointsQuoteDTO(currentPoints, rate, used, earned, currentPoints - used + earned);
+    }
+
+    private static List<AppliedDiscountDTO> apply(List<DiscountRuleIndex.Rule> rules, Long itemId, BigDecimal base, int quantity) {
+        if (rules.isEmpty()) {
+            return List.of();
+        }
+        List<AppliedDiscountDTO> applied = new ArrayList<>(rules.size());
+        for (DiscountRuleIndex.Rule rule : rules) {
+            Double percentage = rule.percentage();
+            Double amount = rule.amount();
+            BigDecimal value;
+            if (percentage != null) {
+                value = base.multiply(BigDecimal.valueOf(percentage)).divide(HUNDRED, MONEY_SCALE, RoundingMode.HALF_UP);
+            } else if (amount != null) {
+                value = BigDecimal.valueOf(amount).multiply(BigDecimal.valueOf(quantity))
+                        .setScale(MONEY_SCALE, RoundingMode.HALF_UP);
+            } else {
+                value = ZERO;
+            }
+            applied.add(new AppliedDiscountDTO(
+                    rule.id(),
+                    rule.name(),
+                    rule.type(),
+                    itemId,
+                    percentage != null ? BigDecimal.valueOf(percentage) : null,
+                    percentage == null && amount != null ? BigDecimal.valueOf(amount) : null,
+                    value
+            ));
+        }
+        return applied;
+    }
+
+    private static BigDecimal sum(List<AppliedDiscountDTO> discounts) {
+        BigDecimal total = ZERO;
+        for (AppliedDiscountDTO discount : discounts) {
+            total = total.add(discount.discount());
+        }
+        return total;
+    }
+}
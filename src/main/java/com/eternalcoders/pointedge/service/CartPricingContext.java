@@ -0,0 +1,57 @@
+package com.eternalcoders.pointedge.service;
+
+import com.eternalcoders.pointedge.entity.Discount;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.math.BigDecimal;
+import java.util.Map;
+
+/**
+ * Everything {@link DiscountService} needs to price one cart, resolved once per request: the
+ * customer and tier, loyalty thresholds, unit prices and categories of the cart lines and the discount index
+ * version to evaluate against. Intermediate results are memoized here so the preview, points
+ * and save paths share a single evaluation. Not thread-safe; never outlives the request.
+ */
+@Getter
+final class CartPricingContext {
+    private final String phone;
+    private final Map<Long, Integer> items;
+    // null for guests and unknown phone numbers
+    private final CustomerCache.Entry customer;
+    private final Discount.LoyaltyTier tier;
+    private final Map<Long, BigDecimal> prices;
+    private final Map<Long, Long> categoryIds;
+    private final DiscountRuleIndex.Snapshot rules;
+
+    @Setter
+    private LoyaltyThresholdsSnapshot thresholds;
+    @Setter
+    private Map<String, Object> applicableDiscounts;
+    @Setter
+    private Map<String, Object> discountTotals;
+    @Setter
+    private Map<String, Object> pointsInfo;
+
+    CartPricingContext(String phone, Map<Long, Integer> items, CustomerCache.Entry customer,
+                       Map<Long, BigDecimal> prices, Map<Long, Long> categoryIds, DiscountRuleIndex.Snapshot rules) {
+        this.phone = phone;
+        this.items = items;
+        this.customer = customer;
+        this.tier = customer != null && customer.tier() != null
+                ? Discount.LoyaltyTier.valueOf(customer.tier().name())
+                : null;
+        this.prices = prices;
+        this.categoryIds = categoryIds;
+        this.rules = rules;
+    }
+
+    boolean isGuest() {
+        return phone == null || phone.trim().isEmpty();
+    }
+
+    // unit price, zero for products that do not exist
+    BigDecimal priceOf(Long itemId) {
+        return prices.getOrDefault(itemId, BigDecimal.ZERO);
+    }
+}
@@ -0,0 +1,206 @@
+package com.eternalcoders.pointedge.service;
+
+import com.eternalcoders.pointedge.dto.CustomerCacheStatsDTO;
+import com.eternalcoders.pointedge.entity.Customer;
+import com.eternalcoders.pointedge.repository.CustomerRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Size-bounded cache of loyalty customers keyed by phone, holding what checkout needs: id,
+ * name, contact details, tier and points. Writes go through to the cache once the surrounding
+ * transaction commits and drop the entry on rollback, so readers only ever see committed
+ * values. Unknown phone numbers are not cached. Changes made on other nodes are picked up once
+ * an entry is older than the configured TTL.
+ */
+@Component
+public class CustomerCache {
+    private final CustomerRepository customerRepository;
+    private final int maxSize;
+    private final long ttlNanos;
+
+    private final Map<String, Slot> entries = new ConcurrentHashMap<>();
+
+    // bumped on every write; a load only populates the cache if no write raced with it
+    private final AtomicLong generation = new AtomicLong();
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong writes = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+
+    public CustomerCache(CustomerRepository customerRepository,
+                         @Value("${pointedge.customer-cache.max-size:50000}") int maxSize,
+                         @Value("${pointedge.customer-cache.ttl:60s}") Duration ttl) {
+        this.customerRepository = customerRepository;
+        this.maxSize = maxSize;
+        this.ttlNanos = ttl.toNanos();
+    }
+
+    public Optional<Entry> findByPhone(String phone) {
+        if (phone == null) {
+            return Optional.empty();
+        }
+        Entry cached = fresh(phone);
+        if (cached != null) {
+            hits.incrementAndGet();
+            return Optional.of(cached);
+        }
+
+        misses.incrementAndGet();
+        long startGeneration = generation.get();
+        Optional<Entry> loaded = customerRepository.findByPhone(phone).map(Entry::of);
+        if (generation.get() == startGeneration) {
+            loaded.ifPresent(this::put);
+        }
+        return loaded;
+    }
+
+    public void updatePoints(String phone, double points) {
+        writeThrough(() -> entries.computeIfPresent(phone, (key, slot) -> slot.with(slot.customer().withPoints(points))), phone);
+    }
+
+    public void updateTier(String phone, Customer.Tier tier) {
+        writeThrough(() -> entries.computeIfPresent(phone, (key, slot) -> slot.with(slot.customer().withTier(tier))), phone);
+    }
+
+    // after a committed chunk of a bulk tier recalculation; phones that are not cached are skipped
+    public void updateTiers(Map<String, Customer.Tier> tiers) {
+        writeThrough(() -> tiers.forEach((phone, tier) ->
+                entries.computeIfPresent(phone, (key, slot) -> slot.with(slot.customer().withTier(tier)))), null);
+    }
+
+    // after an edit that may have changed any field, including the phone number itself
+    public void refresh(String previousPhone, Customer customer) {
+        Entry updated = Entry.of(customer);
+        writeThrough(() -> {
+            if (previousPhone != null && !previousPhone.equals(updated.phone())) {
+                remove(previousPhone);
+            }
+            put(updated);
+        }, previousPhone);
+    }
+
+    public void evict(String phone) {
+        writeThrough(() -> remove(phone), phone);
+    }
+
+    public CustomerCacheStatsDTO getStats() {
+        long hitCount = hits.get();
+        long missCount = misses.get();
+        long lookups = hitCount + missCount;
+        return new CustomerCacheStatsDTO(
+                entries.size(),
+                maxSize,
+                hitCount,
+                missCount,
+                writes.get(),
+                evictions.get(),
+                lookups == 0 ? 0 : (double) hitCount / lookups
+        );
+    }
+
+    // null when the phone is not cached or its entry has outlived the TTL
+    private Entry fresh(String phone) {
+        Slot slot = entries.get(phone);
+        if (slot == null) {
+            return null;
+        }
+        if (System.nanoTime() - slot.loadedAt() > ttlNanos) {
+            entries.remove(phone, slot);
+            return null;
+        }
+        return slot.customer();
+    }
+
+    private void writeThrough(Runnable write, String phone) {
+        generation.incrementAndGet();
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            apply(write);
+            return;
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                apply(write);
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                if (status != STATUS_COMMITTED) {
+                    generation.incrementAndGet();
+                    if (phone != null) {
+                        remove(phone);
+                    } else {
+                        entries.clear();
+                    }
+                }
+            }
+        });
+    }
+
+    private void apply(Runnable write) {
+        generation.incrementAndGet();
+        write.run();
+        writes.incrementAndGet();
+    }
+
+    private void put(Entry entry) {
+        if (entry.phone() == null) {
+            return;
+        }
+        if (!entries.containsKey(entry.phone()) && entries.size() >= maxSize) {
+            Iterator<String> iterator = entries.keySet().iterator();
+            if (iterator.hasNext() && entries.remove(iterator.next()) != null) {
+                evictions.incrementAndGet();
+            }
+        }
+        entries.put(entry.phone(), new Slot(entry, System.nanoTime()));
+    }
+
+    private void remove(String phone) {
+        if (entries.remove(phone) != null) {
+            evictions.incrementAndGet();
+        }
+    }
+
+    // a points or tier update keeps the load time, the other fields are still as old as the load
+    private record Slot(Entry customer, long loadedAt) {
+        Slot with(Entry updated) {
+            return new Slot(updated, loadedAt);
+        }
+    }
+
+    public record Entry(Long id, String phone, String name, String email, Customer.Title title,
+                        Customer.Tier tier, Double points) {
+        static Entry of(Customer customer) {
+            return new Entry(
+                    customer.getId(),
+                    customer.getPhone(),
+                    (String) customer.getName(),
+                    (String) customer.getEmail(),
+                    (Customer.Title) customer.getTitle(),
+                    (Customer.Tier) customer.getTier(),
+                    (Double) customer.getPoints()
+            );
+        }
+
+        Entry withPoints(double newPoints) {
+            return new Entry(id, phone, name, email, title, tier, newPoints);
+        }
+
+        Entry withTier(Customer.Tier newTier) {
+            return new Entry(id, phone, name, email, title, newTier, points);
+        }
+    }
+}
@@ -15,11 +15,12 @@ import org.modelmapper.convention.MatchingStrategies;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
+import com.eternalcoders.pointedge.dto.CustomerCacheStatsDTO;
 import com.eternalcoders.pointedge.dto.CustomerDTO;
 import com.eternalcoders.pointedge.dto.LoyaltyThresholdsDTO;
+import com.eternalcoders.pointedge.dto.TierRecalculationStatusDTO;
 import com.eternalcoders.pointedge.entity.Customer;
 import com.eternalcoders.pointedge.entity.Customer.Tier;
-import com.eternalcoders.pointedge.entity.LoyaltyThresholds;
 import com.eternalcoders.pointedge.repository.CustomerRepository;
 
 import jakarta.transaction.Transactional;
@@ -32,6 +33,15 @@ public class CustomerService {
     
     @Autowired
     private ModelMapper modelMapper;
+
+    @Autowired
+    private CustomerCache customerCache;
+
+    @Autowired
+    private LoyaltyThresholdsCache loyaltyThresholdsCache;
+
+    @Autowired
+    private LoyaltyTierRecalculationJob tierRecalculationJob;
     
     // get all customers
     public List<CustomerDTO> getAllCustomers() {
@@ -58,6 +68,7 @@ public class CustomerService {
         Customer customer = customerRepository.findByPhone(phone)
             .orElseThrow(() -> new RuntimeException("Customer not found"));
         customerRepository.delete(customer);
+        customerCache.evict(phone);
     }
 
     // count customers
@@ -75,6 +86,7 @@ public class CustomerService {
     public CustomerDTO updateCustomerById(Long id, CustomerDTO customerDTO) {
         Customer existingCustomer = customerRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Customer not found with id: " + id));
+        String previousPhone = existingCustomer.getPhone();
         
         modelMapper.getConfiguration()
             .setSkipNullEnabled(true)
@@ -83,6 +95,7 @@ public class CustomerService {
         modelMapper.map(customerDTO, existingCustomer);
         
         Customer updatedCustomer = customerRepository.save(existingCustomer);
+        customerCache.refresh(previousPhone, updatedCustomer);
         return modelMapper.map(updatedCustomer, CustomerDTO.class);
     }
     
@@ -98,6 +111,7 @@ public class CustomerService {
                 .orElseThrow(() -> new RuntimeException("Customer not found"));
         
         customerRepository.updatePointsByPhone(phone, points);
+        customerCache.updatePoints(phone, points);
 
         Customer updated = customerRepository.findByPhone(phone)
                 .orElseThrow(() -> new RuntimeException("Customer not found after update"));
@@ -110,6 +124,7 @@ public class CustomerService {
         Customer existing = customerRepository.findByPhone(phone)
                 .orElseThrow(() -> new RuntimeException("Customer not found"));
         customerRepository.updateTierByPhone(phone, tier);
+        customerCache.updateTier(phone, tier);
 
         Customer updated = customerRepository.findByPhone(phone)
                 .orElseThrow(() -> new RuntimeException("Customer not found after update"));
@@ -132,9 +147,9 @@ public class CustomerService {
 
     // find tier by phone
     public Tier getCustomerTierByPhone(String phone) {
-        Customer customer = customerRepository.findByPhone(phone)
-                .orElseThrow(() -> new RuntimeException("Customer not found"));
-        return (Tier) customer.getTier();
+        return customerCache.findByPhone(phone)
+                .orElseThrow(() -> new RuntimeException("Customer not found"))
+                .tier();
     }
 
     // fetch orders
@@ -161,18 +176,28 @@ public class CustomerService {
 
     // update customers tiers when update settings
     public LoyaltyThresholdsDTO getLoyaltyThresholds() {
-            LoyaltyThresholds thresholds = customerRepository.findLoyaltyThresholds()
-                .orElseThrow(() -> new RuntimeException("Loyalty thresholds not found"));
-            return modelMapper.map(thresholds, LoyaltyThresholdsDTO.class);
+            return loyaltyThresholdsCache.current().toDTO();
         }
 
-    public void updateAllCustomerTiers() {
-        LoyaltyThresholdsDTO thresholds = getLoyaltyThresholds();
-        customerRepository.updateAllCustomerTiers(
-            thresholds.getGold(),
-            thresholds.getSilver(),
-            thresholds.getBronze()
-        );
+    // recalculated in the background, chunk by chunk; poll getTierRecalculationStatus for progress
+    public TierRecalculationStatusDTO updateAllCustomerTiers() {
+        return tierRecalculationJob.start();
+    }
+
+    public TierRecalculationStatusDTO getTierRecalculationStatus() {
+        return tierRecalculationJob.getStatus();
+    }
+
+    public TierRecalculationStatusDTO pauseTierRecalculation() {
+        return tierRecalculationJob.pause();
+    }
+
+    public TierRecalculationStatusDTO resumeTierRecalculation() {
+        return tierRecalculationJob.resume();
+    }
+
+    public CustomerCacheStatsDTO getCustomerCacheStats() {
+        return customerCache.getStats();
     }
 
 }
\ No newline at end of file
@@ -0,0 +1,221 @@
+package com.eternalcoders.pointedge.service;
+
+import com.eternalcoders.pointedge.dto.DashboardCacheStatsDTO;
+import com.eternalcoders.pointedge.event.AnalyticsDataChangedEvent;
+import com.eternalcoders.pointedge.event.OrderDetailsRecordedEvent;
+import com.eternalcoders.pointedge.event.OrderRecordedEvent;
+import com.eternalcoders.pointedge.event.ReturnRecordedEvent;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.env.Environment;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Response cache for the read-only dashboard endpoints, keyed by endpoint name and the
+ * request's parsed parameters. A response is computed at most once at a time: requests that
+ * arrive while it is being computed wait for that computation instead of starting their own.
+ * Entries live for the endpoint's TTL ({@code pointedge.dashboard-cache.ttl.<endpoint>},
+ * falling back to the default TTL). Failed computations are not cached.
+ * <p>
+ * Endpoints are grouped by the prefix of their name ({@code analytics}, {@code dashboard},
+ * {@code order-details}, {@code performance}), and a data change only invalidates the groups
+ * that read that data. Invalidation is also debounced: a group is invalidated at most once per
+ * {@code pointedge.dashboard-cache.invalidation-interval}, and changes arriving in between are
+ * applied on the first request after it. Under a steady stream of checkouts, entries are then
+ * reused for up to that interval instead of being dropped on every commit.
+ */
+@Component
+public class DashboardResponseCache {
+    private static final String ANALYTICS = "analytics";
+    private static final String DASHBOARD = "dashboard";
+    private static final String ORDER_DETAILS = "order-details";
+    private static final String PERFORMANCE = "performance";
+
+    private final Environment environment;
+    private final Duration defaultTtl;
+    private final long invalidationIntervalNanos;
+
+    private final Map<Key, Entry> entries = new ConcurrentHashMap<>();
+    private final Map<String, Stats> stats = new ConcurrentHashMap<>();
+    private final Map<String, Group> groups = new ConcurrentHashMap<>();
+
+    public DashboardResponseCache(Environment environment,
+                                  @Value("${pointedge.dashboard-cache.default-ttl:30s}") Duration defaultTtl,
+                                  @Value("${pointedge.dashboard-cache.invalidation-interval:5s}") Duration invalidationInterval) {
+        this.environment = environment;
+        this.defaultTtl = defaultTtl;
+        this.invalidationIntervalNanos = invalidationInterval.toNanos();
+    }
+
+    /**
+     * The cached response of {@code endpoint} for {@code params}, computing it with
+     * {@code loader} when there is none or it expired. Params are compared with equals, so
+     * pass parsed values (enums, dates, clamped limits) rather than raw request strings.
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T get(String endpoint, Supplier<T> loader, Object... params) {
+        Stats endpointStats = stats.computeIfAbsent(endpoint, name -> new Stats(ttl(name)));
+        // Arrays.asList gives value-based equality and tolerates null parameters
+        Key key = new Key(endpoint, Arrays.asList(params));
+        long now = System.nanoTime();
+        long currentGeneration = group(endpoint).generation(now, invalidationIntervalNanos);
+
+        Entry existing = entries.get(key);
+        if (existing == null || !existing.isFresh(now, currentGeneration)) {
+            Entry created = new Entry(new CompletableFuture<>(), now + endpointStats.ttl.toNanos(), currentGeneration);
+            existing = entries.compute(key, (k, current) ->
+                    current != null && current.isFresh(now, currentGeneration) ? current : created);
+            if (existing == created) {
+                endpointStats.misses.increment();
+                return (T) load(key, created, loader);
+            }
+        }
+
+        (existing.future.isDone() ? endpointStats.hits : endpointStats.sharedLoads).increment();
+        try {
+            return (T) existing.future.join();
+        } catch (CompletionException e) {
+            throw e.getCause() instanceof RuntimeException cause ? cause : e;
+        }
+    }
+
+    private Object load(Key key, Entry entry, Supplier<?> loader) {
+        try {
+            Object value = loader.get();
+            entry.future.complete(value);
+            return value;
+        } catch (RuntimeException | Error e) {
+            entries.remove(key, entry);
+            entry.future.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    // marks the groups' entries stale; they stop being served within the invalidation interval
+    public void invalidate(String... groupNames) {
+        long now = System.nanoTime();
+        for (String name : groupNames) {
+            groups.computeIfAbsent(name, n -> new Group()).invalidate(now, invalidationIntervalNanos);
+        }
+    }
+
+    // order totals, employee sales and the sub-day sales series read orders and their items directly
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onOrderRecorded(OrderRecordedEvent event) {
+        invalidate(ANALYTICS, DASHBOARD, PERFORMANCE);
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onReturnRecorded(ReturnRecordedEvent event) {
+        invalidate(ANALYTICS, DASHBOARD, PERFORMANCE);
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onOrderDetailsRecorded(OrderDetailsRecordedEvent event) {
+        invalidate(ORDER_DETAILS);
+    }
+
+    // the rollup writer trails the commits, drop what was computed in between
+    @EventListener
+    public void onAnalyticsDataChanged(AnalyticsDataChangedEvent event) {
+        invalidate(ANALYTICS);
+    }
+
+    // expired and superseded entries of keys nobody asks for again would otherwise stay forever
+    @Scheduled(fixedDelayString = "${pointedge.dashboard-cache.purge-interval-ms:60000}")
+    public void purgeExpired() {
+        long now = System.nanoTime();
+        entries.entrySet().removeIf(entry -> entry.getValue().future.isDone()
+                && !entry.getValue().isFresh(now, group(entry.getKey().endpoint).generation(now, invalidationIntervalNanos)));
+    }
+
+    public List<DashboardCacheStatsDTO> getStats() {
+        return stats.entrySet().stream()
+                .map(entry -> entry.getValue().toDTO(entry.getKey()))
+                .sorted(Comparator.comparing(DashboardCacheStatsDTO::getEndpoint))
+                .toList();
+    }
+
+    private Group group(String endpoint) {
+        int dot = endpoint.indexOf('.');
+        return groups.computeIfAbsent(dot < 0 ? endpoint : endpoint.substring(0, dot), name -> new Group());
+    }
+
+    private Duration ttl(String endpoint) {
+        return environment.getProperty("pointedge.dashboard-cache.ttl." + endpoint, Duration.class, defaultTtl);
+    }
+
+    private record Key(String endpoint, List<Object> params) {
+    }
+
+    private record Entry(CompletableFuture<Object> future, long expiresAt, long generation) {
+        private boolean isFresh(long now, long currentGeneration) {
+            return generation == currentGeneration && now - expiresAt < 0;
+        }
+    }
+
+    // entries of an older generation than their group's are never served
+    private static final class Group {
+        private final AtomicLong generation = new AtomicLong();
+        private long lastBumpedAt;
+        private volatile boolean pending;
+
+        private synchronized void invalidate(long now, long intervalNanos) {
+            pending = true;
+            bumpIfDue(now, intervalNanos);
+        }
+
+        private long generation(long now, long intervalNanos) {
+            if (pending) {
+                synchronized (this) {
+                    bumpIfDue(now, intervalNanos);
+                }
+            }
+            return generation.get();
+        }
+
+        // a change within the interval after the last bump waits for the next due request
+        private void bumpIfDue(long now, long intervalNanos) {
+            if (pending && (generation.get() == 0 || now - lastBumpedAt >= intervalNanos)) {
+                pending = false;
+                lastBumpedAt = now;
+                generation.incrementAndGet();
+            }
+        }
+    }
+
+    private static final class Stats {
+        private final Duration ttl;
+        private final LongAdder hits = new LongAdder();
+        private final LongAdder sharedLoads = new LongAdder();
+        private final LongAdder misses = new LongAdder();
+
+        private Stats(Duration ttl) {
+            this.ttl = ttl;
+        }
+
+        private DashboardCacheStatsDTO toDTO(String endpoint) {
+            long hitCount = hits.sum();
+            long sharedCount = sharedLoads.sum();
+            long missCount = misses.sum();
+            long requests = hitCount + sharedCount + missCount;
+            return new DashboardCacheStatsDTO(endpoint, ttl.toSeconds(), hitCount, sharedCount, missCount,
+                    requests == 0 ? 0.0 : (double) (hitCount + sharedCount) / requests);
+        }
+    }
+}
@@ -0,0 +1,317 @@
+package com.eternalcoders.pointedge.service;
+
+import com.eternalcoders.pointedge.dto.DiscountDTO;
+import com.eternalcoders.pointedge.dto.DiscountTimelineEventDTO;
+import com.eternalcoders.pointedge.dto.DiscountsVersionDTO;
+import com.eternalcoders.pointedge.entity.Discount;
+import com.eternalcoders.pointedge.entity.Discount.DiscountType;
+import com.eternalcoders.pointedge.entity.Discount.LoyaltyTier;
+import com.eternalcoders.pointedge.event.DiscountsChangedEvent;
+import com.eternalcoders.pointedge.repository.DiscountRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.modelmapper.ModelMapper;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ScheduledFuture;
+import java.util.function.Function;
+
+/**
+ * Immutable, in-memory index of the active discounts keyed by product id, category id and
+ * loyalty tier, so a cart can be priced without querying the discounts table per line. The
+ * enabled discounts are loaded after every committed discount change, their date windows are
+ * parsed once into a timeline, and the index of the discounts active right now is swapped in
+ * atomically, again at each activation or expiry boundary. Readers take one {@link Snapshot}
+ * per request and never see a half-built index or evaluate dates themselves.
+ *
+ * <p>Changes committed on other nodes publish no local event, so the table's fingerprint (row
+ * count, highest id, latest {@code updated_at}) is also polled and the index rebuilt when it moves.
+ */
+@Slf4j
+@Component
+public class DiscountRuleIndex {
+    private final DiscountRepository discountRepository;
+    private final ModelMapper modelMapper;
+    private final TaskScheduler taskScheduler;
+
+    private volatile Snapshot snapshot = Snapshot.EMPTY;
+    // fingerprint of the table the current timeline was loaded from; null until the first load
+    private volatile DiscountsVersionDTO version;
+
+    // every enabled discount with its window, in id order; guarded by this
+    private List<TimedRule> timeline = List.of();
+    private LocalDateTime nextBoundary;
+    private ScheduledFuture<?> nextFlip;
+
+    public DiscountRuleIndex(DiscountRepository discountRepository, ModelMapper modelMapper, TaskScheduler taskScheduler) {
+        this.discountRepository = discountRepository;
+        this.modelMapper = modelMapper;
+        this.taskScheduler = taskScheduler;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        rebuild();
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onDiscountsChanged(DiscountsChangedEvent event) {
+        rebuild();
+    }
+
+    @Scheduled(fixedDelayString = "${pointedge.discount-index.refresh-interval-ms:15000}")
+    public void refreshIfChanged() {
+        DiscountsVersionDTO latest;
+        try {
+            latest = discountRepository.findDiscountsVersion();
+        } catch (RuntimeException e) {
+            log.warn("Failed to check the discounts table for changes: {}", e.getMessage());
+            return;
+        }
+        if (!latest.equals(version)) {
+            rebuild();
+        }
+    }
+
+    public Snapshot current() {
+        return snapshot;
+    }
+
+    // serialized so an older rebuild can never overwrite a newer one
+    public synchronized void rebuild() {
+        DiscountsVersionDTO loadedVersion;
+        List<TimedRule> loaded;
+        try {
+            // read before the rows, so a change committed in between is caught by the next check
+            loadedVersion = discountRepository.findDiscountsVersion();
+            loaded = discountRepository.findAllActiveDiscounts().stream()
+                    .map(discount -> new TimedRule(
+                            Rule.of(modelMapper.map(discount, DiscountDTO.class)), windowOf(discount)))
+                    .toList();
+        } catch (RuntimeException e) {
+            log.error("Failed to rebuild the discount rule index, keeping the previous one", e);
+            return;
+        }
+
+        timeline = loaded;
+        version = loadedVersion;
+        flip();
+        log.info("Discount rule index rebuilt with {} enabled discounts, {} active now, next change at {}",
+                loaded.size(), snapshot.size(), nextBoundary);
+    }
+
+    // swaps in the discounts active now and schedules the next activation or expiry
+    public synchronized void flip() {
+        LocalDateTime now = LocalDateTime.now();
+        snapshot = Snapshot.of(activeAt(now));
+
+        nextBoundary = null;
+        for (TimedRule rule : timeline) {
+            LocalDateTime boundary = rule.window().nextBoundaryAfter(now);
+            if (boundary != null && (nextBoundary == null || boundary.isBefore(nextBoundary))) {
+                nextBoundary = boundary;
+            }
+        }
+
+        if (nextFlip != null) {
+            nextFlip.cancel(false);
+        }
+        nextFlip = nextBoundary == null
+                ? null
+                : taskScheduler.schedule(this::flip, nextBoundary.atZone(ZoneId.systemDefault()).toInstant());
+    }
+
+    // the index as it will look at the given time, assuming no discount is edited before then
+    public synchronized Snapshot previewAt(LocalDateTime at) {
+        return Snapshot.of(activeAt(at));
+    }
+
+    // activations and expiries in [from, to), in time order
+    public synchronized List<DiscountTimelineEventDTO> changesBetween(LocalDateTime from, LocalDateTime to) {
+        List<DiscountTimelineEventDTO> changes = new ArrayList<>();
+        for (TimedRule rule : timeline) {
+            DiscountWindow window = rule.window();
+            Rule discount = rule.discount();
+            if (!window.start().isBefore(from) && window.start().isBefore(to)) {
+                changes.add(new DiscountTimelineEventDTO(window.start(), DiscountTimelineEventDTO.Change.ACTIVATES,
+                        discount.id(), discount.name(), discount.type()));
+            }
+            if (window.end() != null && !window.end().isBefore(from) && window.end().isBefore(to)) {
+                changes.add(new DiscountTimelineEventDTO(window.end(), DiscountTimelineEventDTO.Change.EXPIRES,
+                        discount.id(), discount.name(), discount.type()));
+            }
+        }
+        changes.sort(Comparator.comparing(DiscountTimelineEventDTO::getAt));
+        return changes;
+    }
+
+    private List<Rule> activeAt(LocalDateTime at) {
+        List<Rule> active = new ArrayList<>();
+        for (TimedRule rule : timeline) {
+            if (rule.window().contains(at)) {
+                active.add(rule.discount());
+            }
+        }
+        return active;
+    }
+
+    static DiscountWindow windowOf(Discount discount) {
+        try {
+            return DiscountWindow.of(discount.getStartDate(), discount.getDuration());
+        } catch (IllegalArgumentException e) {
+            log.warn("Discount {}: {}, treating it as open-ended", discount.getId(), e.getMessage());
+            return DiscountWindow.of(discount.getStartDate(), null);
+        }
+    }
+
+    private static Map<Long, Rules> indexRules(List<Rule> discounts, Function<Rule, Long> key) {
+        Map<Long, List<Rule>> grouped = new HashMap<>();
+        for (Rule discount : discounts) {
+            Long id = key.apply(discount);
+            if (id != null) {
+                grouped.computeIfAbsent(id, ignored -> new ArrayList<>()).add(discount);
+            }
+        }
+
+        Map<Long, Rules> rules = new HashMap<>(grouped.size() * 2);
+        grouped.forEach((id, list) -> rules.put(id, Rules.of(list)));
+        return Collections.unmodifiableMap(rules);
+    }
+
+    private static Map<LoyaltyTier, List<Rule>> indexLoyaltyRules(List<Rule> discounts) {
+        Map<LoyaltyTier, List<Rule>> byTier = new EnumMap<>(LoyaltyTier.class);
+        for (Rule discount : discounts) {
+            if (discount.type() == DiscountType.LOYALTY && discount.loyaltyType() != null) {
+                byTier.computeIfAbsent(discount.loyaltyType(), ignored -> new ArrayList<>()).add(discount);
+            }
+        }
+        byTier.replaceAll((tier, list) -> List.copyOf(list));
+        return Collections.unmodifiableMap(byTier);
+    }
+
+    /**
+     * One consistent version of the index. All lookups return shared, unmodifiable lists of
+     * immutable {@link Rule}s in discount id order. Responses convert them with {@link Rule#toDTO()},
+     * after {@link Rule#withItemId} when a rule is reported against a single cart line.
+     */
+    public static final class Snapshot {
+        static final Snapshot EMPTY = new Snapshot(Map.of(), Map.of(), Map.of(), List.of());
+
+        private final Map<Long, Rules> itemRules;
+        private final Map<Long, Rules> categoryRules;
+        private final Map<LoyaltyTier, List<Rule>> loyaltyRules;
+        private final List<Rule> discounts;
+
+        private Snapshot(Map<Long, Rules> itemRules, Map<Long, Rules> categoryRules,
+                         Map<LoyaltyTier, List<Rule>> loyaltyRules, List<Rule> discounts) {
+            this.itemRules = itemRules;
+            this.categoryRules = categoryRules;
+            this.loyaltyRules = loyaltyRules;
+            this.discounts = discounts;
+        }
+
+        static Snapshot of(List<Rule> active) {
+            return new Snapshot(
+                    indexRules(active, Rule::itemId),
+                    indexRules(active, Rule::categoryId),
+                    indexLoyaltyRules(active),
+                    List.copyOf(active)
+            );
+        }
+
+        // discounts on the product that apply to the tier; universal only when tier is null
+        public List<Rule> itemDiscounts(Long itemId, LoyaltyTier tier) {
+            Rules rules = itemRules.get(itemId);
+            return rules != null ? rules.forTier(tier) : List.of();
+        }
+
+        public List<Rule> categoryDiscounts(Long categoryId, LoyaltyTier tier) {
+            Rules rules = categoryId != null ? categoryRules.get(categoryId) : null;
+            return rules != null ? rules.forTier(tier) : List.of();
+        }
+
+        public List<Rule> loyaltyDiscounts(LoyaltyTier tier) {
+            return tier != null ? loyaltyRules.getOrDefault(tier, List.of()) : List.of();
+        }
+
+        public List<Rule> discounts() {
+            return discounts;
+        }
+
+        public int size() {
+            return discounts.size();
+        }
+    }
+
+    public record Rule(Long id, String name, DiscountType type, Long itemId, Long categoryId,
+                       LoyaltyTier loyaltyType, Double amount, Double percentage, LocalDateTime startDate,
+                       Boolean isActive, String duration) {
+        static Rule of(DiscountDTO discount) {
+            return new Rule(
+                    discount.getId(),
+                    discount.getName(),
+                    discount.getType(),
+                    discount.getItemId(),
+                    discount.getCategoryId(),
+                    discount.getLoyaltyType(),
+                    (Double) discount.getAmount(),
+                    (Double) discount.getPercentage(),
+                    discount.getStartDate(),
+                    discount.getIsActive(),
+                    discount.getDuration()
+            );
+        }
+
+        // the rule as applied to one cart line, e.g. a category discount on a single product
+        public Rule withItemId(Long lineItemId) {
+            return new Rule(id, name, type, lineItemId, categoryId, loyaltyType, amount, percentage,
+                    startDate, isActive, duration);
+        }
+
+        public DiscountDTO toDTO() {
+            return new DiscountDTO(id, name, type, itemId, categoryId, loyaltyType, amount, percentage,
+                    startDate, isActive, duration);
+        }
+    }
+
+    private record TimedRule(Rule discount, DiscountWindow window) {
+    }
+
+    // universal discounts plus, per tier, the universal and tier-restricted ones merged in id order
+    private record Rules(List<Rule> universal, Map<LoyaltyTier, List<Rule>> byTier) {
+        static Rules of(List<Rule> discounts) {
+            List<Rule> universal = discounts.stream()
+                    .filter(discount -> discount.loyaltyType() == null)
+                    .toList();
+
+            Map<LoyaltyTier, List<Rule>> byTier = new EnumMap<>(LoyaltyTier.class);
+            for (Rule discount : discounts) {
+                LoyaltyTier tier = discount.loyaltyType();
+                if (tier != null && !byTier.containsKey(tier)) {
+                    byTier.put(tier, discounts.stream()
+                            .filter(d -> d.loyaltyType() == null || d.loyaltyType() == tier)
+                            .toList());
+                }
+            }
+            return new Rules(universal, byTier);
+        }
+
+        List<Rule> forTier(LoyaltyTier tier) {
+            return tier == null ? universal : byTier.getOrDefault(tier, universal);
+        }
+    }
+}
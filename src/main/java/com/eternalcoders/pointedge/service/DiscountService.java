@@ -16,17 +16,25 @@ import java.util.stream.Collectors;
 import org.modelmapper.ModelMapper;
 import org.modelmapper.TypeToken;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
 
+import com.eternalcoders.pointedge.dto.CartQuoteDTO;
 import com.eternalcoders.pointedge.dto.DiscountDTO;
+import com.eternalcoders.pointedge.dto.DiscountTimelineEventDTO;
 import com.eternalcoders.pointedge.dto.LoyaltyThresholdsDTO;
-import com.eternalcoders.pointedge.entity.Customer;
 import com.eternalcoders.pointedge.entity.Customer.Tier;
 import com.eternalcoders.pointedge.entity.Discount;
 import com.eternalcoders.pointedge.entity.Discount.DiscountType;
-import com.eternalcoders.pointedge.entity.LoyaltyThresholds;
+import com.eternalcoders.pointedge.entity.OrderDetails;
+import com.eternalcoders.pointedge.entity.Product;
+import com.eternalcoders.pointedge.event.DiscountsChangedEvent;
+import com.eternalcoders.pointedge.event.LoyaltyThresholdsChangedEvent;
+import com.eternalcoders.pointedge.event.OrderDetailsRecordedEvent;
+import com.eternalcoders.pointedge.repository.CustomerRepository;
 import com.eternalcoders.pointedge.repository.DiscountRepository;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -47,7 +55,25 @@ public class DiscountService {
     private ModelMapper modelMapper;
 
     @Autowired
-    private CustomerService customerService;
+    private DiscountRuleIndex discountRuleIndex;
+
+    @Autowired
+    private ProductCatalogCache productCatalogCache;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private OrderDetailsWriter orderDetailsWriter;
+
+    @Autowired
+    private CustomerCache customerCache;
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Autowired
+    private LoyaltyThresholdsCache loyaltyThresholdsCache;
 
     // get all discounts
     public List<DiscountDTO> getAllDiscounts() {
@@ -59,6 +85,7 @@ public class DiscountService {
     public DiscountDTO addDiscount(DiscountDTO discountDTO) {
         Discount discount = modelMapper.map(discountDTO, Discount.class);
         Discount savedDiscount = discountRepository.save(discount);
+        eventPublisher.publishEvent(new DiscountsChangedEvent(savedDiscount.getId()));
         return modelMapper.map(savedDiscount, DiscountDTO.class);
     }
     
@@ -66,6 +93,7 @@ public class DiscountService {
     public DiscountDTO updateDiscount(DiscountDTO discountDTO) {
         Discount discount = modelMapper.map(discountDTO, Discount.class);
         Discount updatedDiscount = discountRepository.save(discount);
+        eventPublisher.publishEvent(new DiscountsChangedEvent(updatedDiscount.getId()));
         return modelMapper.map(updatedDiscount, DiscountDTO.class);
     }
     
@@ -93,6 +121,7 @@ public class DiscountService {
             throw new RuntimeException("Discount not found with id: " + id);
         }
         discountRepository.deleteById(id);
+        eventPublisher.publishEvent(new DiscountsChangedEvent(id));
     }
 
     //get all product names 
@@ -127,6 +156,7 @@ public class DiscountService {
         try {
             long countBefore = discountRepository.count();
             discountRepository.deleteAll();
+            eventPublisher.publishEvent(new DiscountsChangedEvent(null));
             long countAfter = discountRepository.count();
             
             System.out.println("Deleted " + (countBefore - countAfter) + " discounts");
@@ -144,6 +174,7 @@ public class DiscountService {
         
         try {
             discountRepository.deleteByType(type); 
+            eventPublisher.publishEvent(new DiscountsChangedEvent(null));
             return true;
         } catch (Exception e) {
             return false;
@@ -157,9 +188,7 @@ public class DiscountService {
 
     //get loyalty thresholds
     public LoyaltyThresholdsDTO getLoyaltyThresholds() {
-        LoyaltyThresholds thresholds = discountRepository.findLoyaltyThresholds()
-            .orElseThrow(() -> new RuntimeException("Loyalty thresholds not found"));
-        return modelMapper.map(thresholds, LoyaltyThresholdsDTO.class);
+        return loyaltyThresholdsCache.current().toDTO();
     }
     
     // Update loyalty thresholds with admin password validation
@@ -182,8 +211,8 @@ public LoyaltyThresholdsDTO updateLoyaltyThresholds(LoyaltyThresholdsDTO thresho
         thresholdsDTO.getPoints()
     );
     
-    // Update all customer tiers based on new thresholds
-    customerService.updateAllCustomerTiers();
+    // After commit the cached snapshot is swapped and customer tiers are recalculated in the background
+    eventPublisher.publishEvent(new LoyaltyThresholdsChangedEvent());
     
     // Return the updated thresholds (without the password)
     LoyaltyThresholdsDTO resultDTO = new LoyaltyThresholdsDTO();
@@ -197,20 +226,39 @@ public LoyaltyThresholdsDTO updateLoyaltyThresholds(LoyaltyThresholdsDTO thresho
     
     //get active item discounts
     public List<DiscountDTO> getActiveItemDiscounts(Long itemId, Discount.LoyaltyTier loyaltyTier) {
-        List<Discount> discounts = discountRepository.findActiveItemDiscounts(itemId, loyaltyTier);
-        return modelMapper.map(discounts, new TypeToken<List<DiscountDTO>>(){}.getType());
+        return discountRuleIndex.current().discounts().stream()
+            .filter(d -> itemId.equals(d.itemId()))
+            .filter(d -> loyaltyTier == null || d.loyaltyType() == loyaltyTier)
+            .map(DiscountRuleIndex.Rule::toDTO)
+            .toList();
     }
 
     //get active category discounts
     public List<DiscountDTO> getActiveCategoryDiscounts(Long categoryId, Discount.LoyaltyTier loyaltyTier) {
-        List<Discount> discounts = discountRepository.findActiveCategoryDiscounts(categoryId, loyaltyTier);
-        return modelMapper.map(discounts, new TypeToken<List<DiscountDTO>>(){}.getType());
+        return discountRuleIndex.current().discounts().stream()
+            .filter(d -> categoryId.equals(d.categoryId()))
+            .filter(d -> loyaltyTier == null || d.loyaltyType() == loyaltyTier)
+            .map(DiscountRuleIndex.Rule::toDTO)
+            .toList();
     }
 
     //get active loyalty discounts
     public List<DiscountDTO> getActiveLoyaltyDiscounts(Discount.LoyaltyTier tier) {
-        List<Discount> discounts = discountRepository.findActiveLoyaltyDiscounts(tier);
-        return modelMapper.map(discounts, new TypeToken<List<DiscountDTO>>(){}.getType());
+        return discountRuleIndex.current().discounts().stream()
+            .filter(d -> d.loyaltyType() == tier)
+            .map(DiscountRuleIndex.Rule::toDTO)
+            .toList();
+    }
+
+    // activations and expiries coming up in the next hours
+    public List<DiscountTimelineEventDTO> getDiscountTimeline(int hours) {
+        LocalDateTime now = LocalDateTime.now();
+        return discountRuleIndex.changesBetween(now, now.plusHours(hours));
+    }
+
+    // discounts that will be active at the given time, as things stand now
+    public List<DiscountDTO> getDiscountsActiveAt(LocalDateTime at) {
+        return toDTOs(discountRuleIndex.previewAt(at).discounts());
     }
 
     // get price of an item by id
@@ -241,37 +289,17 @@ public LoyaltyThresholdsDTO updateLoyaltyThresholds(LoyaltyThresholdsDTO thresho
      */
     public BigDecimal calculateTotalAmount(Map<Long, Integer> itemQuantities) {
         BigDecimal totalAmount = BigDecimal.ZERO;
+        Map<Long, ProductCatalogCache.Entry> products = productCatalogCache.findAllById(itemQuantities.keySet());
         
         for (Map.Entry<Long, Integer> entry : itemQuantities.entrySet()) {
-            Long itemId = entry.getKey();
             Integer quantity = entry.getValue();
-            if (quantity <= 0) {
+            ProductCatalogCache.Entry product = products.get(entry.getKey());
+            if (quantity <= 0 || product == null) {
                 continue;
             }
             
-            ResponseEntity<Map<String, Object>> response = getProductPriceById(itemId);
-            
-            if (response.getStatusCode().is2xxSuccessful() && response.getBody() != null) {
-                Map<String, Object> priceData = response.getBody();
-                
-                if ((Boolean) priceData.get("success") && priceData.containsKey("price")) {
-                    Object priceObj = priceData.get("price");
-                    BigDecimal price;
-                    
-                    if (priceObj instanceof BigDecimal) {
-                        price = (BigDecimal) priceObj;
-                    } else if (priceObj instanceof Double) {
-                        price = BigDecimal.valueOf((Double) priceObj);
-                    } else if (priceObj instanceof Number) {
-                        price = BigDecimal.valueOf(((Number) priceObj).doubleValue());
-                    } else {
-                        price = new BigDecimal(priceObj.toString());
-                    }
-                    
-                    BigDecimal itemTotal = price.multiply(BigDecimal.valueOf(quantity));
-                    totalAmount = totalAmount.add(itemTotal);
-                }
-            }
+            BigDecimal itemTotal = BigDecimal.valueOf(product.price()).multiply(BigDecimal.valueOf(quantity));
+            totalAmount = totalAmount.add(itemTotal);
         }
         
         return totalAmount;
@@ -307,7 +335,9 @@ public LoyaltyThresholdsDTO updateLoyaltyThresholds(LoyaltyThresholdsDTO thresho
             ));
         }
     
-        Optional<Discount.LoyaltyTier> tierOptional = discountRepository.findCustomerLoyaltyTierByPhone(phone);
+        Optional<Discount.LoyaltyTier> tierOptional = customerCache.findByPhone(phone)
+            .map(CustomerCache.Entry::tier)
+            .map(customerTier -> Discount.LoyaltyTier.valueOf(customerTier.name()));
         
         if (tierOptional.isEmpty()) {
             return ResponseEntity.ok(Map.of(
@@ -319,8 +349,7 @@ public LoyaltyThresholdsDTO updateLoyaltyThresholds(LoyaltyThresholdsDTO thresho
     
         Discount.LoyaltyTier tier = tierOptional.get();
        
-        List<Discount> discounts = discountRepository.findActiveLoyaltyDiscountsByTypeAndTier(tier);
-        List<DiscountDTO> discountDTOs = modelMapper.map(discounts, new TypeToken<List<DiscountDTO>>(){}.getType());
+        List<DiscountDTO> discountDTOs = toDTOs(discountRuleIndex.current().loyaltyDiscounts(tier));
         
         return ResponseEntity.ok(Map.of(
             "success", true,
@@ -336,51 +365,10 @@ public LoyaltyThresholdsDTO updateLoyaltyThresholds(LoyaltyThresholdsDTO thresho
         
         Map<String, Object> response = new HashMap<>();
         
-        if (phone == null || phone.trim().isEmpty()) {
-            Map<String, List<DiscountDTO>> universalDiscounts = new HashMap<>();
-            
-            for (Long itemId : items.keySet()) {
-                List<Discount> allDiscounts = discountRepository.findActiveItemDiscounts(itemId, null);
-                
-                List<DiscountDTO> applicableDiscounts = allDiscounts.stream()
-                    .filter(d -> d.getLoyaltyType() == null) 
-                    .map(d -> modelMapper.map(d, DiscountDTO.class))
-                    .collect(Collectors.toList());
-                    
-                if (!applicableDiscounts.isEmpty()) {
-                    universalDiscounts.put(itemId.toString(), applicableDiscounts);
-                }
-            }
-            
-            response.put("success", true);
-            response.put("discounts", universalDiscounts);
-            response.put("message", universalDiscounts.isEmpty() ?
-                "No universal item discounts found" :
-                "Found universal item discounts for " + universalDiscounts.size() + " items");
-            response.put("customerTier", "UNKNOWN");
-            
-            return ResponseEntity.ok(response);
-        }
-    
-        Optional<Discount.LoyaltyTier> tierOptional = discountRepository.findCustomerLoyaltyTierByPhone(phone);
-        Discount.LoyaltyTier tier = tierOptional.orElse(null);
+        CartPricingContext cart = resolveCart(phone, items);
+        Discount.LoyaltyTier tier = cart.getTier();
       
-        Map<String, List<DiscountDTO>> itemDiscounts = new HashMap<>();
-        
-        for (Long itemId : items.keySet()) {
-            List<Discount> allDiscounts = discountRepository.findActiveItemDiscounts(itemId, null);
-            
-            List<DiscountDTO> applicableDiscounts = allDiscounts.stream()
-                .filter(d -> tier != null ? 
-                    (d.getLoyaltyType() == null || d.getLoyaltyType() == tier) :
-                    d.getLoyaltyType() == null)
-                .map(d -> modelMapper.map(d, DiscountDTO.class))
-                .collect(Collectors.toList());
-                
-            if (!applicableDiscounts.isEmpty()) {
-                itemDiscounts.put(itemId.toString(), applicableDiscounts);
-            }
-        }
+        Map<String, List<DiscountDTO>> itemDiscounts = findItemDiscounts(cart);
         
         response.put("success", true);
         response.put("discounts", itemDiscounts);
@@ -400,279 +388,176 @@ public LoyaltyThresholdsDTO updateLoyaltyThresholds(LoyaltyThresholdsDTO thresho
         return ResponseEntity.ok(response);
     }
 
+    // item discounts per cart line, keyed by item id; no tier means universal discounts only
+    private Map<String, List<DiscountDTO>> findItemDiscounts(CartPricingContext cart) {
+        Map<String, List<DiscountDTO>> itemDiscounts = new HashMap<>();
+        for (Long itemId : cart.getItems().keySet()) {
+            List<DiscountRuleIndex.Rule> applicableDiscounts = cart.getRules().itemDiscounts(itemId, cart.getTier());
+            if (!applicableDiscounts.isEmpty()) {
+                itemDiscounts.put(itemId.toString(), toDTOs(applicableDiscounts));
+            }
+        }
+        return itemDiscounts;
+    }
+
     // get all applicable category discounts for a given product ID and customer phone number
     public ResponseEntity<Map<String, Object>> getApplicableCategoryDiscounts(String phone, Map<Long, Integer> items) {
         
         Map<String, Object> response = new HashMap<>();
         
-        if (phone == null || phone.trim().isEmpty()) {
-            Map<String, List<DiscountDTO>> universalDiscounts = new HashMap<>();
-            
-            for (Long itemId : items.keySet()) {
-                
-                ResponseEntity<Map<String, Object>> categoryResponse = getCategoryIdByProductId(itemId);
-                
-                if (!categoryResponse.getStatusCode().is2xxSuccessful() || 
-                    !(Boolean)categoryResponse.getBody().get("success")) {
-                    continue;
-                }
-                
-                Long categoryId = (Long) categoryResponse.getBody().get("categoryId");
-                
-                List<Discount> allDiscounts = discountRepository.findActiveCategoryDiscounts(categoryId, null);
-                
-                List<DiscountDTO> applicableDiscounts = allDiscounts.stream()
-                    .filter(d -> d.getLoyaltyType() == null) 
-                    .map(d -> {
-                        DiscountDTO dto = modelMapper.map(d, DiscountDTO.class);
-                        dto.setItemId(itemId);
-                        return dto;
-                    })
-                    .collect(Collectors.toList());
-                    
-                if (!applicableDiscounts.isEmpty()) {
-                    universalDiscounts.put(itemId + "-" + categoryId, applicableDiscounts);
-                }
-            }
-            
-            response.put("success", true);
-            response.put("discounts", universalDiscounts);
-            response.put("message", universalDiscounts.isEmpty() ?
-                "No universal category discounts found" :
-                "Found universal category discounts for " + universalDiscounts.size() + " item-category pairs");
-            response.put("customerTier", "UNKNOWN");
-            
-            return ResponseEntity.ok(response);
-        }
-    
-        Optional<Discount.LoyaltyTier> tierOptional = discountRepository.findCustomerLoyaltyTierByPhone(phone);
-        if (tierOptional.isEmpty()) {
-            Map<String, List<DiscountDTO>> universalDiscounts = new HashMap<>();
-            
-            for (Long itemId : items.keySet()) {
-                ResponseEntity<Map<String, Object>> categoryResponse = getCategoryIdByProductId(itemId);
-                
-                if (!categoryResponse.getStatusCode().is2xxSuccessful() || 
-                    !(Boolean)categoryResponse.getBody().get("success")) {
-                    continue;
-                }
-                
-                Long categoryId = (Long) categoryResponse.getBody().get("categoryId");
-                
-                List<Discount> allDiscounts = discountRepository.findActiveCategoryDiscounts(categoryId, null);
-                
-                List<DiscountDTO> applicableDiscounts = allDiscounts.stream()
-                    .filter(d -> d.getLoyaltyType() == null) // Only universal discounts
-                    .map(d -> {
-                        DiscountDTO dto = modelMapper.map(d, DiscountDTO.class);
-                        dto.setItemId(itemId);
-                        return dto;
-                    })
-                    .collect(Collectors.toList());
-                    
-                if (!applicableDiscounts.isEmpty()) {
-                    universalDiscounts.put(itemId + "-" + categoryId, applicableDiscounts);
-                }
-            }
-            
-            response.put("success", true);
-            response.put("discounts", universalDiscounts);
-            response.put("message", universalDiscounts.isEmpty() ?
+        CartPricingContext cart = resolveCart(phone, items);
+        Discount.LoyaltyTier tier = cart.getTier();
+        
+        Map<String, List<DiscountDTO>> categoryDiscounts = findCategoryDiscounts(cart);
+        
+        response.put("success", true);
+        response.put("discounts", categoryDiscounts);
+        
+        if (tier != null) {
+            response.put("message", categoryDiscounts.isEmpty() ?
+                "No active category discounts found for customer tier " + tier :
+                "Found category discounts for " + categoryDiscounts.size() + " item-category pairs for tier " + tier);
+            response.put("customerTier", tier.toString());
+        } else {
+            response.put("message", categoryDiscounts.isEmpty() ?
                 "No universal category discounts found" :
-                "Found universal category discounts for " + universalDiscounts.size() + " item-category pairs");
+                "Found universal category discounts for " + categoryDiscounts.size() + " item-category pairs");
             response.put("customerTier", "UNKNOWN");
-            
-            return ResponseEntity.ok(response);
         }
         
-        Discount.LoyaltyTier tier = tierOptional.get();
-        
+        return ResponseEntity.ok(response);
+    }
+
+    // category discounts per cart line, keyed by "itemId-categoryId"; no tier means universal discounts only
+    private Map<String, List<DiscountDTO>> findCategoryDiscounts(CartPricingContext cart) {
         Map<String, List<DiscountDTO>> categoryDiscounts = new HashMap<>();
-        
-        for (Long itemId : items.keySet()) {
-            ResponseEntity<Map<String, Object>> categoryResponse = getCategoryIdByProductId(itemId);
-            
-            if (!categoryResponse.getStatusCode().is2xxSuccessful() || 
-                !(Boolean)categoryResponse.getBody().get("success")) {
-                continue; 
+        for (Long itemId : cart.getItems().keySet()) {
+            Long categoryId = cart.getCategoryIds().get(itemId);
+            if (categoryId == null) {
+                continue;
             }
             
-            Long categoryId = (Long) categoryResponse.getBody().get("categoryId");
-            
-            List<Discount> allDiscounts = discountRepository.findActiveCategoryDiscounts(categoryId, null);
-            
-            List<DiscountDTO> applicableDiscounts = allDiscounts.stream()
-                .filter(d -> 
-                    d.getLoyaltyType() == null || 
-                    d.getLoyaltyType() == tier
-                )
-                .map(d -> {
-                    DiscountDTO dto = modelMapper.map(d, DiscountDTO.class);
-                    dto.setItemId(itemId);
-                    return dto;
-                })
-                .collect(Collectors.toList());
-                
-            if (!applicableDiscounts.isEmpty()) {
+            List<DiscountRuleIndex.Rule> matches = cart.getRules().categoryDiscounts(categoryId, cart.getTier());
+            if (!matches.isEmpty()) {
+                List<DiscountDTO> applicableDiscounts = new ArrayList<>(matches.size());
+                for (DiscountRuleIndex.Rule discount : matches) {
+                    applicableDiscounts.add(discount.withItemId(itemId).toDTO());
+                }
                 categoryDiscounts.put(itemId + "-" + categoryId, applicableDiscounts);
             }
         }
+        return categoryDiscounts;
+    }
+
+    // fresh response copies of shared index rules
+    private static List<DiscountDTO> toDTOs(List<DiscountRuleIndex.Rule> rules) {
+        return rules.stream().map(DiscountRuleIndex.Rule::toDTO).toList();
+    }
+
+    // resolve customer, tier, prices and categories of a cart once per request
+    private CartPricingContext resolveCart(String phone, Map<Long, Integer> items) {
+        CustomerCache.Entry customer = phone == null || phone.trim().isEmpty()
+            ? null
+            : customerCache.findByPhone(phone).orElse(null);
         
-        response.put("success", true);
-        response.put("discounts", categoryDiscounts);
-        response.put("message", categoryDiscounts.isEmpty() ?
-            "No active category discounts found for customer tier " + tier :
-            "Found category discounts for " + categoryDiscounts.size() + " item-category pairs for tier " + tier);
-        response.put("customerTier", tier.toString());
+        Map<Long, BigDecimal> prices = new HashMap<>();
+        Map<Long, Long> categoryIds = new HashMap<>();
+        productCatalogCache.findAllById(items.keySet()).forEach((itemId, product) -> {
+            prices.put(itemId, BigDecimal.valueOf(product.price()));
+            if (product.categoryId() != null) {
+                categoryIds.put(itemId, product.categoryId());
+            }
+        });
         
-        return ResponseEntity.ok(response);
+        return new CartPricingContext(phone, items, customer, prices, categoryIds, discountRuleIndex.current());
+    }
+
+    private LoyaltyThresholdsSnapshot thresholds(CartPricingContext cart) {
+        if (cart.getThresholds() == null) {
+            cart.setThresholds(loyaltyThresholdsCache.current());
+        }
+        return cart.getThresholds();
+    }
+
+    // v2: typed quote with every line's discounts, the loyalty discounts, totals and points
+    @Transactional(readOnly = true)
+    public CartQuoteDTO quoteCart(String phone, Map<Long, Integer> items) {
+        CartPricingContext cart = resolveCart(phone, items);
+        for (Long itemId : items.keySet()) {
+            if (!cart.getPrices().containsKey(itemId)) {
+                throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Product not found with id: " + itemId);
+            }
+        }
+        return CartPricer.quote(cart, thresholds(cart));
     }
 
     // get all applicable discounts for a given product ID and customer phone number
     public ResponseEntity<Map<String, Object>> getAllApplicableDiscounts(String phone, Map<Long, Integer> items) {
+        return ResponseEntity.ok(findAllApplicableDiscounts(resolveCart(phone, items)));
+    }
+
+    private Map<String, Object> findAllApplicableDiscounts(CartPricingContext cart) {
+        if (cart.getApplicableDiscounts() != null) {
+            return cart.getApplicableDiscounts();
+        }
         
         Map<String, Object> response = new HashMap<>();
+        Discount.LoyaltyTier tier = cart.getTier();
         
-        if (phone == null || phone.trim().isEmpty()) {
-            ResponseEntity<Map<String, Object>> itemDiscountsResponse = getApplicableItemDiscounts("", items);
-            ResponseEntity<Map<String, Object>> categoryDiscountsResponse = getApplicableCategoryDiscounts("", items);
-            
-            Map<String, Object> allDiscounts = new HashMap<>();
-            allDiscounts.put("loyaltyDiscounts", Collections.emptyList()); 
-            
-            if (itemDiscountsResponse.getStatusCode().is2xxSuccessful() && 
-                itemDiscountsResponse.getBody() != null && 
-                (Boolean) itemDiscountsResponse.getBody().get("success")) {
-                allDiscounts.put("itemDiscounts", itemDiscountsResponse.getBody().get("discounts"));
-            } else {
-                allDiscounts.put("itemDiscounts", Collections.emptyMap());
-            }
-            
-            if (categoryDiscountsResponse.getStatusCode().is2xxSuccessful() && 
-                categoryDiscountsResponse.getBody() != null && 
-                (Boolean) categoryDiscountsResponse.getBody().get("success")) {
-                allDiscounts.put("categoryDiscounts", categoryDiscountsResponse.getBody().get("discounts"));
-            } else {
-                allDiscounts.put("categoryDiscounts", Collections.emptyMap());
-            }
-            
-            int itemCount = allDiscounts.get("itemDiscounts") instanceof Map ? ((Map<?, ?>) allDiscounts.get("itemDiscounts")).size() : 0;
-            int categoryCount = allDiscounts.get("categoryDiscounts") instanceof Map ? ((Map<?, ?>) allDiscounts.get("categoryDiscounts")).size() : 0;
-            int totalDiscounts = itemCount + categoryCount;
-            
-            response.put("success", true);
-            response.put("discounts", allDiscounts);
+        List<DiscountDTO> loyaltyDiscounts = toDTOs(cart.getRules().loyaltyDiscounts(tier));
+        Map<String, List<DiscountDTO>> itemDiscounts = findItemDiscounts(cart);
+        Map<String, List<DiscountDTO>> categoryDiscounts = findCategoryDiscounts(cart);
+        
+        Map<String, Object> allDiscounts = new HashMap<>();
+        allDiscounts.put("loyaltyDiscounts", loyaltyDiscounts);
+        allDiscounts.put("itemDiscounts", itemDiscounts);
+        allDiscounts.put("categoryDiscounts", categoryDiscounts);
+        
+        response.put("success", true);
+        response.put("discounts", allDiscounts);
+        
+        int loyaltyCount = loyaltyDiscounts.size();
+        int itemCount = itemDiscounts.size();
+        int categoryCount = categoryDiscounts.size();
+        
+        if (tier == null) {
             response.put("customerTier", "UNKNOWN");
             response.put("message", String.format(
                 "Found %d universal discounts (item: %d, category: %d)",
-                totalDiscounts,
+                itemCount + categoryCount,
                 itemCount,
                 categoryCount
             ));
-            
-            return ResponseEntity.ok(response);
-        }
-    
-        Optional<Discount.LoyaltyTier> tierOptional = discountRepository.findCustomerLoyaltyTierByPhone(phone);
-        if (tierOptional.isEmpty()) {
-            ResponseEntity<Map<String, Object>> itemDiscountsResponse = getApplicableItemDiscounts("", items);
-            ResponseEntity<Map<String, Object>> categoryDiscountsResponse = getApplicableCategoryDiscounts("", items);
-            
-            Map<String, Object> allDiscounts = new HashMap<>();
-            allDiscounts.put("loyaltyDiscounts", Collections.emptyList());
-            
-            if (itemDiscountsResponse.getStatusCode().is2xxSuccessful() && 
-                itemDiscountsResponse.getBody() != null && 
-                (Boolean) itemDiscountsResponse.getBody().get("success")) {
-                allDiscounts.put("itemDiscounts", itemDiscountsResponse.getBody().get("discounts"));
-            } else {
-                allDiscounts.put("itemDiscounts", Collections.emptyMap());
-            }
-            
-            if (categoryDiscountsResponse.getStatusCode().is2xxSuccessful() && 
-                categoryDiscountsResponse.getBody() != null && 
-                (Boolean) categoryDiscountsResponse.getBody().get("success")) {
-                allDiscounts.put("categoryDiscounts", categoryDiscountsResponse.getBody().get("discounts"));
-            } else {
-                allDiscounts.put("categoryDiscounts", Collections.emptyMap());
-            }
-            
-            int itemCount = allDiscounts.get("itemDiscounts") instanceof Map ? ((Map<?, ?>) allDiscounts.get("itemDiscounts")).size() : 0;
-            int categoryCount = allDiscounts.get("categoryDiscounts") instanceof Map ? ((Map<?, ?>) allDiscounts.get("categoryDiscounts")).size() : 0;
-            int totalDiscounts = itemCount + categoryCount;
-            
-            response.put("success", true);
-            response.put("discounts", allDiscounts);
-            response.put("customerTier", "UNKNOWN");
+        } else {
+            response.put("customerTier", tier.toString());
             response.put("message", String.format(
-                "Found %d universal discounts (item: %d, category: %d)",
-                totalDiscounts,
+                "Found %d total applicable discounts (loyalty: %d, item: %d, category: %d) for tier %s",
+                loyaltyCount + itemCount + categoryCount,
+                loyaltyCount,
                 itemCount,
-                categoryCount
+                categoryCount,
+                tier
             ));
-            
-            return ResponseEntity.ok(response);
         }
         
-        Discount.LoyaltyTier tier = tierOptional.get();
-        
-        response.put("success", true);
-        response.put("customerTier", tier.toString());
-        
-        ResponseEntity<Map<String, Object>> loyaltyDiscountsResponse = getApplicableLoyaltyDiscounts(phone);
-        ResponseEntity<Map<String, Object>> itemDiscountsResponse = getApplicableItemDiscounts(phone, items);
-        ResponseEntity<Map<String, Object>> categoryDiscountsResponse = getApplicableCategoryDiscounts(phone, items);
-        
-        Map<String, Object> allDiscounts = new HashMap<>();
-        
-        if (loyaltyDiscountsResponse.getStatusCode().is2xxSuccessful() && 
-            loyaltyDiscountsResponse.getBody() != null && 
-            (Boolean) loyaltyDiscountsResponse.getBody().get("success")) {
-            allDiscounts.put("loyaltyDiscounts", loyaltyDiscountsResponse.getBody().get("discounts"));
-        } else {
-            allDiscounts.put("loyaltyDiscounts", Collections.emptyList());
-        }
-        
-        if (itemDiscountsResponse.getStatusCode().is2xxSuccessful() && 
-            itemDiscountsResponse.getBody() != null && 
-            (Boolean) itemDiscountsResponse.getBody().get("success")) {
-            allDiscounts.put("itemDiscounts", itemDiscountsResponse.getBody().get("discounts"));
-        } else {
-            allDiscounts.put("itemDiscounts", Collections.emptyMap());
-        }
-        
-        if (categoryDiscountsResponse.getStatusCode().is2xxSuccessful() && 
-            categoryDiscountsResponse.getBody() != null && 
-            (Boolean) categoryDiscountsResponse.getBody().get("success")) {
-            allDiscounts.put("categoryDiscounts", categoryDiscountsResponse.getBody().get("discounts"));
-        } else {
-            allDiscounts.put("categoryDiscounts", Collections.emptyMap());
-        }
-        
-        response.put("discounts", allDiscounts);
-        
-        int loyaltyCount = allDiscounts.get("loyaltyDiscounts") instanceof List ? ((List<?>) allDiscounts.get("loyaltyDiscounts")).size() : 0;
-        int itemCount = allDiscounts.get("itemDiscounts") instanceof Map ? ((Map<?, ?>) allDiscounts.get("itemDiscounts")).size() : 0;
-        int categoryCount = allDiscounts.get("categoryDiscounts") instanceof Map ? ((Map<?, ?>) allDiscounts.get("categoryDiscounts")).size() : 0;
-        int totalDiscounts = loyaltyCount + itemCount + categoryCount;
-            
-        response.put("message", String.format(
-            "Found %d total applicable discounts (loyalty: %d, item: %d, category: %d) for tier %s",
-            totalDiscounts,
-            loyaltyCount,
-            itemCount,
-            categoryCount,
-            tier
-        ));
-        
-        return ResponseEntity.ok(response);
+        cart.setApplicableDiscounts(response);
+        return response;
     }
 
     // get applicable discount IDs
     public Map<String, Object> getApplicableDiscountIds(String phone, Map<Long, Integer> items) {
+        return calculateApplicableDiscounts(resolveCart(phone, items));
+    }
+
+    private Map<String, Object> calculateApplicableDiscounts(CartPricingContext cart) {
+        if (cart.getDiscountTotals() != null) {
+            return cart.getDiscountTotals();
+        }
+        
         Map<String, Object> response = new HashMap<>();
+        Map<Long, Integer> items = cart.getItems();
         try {
-            Map<String, Object> allDiscounts = getAllApplicableDiscounts(phone, items).getBody();
+            Map<String, Object> allDiscounts = findAllApplicableDiscounts(cart);
             List<Map<String, Object>> discountDetails = new ArrayList<>();
             
             BigDecimal totalItemDiscount = BigDecimal.ZERO;
@@ -682,8 +567,7 @@ public LoyaltyThresholdsDTO updateLoyaltyThresholds(LoyaltyThresholdsDTO thresho
             BigDecimal discountableSubtotal = BigDecimal.ZERO; 
     
             for (Map.Entry<Long, Integer> entry : items.entrySet()) {
-                BigDecimal price = discountRepository.findPriceByItemId(entry.getKey())
-                    .orElse(BigDecimal.ZERO);
+                BigDecimal price = cart.priceOf(entry.getKey());
                 fullSubtotal = fullSubtotal.add(
                     price.multiply(BigDecimal.valueOf(entry.getValue())));
             }
@@ -711,8 +595,7 @@ public LoyaltyThresholdsDTO updateLoyaltyThresholds(LoyaltyThresholdsDTO thresho
                 
                 for (Map.Entry<Long, Integer> entry : items.entrySet()) {
                     if (discountedItemIds.contains(entry.getKey())) {
-                        BigDecimal price = discountRepository.findPriceByItemId(entry.getKey())
-                            .orElse(BigDecimal.ZERO);
+                        BigDecimal price = cart.priceOf(entry.getKey());
                         discountableSubtotal = discountableSubtotal.add(
                             price.multiply(BigDecimal.valueOf(entry.getValue())));
                     }
@@ -721,14 +604,13 @@ public LoyaltyThresholdsDTO updateLoyaltyThresholds(LoyaltyThresholdsDTO thresho
                 for (Map.Entry<String, List<DiscountDTO>> entry : itemDiscounts.entrySet()) {
                     Long itemId = Long.parseLong(entry.getKey());
                     Integer quantity = items.get(itemId);
-                    BigDecimal price = discountRepository.findPriceByItemId(itemId)
-                        .orElse(BigDecimal.ZERO);
+                    BigDecimal price = cart.priceOf(itemId);
                     
                     BigDecimal totalAmount = price.multiply(BigDecimal.valueOf(quantity));
                     
                     for (DiscountDTO discount : entry.getValue()) {
                         Map<String, Object> discountInfo = new HashMap<>();
-                        discountInfo.put("id", discount.id);
+                        discountInfo.put("id", discount.getId());
                         discountInfo.put("itemId", itemId);
                         discountInfo.put("quantity", quantity);
                         discountInfo.put("price", price);
@@ -755,14 +637,13 @@ public LoyaltyThresholdsDTO updateLoyaltyThresholds(LoyaltyThresholdsDTO thresho
                     String[] parts = entry.getKey().split("-");
                     Long itemId = Long.parseLong(parts[0]);
                     Integer quantity = items.get(itemId);
-                    BigDecimal price = discountRepository.findPriceByItemId(itemId)
-                        .orElse(BigDecimal.ZERO);
+                    BigDecimal price = cart.priceOf(itemId);
                     
                     BigDecimal totalAmount = price.multiply(BigDecimal.valueOf(quantity));
                     
                     for (DiscountDTO discount : entry.getValue()) {
                         Map<String, Object> discountInfo = new HashMap<>();
-                        discountInfo.put("id", discount.id);
+                        discountInfo.put("id", discount.getId());
                         discountInfo.put("itemId", itemId);
                         discountInfo.put("quantity", quantity);
                         discountInfo.put("price", price);
@@ -791,7 +672,7 @@ public LoyaltyThresholdsDTO updateLoyaltyThresholds(LoyaltyThresholdsDTO thresho
                 
                 for (DiscountDTO discount : loyaltyDiscounts) {
                     Map<String, Object> discountInfo = new HashMap<>();
-                    discountInfo.put("id", discount.id);
+                    discountInfo.put("id", discount.getId());
                     discountInfo.put("totalAmount", discountableSubtotal);
                     
                     BigDecimal discountValue = calculateDiscountValue(discount, discountableSubtotal, 1);
@@ -834,6 +715,7 @@ public LoyaltyThresholdsDTO updateLoyaltyThresholds(LoyaltyThresholdsDTO thresho
             response.put("success", false);
             response.put("message", "Error processing discounts: " + e.getMessage());
         }
+        cart.setDiscountTotals(response);
         return response;
     }
     
@@ -856,12 +738,17 @@ public LoyaltyThresholdsDTO updateLoyaltyThresholds(LoyaltyThresholdsDTO thresho
 
     //  final discount return with customer info
     public Map<String, Object> getFinalDiscountedOrderWithCustomerInfo(String phone, Map<Long, Integer> items) {
+        return buildFinalDiscountedOrder(resolveCart(phone, items));
+    }
+
+    private Map<String, Object> buildFinalDiscountedOrder(CartPricingContext cart) {
         Map<String, Object> response = new HashMap<>();
+        String phone = cart.getPhone();
         
         try {
-            if (phone == null || phone.trim().isEmpty()) {
+            if (cart.isGuest()) {
                 
-                Map<String, Object> discountResponse = getApplicableDiscountIds("", items);
+                Map<String, Object> discountResponse = calculateApplicableDiscounts(cart);
                 
                 response.put("finalDiscountedPrice", discountResponse.get("finalDiscountedPrice"));
                 response.put("finalTotalDiscount", discountResponse.get("finalTotalDiscount"));
@@ -876,11 +763,9 @@ public LoyaltyThresholdsDTO updateLoyaltyThresholds(LoyaltyThresholdsDTO thresho
                 return response;
             }
     
-            Map<String, Object> discountResponse = getApplicableDiscountIds(phone, items);
-            
-            Optional<Customer> customerOpt = discountRepository.findCustomerByPhone(phone);
+            Map<String, Object> discountResponse = calculateApplicableDiscounts(cart);
             
-            if (customerOpt.isEmpty()) {
+            if (cart.getCustomer() == null) {
                 response.put("finalDiscountedPrice", discountResponse.get("finalDiscountedPrice"));
                 response.put("finalTotalDiscount", discountResponse.get("finalTotalDiscount"));
                 response.put("finalTotalAmount", discountResponse.get("finalTotalAmount"));
@@ -894,13 +779,11 @@ public LoyaltyThresholdsDTO updateLoyaltyThresholds(LoyaltyThresholdsDTO thresho
                 return response;
             }
             
-            Customer customer = customerOpt.get();
+            CustomerCache.Entry customer = cart.getCustomer();
             
             String formattedTitle = "OTHER"; 
-            if (customer.getTitle() != null) {
-                String titleStr = customer.getTitle() instanceof Enum ?
-                    ((Enum<?>) customer.getTitle()).name() :
-                    customer.getTitle().toString();
+            if (customer.title() != null) {
+                String titleStr = customer.title().name();
                 
                 switch (titleStr.toUpperCase()) {
                     case "MR":
@@ -918,11 +801,11 @@ public LoyaltyThresholdsDTO updateLoyaltyThresholds(LoyaltyThresholdsDTO thresho
             response.put("finalTotalDiscount", discountResponse.get("finalTotalDiscount"));
                 response.put("finalTotalAmount", discountResponse.get("finalTotalAmount"));
             response.put("phone", phone);
-            response.put("loyaltyTier", customer.getTier() != null ? 
-                            customer.getTier().toString() : "NONE");
-            response.put("points", customer.getPoints());
-            response.put("name", customer.getName());
-            response.put("email", customer.getEmail());
+            response.put("loyaltyTier", customer.tier() != null ? 
+                            customer.tier().toString() : "NONE");
+            response.put("points", customer.points());
+            response.put("name", customer.name());
+            response.put("email", customer.email());
             response.put("title", formattedTitle);
             response.put("success", true);
             
@@ -944,7 +827,7 @@ public LoyaltyThresholdsDTO updateLoyaltyThresholds(LoyaltyThresholdsDTO thresho
             return response;
         }
         
-        Optional<Double> points = discountRepository.findCustomerPointsByPhone(phone);
+        Optional<Double> points = customerCache.findByPhone(phone).map(CustomerCache.Entry::points);
         
         if (points.isEmpty()) {
             response.put("success", false);
@@ -973,13 +856,14 @@ public LoyaltyThresholdsDTO updateLoyaltyThresholds(LoyaltyThresholdsDTO thresho
             return response;
         }
         
-        Optional<Customer> customer = discountRepository.findCustomerByPhone(phone);
+        Optional<CustomerCache.Entry> customer = customerCache.findByPhone(phone);
         
         if (customer.isEmpty()) {
             response.put("success", false);
             response.put("message", "Customer not found");
         } else {
             discountRepository.updateCustomerPoints(phone, points);
+            customerCache.updatePoints(phone, points);
             response.put("success", true);
             response.put("message", "Points updated successfully");
             response.put("newPoints", points);
@@ -990,17 +874,26 @@ public LoyaltyThresholdsDTO updateLoyaltyThresholds(LoyaltyThresholdsDTO thresho
 
     // get used and earned points by phone number
     public Map<String, Object> calculatePointsUsageAndEarning(String phone, Map<Long, Integer> items) {
+        return calculatePointsUsageAndEarning(resolveCart(phone, items));
+    }
+
+    private Map<String, Object> calculatePointsUsageAndEarning(CartPricingContext cart) {
+        if (cart.getPointsInfo() != null) {
+            return cart.getPointsInfo();
+        }
+        
         Map<String, Object> response = new HashMap<>();
+        String phone = cart.getPhone();
         
         try {
            
-            if (phone == null || phone.trim().isEmpty()) {
+            if (cart.isGuest()) {
                 response.put("success", false);
                 response.put("message", "Phone number is required");
                 return response;
             }
             
-            Map<String, Object> discountInfo = getApplicableDiscountIds(phone, items);
+            Map<String, Object> discountInfo = calculateApplicableDiscounts(cart);
             if (!(Boolean) discountInfo.get("success")) {
                 return discountInfo; 
             }
@@ -1008,16 +901,14 @@ public LoyaltyThresholdsDTO updateLoyaltyThresholds(LoyaltyThresholdsDTO thresho
             BigDecimal finalTotalAmount = (BigDecimal) discountInfo.get("finalTotalAmount");
             BigDecimal totalLoyaltyDiscount = (BigDecimal) discountInfo.getOrDefault("totalLoyaltyDiscount", BigDecimal.ZERO);
            
-            LoyaltyThresholdsDTO thresholds = getLoyaltyThresholds();
-            double keyPoints = thresholds.points; 
+            double keyPoints = thresholds(cart).points();
            
-            Optional<Double> customerPointsOpt = discountRepository.findCustomerPointsByPhone(phone);
-            if (customerPointsOpt.isEmpty()) {
+            if (cart.getCustomer() == null || cart.getCustomer().points() == null) {
                 response.put("success", false);
                 response.put("message", "Customer not found with phone: " + phone);
                 return response;
             }
-            double customerPoints = customerPointsOpt.get();
+            double customerPoints = cart.getCustomer().points();
             
             double earnedPoints = finalTotalAmount.doubleValue() / 100 * keyPoints;
             
@@ -1042,30 +933,41 @@ public LoyaltyThresholdsDTO updateLoyaltyThresholds(LoyaltyThresholdsDTO thresho
             response.put("message", "Error calculating points: " + e.getMessage());
         }
         
+        cart.setPointsInfo(response);
         return response;
     }
 
     
     // update customers points after calculations
     public Map<String, Object> updateCustomerPointsAfterPurchase(String phone, Map<Long, Integer> items) {
+        return updateCustomerPointsAfterPurchase(resolveCart(phone, items));
+    }
+
+    private Map<String, Object> updateCustomerPointsAfterPurchase(CartPricingContext cart) {
         Map<String, Object> response = new HashMap<>();
         
         try {
-            Map<String, Object> pointsCalculation = calculatePointsUsageAndEarning(phone, items);
+            Map<String, Object> pointsCalculation = calculatePointsUsageAndEarning(cart);
             
             if (!(Boolean) pointsCalculation.get("success")) {
                 return pointsCalculation; 
             }
           
-            double newPointsBalance = (double) pointsCalculation.get("newPointsBalance");
+            double earnedPoints = (double) pointsCalculation.get("earnedPoints");
+            double usedPoints = (double) pointsCalculation.get("usedPoints");
             
-            Map<String, Object> updateResult = updateCustomerPoints(phone, newPointsBalance);
-            
-            if (!(Boolean) updateResult.get("success")) {
-                return updateResult; 
+            // applied as a delta, so points added or spent elsewhere since the customer was cached are kept
+            if (discountRepository.addCustomerPoints(cart.getPhone(), earnedPoints - usedPoints) == 0) {
+                customerCache.evict(cart.getPhone());
+                response.put("success", false);
+                response.put("message", "Customer points changed since the cart was priced, please retry");
+                return response;
             }
+            double newPointsBalance = discountRepository.findCustomerPointsByPhone(cart.getPhone()).orElseThrow();
+            customerCache.updatePoints(cart.getPhone(), newPointsBalance);
             
             response.putAll(pointsCalculation);
+            response.put("newPointsBalance", newPointsBalance);
             response.put("message", "Customer points updated successfully");
             
         } catch (Exception e) {
@@ -1078,51 +980,45 @@ public LoyaltyThresholdsDTO updateLoyaltyThresholds(LoyaltyThresholdsDTO thresho
     
     // add order details
     public Map<String, Object> getCompleteDiscountAndPointsInfo(String phone, Map<Long, Integer> items) {
+        return buildCompleteDiscountAndPointsInfo(resolveCart(phone, items));
+    }
+
+    private Map<String, Object> buildCompleteDiscountAndPointsInfo(CartPricingContext cart) {
         Map<String, Object> response = new HashMap<>();
+        String phone = cart.getPhone();
+        Map<Long, Integer> items = cart.getItems();
         
         try {
-            Optional<Customer> customerOpt = discountRepository.findCustomerByPhone(phone);
-            if (customerOpt.isEmpty()) {
+            CustomerCache.Entry customer = cart.getCustomer();
+            if (customer == null) {
                 response.put("success", false);
                 response.put("message", "Customer not found");
                 return response;
             }
-            Customer customer = customerOpt.get();
-            Map<String, Object> discountInfo = getApplicableDiscountIds(phone, items);
+            Map<String, Object> discountInfo = calculateApplicableDiscounts(cart);
             if (!(Boolean) discountInfo.get("success")) {
                 return discountInfo;
             }
             
-            Map<String, Object> pointsInfo = calculatePointsUsageAndEarning(phone, items);
+            Map<String, Object> pointsInfo = calculatePointsUsageAndEarning(cart);
             if (!(Boolean) pointsInfo.get("success")) {
                 return pointsInfo;
             }
             
-            Map<String, Object> customerPoints = getCustomerPointsByPhone(phone);
-            if (!(Boolean) customerPoints.get("success")) {
-                return customerPoints;
-            }
-            
-            Map<String, Object> finalOrderInfo = getFinalDiscountedOrderWithCustomerInfo(phone, items);
+            Map<String, Object> finalOrderInfo = buildFinalDiscountedOrder(cart);
             if (!(Boolean) finalOrderInfo.get("success")) {
                 return finalOrderInfo;
             }
             
-            Map<String, Object> allDiscounts = getAllApplicableDiscounts(phone, items).getBody();
+            Map<String, Object> allDiscounts = findAllApplicableDiscounts(cart);
             
             response.put("success", true);
+            response.put("customerId", customer.id());
             
-            Optional<Long> customerIdOpt = discountRepository.findCustomerIdByPhone(phone);
-            if (customerIdOpt.isPresent()) {
-                response.put("customerId", customerIdOpt.get());
-            } else {
-                response.put("customerId", null);
-            }
-            
-            response.put("customerName", customer.getName());
+            response.put("customerName", customer.name());
             response.put("customerPhone", phone);
-            response.put("customerTier", customer.getTier() != null ? 
-                        customer.getTier().toString() : "NONE");
+            response.put("customerTier", customer.tier() != null ? 
+                        customer.tier().toString() : "NONE");
             
             response.put("totalItemDiscount", discountInfo.get("totalItemDiscount"));
             response.put("totalCategoryDiscount", discountInfo.get("totalCategoryDiscount"));
@@ -1130,7 +1026,7 @@ public LoyaltyThresholdsDTO updateLoyaltyThresholds(LoyaltyThresholdsDTO thresho
             response.put("finalTotalAmount", discountInfo.get("finalTotalAmount"));
             response.put("finalDiscountedPrice", discountInfo.get("finalDiscountedPrice"));
             
-            response.put("currentPoints", customerPoints.get("points"));
+            response.put("currentPoints", customer.points());
             response.put("usedPoints", pointsInfo.get("usedPoints"));
             response.put("earnedPoints", pointsInfo.get("earnedPoints"));
             response.put("newPointsBalance", pointsInfo.get("newPointsBalance"));
@@ -1156,9 +1052,8 @@ public LoyaltyThresholdsDTO updateLoyaltyThresholds(LoyaltyThresholdsDTO thresho
                     itemDetail.put("itemId", itemId);
                     itemDetail.put("quantity", quantity);
                    
-                    Optional<BigDecimal> priceOpt = discountRepository.findPriceByItemId(itemId);
-                    if (priceOpt.isPresent()) {
-                        BigDecimal price = priceOpt.get();
+                    BigDecimal price = cart.getPrices().get(itemId);
+                    if (price != null) {
                         BigDecimal totalAmount = price.multiply(BigDecimal.valueOf(quantity));
                         itemDetail.put("price", price);
                         itemDetail.put("totalAmount", totalAmount);
@@ -1202,18 +1097,19 @@ public LoyaltyThresholdsDTO updateLoyaltyThresholds(LoyaltyThresholdsDTO thresho
     // update order details
     @Transactional
     public Map<String, Object> saveOrderDetails(String phone, Map<Long, Integer> items) {
-        Map<String, Object> discountInfo = getCompleteDiscountAndPointsInfo(phone, items);
+        CartPricingContext cart = resolveCart(phone, items);
+        Map<String, Object> discountInfo = buildCompleteDiscountAndPointsInfo(cart);
         
         if (!(Boolean) discountInfo.get("success")) {
             return discountInfo;
         }
 
-        Map<String, Object> pointsUpdateResult = updateCustomerPointsAfterPurchase(phone, items);
+        Map<String, Object> pointsUpdateResult = updateCustomerPointsAfterPurchase(cart);
         if (!(Boolean) pointsUpdateResult.get("success")) {
             return pointsUpdateResult;
         }
 
-        Map<String, Object> loyaltyUpdateResult = updateCustomerLoyaltyStatus(phone);
+        Map<String, Object> loyaltyUpdateResult = updateCustomerLoyaltyStatus(cart, (double) pointsUpdateResult.get("newPointsBalance"));
         if (!(Boolean) loyaltyUpdateResult.get("success")) {
             return loyaltyUpdateResult;
         }
@@ -1225,13 +1121,14 @@ public LoyaltyThresholdsDTO updateLoyaltyThresholds(LoyaltyThresholdsDTO thresho
         Double totalLoyaltyDiscount = ((Number) discountInfo.get("totalLoyaltyDiscount")).doubleValue();
         Double totalCategoryDiscount = ((Number) discountInfo.get("totalCategoryDiscount")).doubleValue();
        
-        String orderId = "ORD-" + System.currentTimeMillis() + "-" + customerId;
+        String orderId = orderDetailsWriter.nextOrderId(customerId);
+        LocalDateTime orderTime = LocalDateTime.now();
         
-        LoyaltyThresholdsDTO thresholds = getLoyaltyThresholds();
-        double pointsRate = thresholds.points;
+        double pointsRate = thresholds(cart).points();
         
         @SuppressWarnings("unchecked")
         List<Map<String, Object>> itemDetails = (List<Map<String, Object>>) discountInfo.get("itemDetails");
+        List<OrderDetails> rows = new ArrayList<>(itemDetails.size());
         
         for (Map<String, Object> item : itemDetails) {
             Long itemId = ((Number) item.get("itemId")).longValue();
@@ -1251,22 +1148,25 @@ public LoyaltyThresholdsDTO updateLoyaltyThresholds(LoyaltyThresholdsDTO thresho
            
             Double itemPointsEarned = (amount / 100) * pointsRate;
             
-            discountRepository.saveOrderDetails(
-                orderId,  
-                customerId,
-                itemId,
-                discountId,
-                LocalDateTime.now(),
-                amount,
-                totalDiscount,
-                itemDiscount,
-                categoryDiscount,
-                loyaltyDiscount,
-                loyaltyTier,
-                itemPointsEarned
-            );
+            rows.add(OrderDetails.builder()
+                .orderId(orderId)
+                .customer(customerRepository.getReferenceById(customerId))
+                .itemId(itemId)
+                .discountId(discountId)
+                .datetime(orderTime)
+                .amount(amount)
+                .totalDiscount(totalDiscount)
+                .itemDiscount(itemDiscount)
+                .categoryDiscount(categoryDiscount)
+                .loyaltyDiscount(loyaltyDiscount)
+                .loyaltyTier(loyaltyTier)
+                .pointsEarned(itemPointsEarned)
+                .build());
         }
         
+        orderDetailsWriter.write(rows);
+        eventPublisher.publishEvent(new OrderDetailsRecordedEvent(orderId, rows));
+        
         Map<String, Object> response = new HashMap<>();
         response.putAll(discountInfo);
         response.putAll(pointsUpdateResult);
@@ -1288,43 +1188,52 @@ public LoyaltyThresholdsDTO updateLoyaltyThresholds(LoyaltyThresholdsDTO thresho
                 return response;
             }
             
-            Optional<Double> customerPointsOpt = discountRepository.findCustomerPointsByPhone(phone);
-            if (customerPointsOpt.isEmpty()) {
+            Optional<CustomerCache.Entry> customerOpt = customerCache.findByPhone(phone);
+            if (customerOpt.isEmpty() || customerOpt.get().points() == null) {
                 response.put("success", false);
                 response.put("message", "Customer not found with phone: " + phone);
                 return response;
             }
-            double customerPoints = customerPointsOpt.get();
+            double customerPoints = customerOpt.get().points();
             
-            LoyaltyThresholdsDTO thresholds = getLoyaltyThresholds();
-            
-            Tier newTier;
-            if (customerPoints >= thresholds.gold) {
-                newTier = Tier.GOLD;
-            } else if (customerPoints >= thresholds.silver) {
-                newTier = Tier.SILVER;
-            } else if (customerPoints >= thresholds.bronze) {
-                newTier = Tier.BRONZE;
-            } else {
-                newTier = Tier.NOTLOYALTY;
-            }
+            Tier newTier = loyaltyThresholdsCache.current().tierFor(customerPoints);
             
             discountRepository.updateCustomerTier(phone, newTier);
+            customerCache.updateTier(phone, newTier);
             
-            Optional<Customer> customerOpt = discountRepository.findCustomerByPhone(phone);
-            if (customerOpt.isPresent()) {
-                Customer customer = customerOpt.get();
-                response.put("success", true);
-                response.put("message", "Customer loyalty status updated successfully");
-                response.put("phone", phone);
-                response.put("points", customer.getPoints());
-                response.put("tier", customer.getTier());
-                response.put("newTier", newTier.toString());
-            } else {
-                response.put("success", false);
-                response.put("message", "Customer not found after update");
+            response.put("success", true);
+            response.put("message", "Customer loyalty status updated successfully");
+            response.put("phone", phone);
+            response.put("points", customerPoints);
+            response.put("tier", newTier);
+            response.put("newTier", newTier.toString());
+            
+        } catch (Exception e) {
+            response.put("success", false);
+            response.put("message", "Error updating customer loyalty status: " + e.getMessage());
+        }
+        
+        return response;
+    }
+
+    // tier after a purchase whose new points balance is already known
+    private Map<String, Object> updateCustomerLoyaltyStatus(CartPricingContext cart, double newPointsBalance) {
+        Map<String, Object> response = new HashMap<>();
+        
+        try {
+            // the tier only moves when the new balance crosses a threshold
+            Tier newTier = thresholds(cart).tierFor(newPointsBalance);
+            if (newTier != cart.getCustomer().tier()) {
+                discountRepository.updateCustomerTier(cart.getPhone(), newTier);
+                customerCache.updateTier(cart.getPhone(), newTier);
             }
             
+            response.put("success", true);
+            response.put("message", "Customer loyalty status updated successfully");
+            response.put("phone", cart.getPhone());
+            response.put("points", newPointsBalance);
+            response.put("tier", newTier);
+            response.put("newTier", newTier.toString());
         } catch (Exception e) {
             response.put("success", false);
             response.put("message", "Error updating customer loyalty status: " + e.getMessage());
@@ -1333,4 +1242,4 @@ public LoyaltyThresholdsDTO updateLoyaltyThresholds(LoyaltyThresholdsDTO thresho
         return response;
     }
 
-}
\ No newline at end of file
+}
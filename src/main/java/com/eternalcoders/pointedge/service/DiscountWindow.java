@@ -0,0 +1,69 @@
+package com.eternalcoders.pointedge.service;
+
+import java.time.DateTimeException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.Period;
+import java.util.Locale;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * When a discount applies: from {@code start} (inclusive) until {@code end} (exclusive), or
+ * indefinitely when {@code end} is null. Built once per discount from its start date and its
+ * free-form duration, which is either ISO-8601 ({@code P30D}, {@code PT12H}) or an amount and
+ * a unit such as {@code 30 days}, {@code 2 weeks}, {@code 1 month} or just {@code 30} (days).
+ */
+record DiscountWindow(LocalDateTime start, LocalDateTime end) {
+    private static final Pattern AMOUNT_AND_UNIT = Pattern.compile("(\\d+)\\s*([a-z]*)");
+
+    // throws IllegalArgumentException for durations it cannot read
+    static DiscountWindow of(LocalDateTime startDate, String duration) {
+        LocalDateTime start = startDate != null ? startDate : LocalDateTime.MIN;
+        if (startDate == null || duration == null || duration.isBlank()) {
+            return new DiscountWindow(start, null);
+        }
+        try {
+            return new DiscountWindow(start, endOf(start, duration.trim().toLowerCase(Locale.ROOT)));
+        } catch (DateTimeException | ArithmeticException | NumberFormatException e) {
+            throw new IllegalArgumentException("Unreadable discount duration '" + duration + "'", e);
+        }
+    }
+
+    private static LocalDateTime endOf(LocalDateTime start, String duration) {
+        if (duration.startsWith("p")) {
+            String iso = duration.toUpperCase(Locale.ROOT);
+            return iso.contains("T") ? start.plus(Duration.parse(iso)) : start.plus(Period.parse(iso));
+        }
+
+        Matcher matcher = AMOUNT_AND_UNIT.matcher(duration);
+        if (!matcher.matches()) {
+            throw new IllegalArgumentException("Unreadable discount duration '" + duration + "'");
+        }
+        long amount = Long.parseLong(matcher.group(1));
+        return switch (matcher.group(2)) {
+            case "", "d", "day", "days" -> start.plusDays(amount);
+            case "h", "hr", "hrs", "hour", "hours" -> start.plusHours(amount);
+            case "min", "mins", "minute", "minutes" -> start.plusMinutes(amount);
+            case "w", "week", "weeks" -> start.plusWeeks(amount);
+            case "mo", "month", "months" -> start.plusMonths(amount);
+            case "y", "year", "years" -> start.plusYears(amount);
+            default -> throw new IllegalArgumentException("Unknown discount duration unit '" + matcher.group(2) + "'");
+        };
+    }
+
+    boolean contains(LocalDateTime at) {
+        return !at.isBefore(start) && (end == null || at.isBefore(end));
+    }
+
+    // the next activation or expiry strictly after the given time, null when nothing changes any more
+    LocalDateTime nextBoundaryAfter(LocalDateTime at) {
+        if (start.isAfter(at)) {
+            return start;
+        }
+        if (end != null && end.isAfter(at)) {
+            return end;
+        }
+        return null;
+    }
+}
@@ -0,0 +1,237 @@
+package com.eternalcoders.pointedge.service;
+
+import com.eternalcoders.pointedge.entity.EmployeeOrderCounter;
+import com.eternalcoders.pointedge.event.OrderRecordedEvent;
+import com.eternalcoders.pointedge.repository.EmployeeOrderCounterRepository;
+import com.eternalcoders.pointedge.repository.OrderRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Date;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Keeps the all-time order count of every employee in memory, so checkout does not COUNT the
+ * orders table. Counts are seeded at startup from the {@code employee_order_counters} rollup
+ * plus the orders placed since its last day, and bumped when an order commits on this node.
+ *
+ * <p>Every node adds the orders it recorded to the rollup as deltas on a schedule, so nodes
+ * never overwrite each other's counts. Once a day is settled, i.e. it ended long enough ago that
+ * every node has flushed it, its rows are recounted from the orders table, which repairs deltas
+ * lost to a crash and makes the rollup exact for closed days. After each flush the counts are
+ * re-read from the rollup plus this node's unflushed orders, so orders taken on other nodes
+ * show up here within one flush interval of theirs.
+ */
+@Slf4j
+@Service
+public class EmployeeOrderCounterService {
+    private final OrderRepository orderRepository;
+    private final EmployeeOrderCounterRepository employeeOrderCounterRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final Duration settleAfter;
+
+    // replaced on every refresh; pending and totals only change together, under this lock
+    private final Object countsLock = new Object();
+    private volatile Map<Long, Long> totals = new ConcurrentHashMap<>();
+    // orders committed on this node since the last flush
+    private final Map<DayKey, Long> pending = new ConcurrentHashMap<>();
+
+    // orders dated before the cutoff are counted by the seed, later ones by onOrderRecorded
+    private volatile LocalDateTime seedCutoff;
+    private volatile boolean seeded;
+    private volatile LocalDate lastReconciledDay;
+
+    public EmployeeOrderCounterService(OrderRepository orderRepository,
+                                       EmployeeOrderCounterRepository employeeOrderCounterRepository,
+                                       TransactionTemplate transactionTemplate,
+                                       @Value("${pointedge.order-counters.settle-after:1h}") Duration settleAfter) {
+        this.orderRepository = orderRepository;
+        this.employeeOrderCounterRepository = employeeOrderCounterRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.settleAfter = settleAfter;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void seed() {
+        LocalDateTime cutoff = LocalDateTime.now();
+        seedCutoff = cutoff;
+        LocalDate latestRollupDay = employeeOrderCounterRepository.findLatestOrderDay();
+
+        Map<Long, Long> seededTotals = new HashMap<>();
+        if (latestRollupDay != null) {
+            for (Object[] row : employeeOrderCounterRepository.sumOrderCountsBefore(latestRollupDay)) {
+                seededTotals.merge((Long) row[0], ((Number) row[1]).longValue(), Long::sum);
+            }
+        }
+
+        // the rollup may lag behind the orders table, so recount its last day and everything after it
+        LocalDateTime recountFrom = latestRollupDay != null ? latestRollupDay.atStartOfDay() : LocalDateTime.of(1970, 1, 1, 0, 0);
+        List<EmployeeOrderCounter> recounted = toCounters(orderRepository.countOrdersByEmployeeAndDay(recountFrom, cutoff));
+        for (EmployeeOrderCounter counter : recounted) {
+            seededTotals.merge(counter.getEmployeeId(), counter.getOrderCount(), Long::sum);
+        }
+
+        // added, not put: orders dated after the cutoff may already have been counted by onOrderRecorded
+        synchronized (countsLock) {
+            seededTotals.forEach((employeeId, count) -> totals.merge(employeeId, count, Long::sum));
+        }
+
+        LocalDate settledDay = lastSettledDay();
+        List<EmployeeOrderCounter> settled = recounted.stream()
+                .filter(counter -> !counter.getOrderDay().isAfter(settledDay))
+                .toList();
+        transactionTemplate.executeWithoutResult(status -> employeeOrderCounterRepository.replaceAll(settled));
+        lastReconciledDay = settledDay;
+
+        seeded = true;
+        log.info("Employee order counters seeded for {} employees", totals.size());
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onOrderRecorded(OrderRecordedEvent event) {
+        if (event.getEmployeeId() == null) {
+            return;
+        }
+        LocalDateTime orderDate = event.getOrderDate() != null ? event.getOrderDate() : LocalDateTime.now();
+        DayKey key = new DayKey(event.getEmployeeId(), orderDate.toLocalDate());
+        synchronized (countsLock) {
+            pending.merge(key, 1L, Long::sum);
+            LocalDateTime cutoff = seedCutoff;
+            if (cutoff != null && !orderDate.isBefore(cutoff)) {
+                totals.merge(event.getEmployeeId(), 1L, Long::sum);
+            }
+        }
+    }
+
+    /**
+     * All-time order count of an employee; replaces {@code OrderRepository.countOrdersByEmployeeId}.
+     */
+    public long countOrdersByEmployeeId(Long employeeId) {
+        if (!seeded) {
+            return orderRepository.countOrdersByEmployeeId(employeeId);
+        }
+        Long total = totals.get(employeeId);
+        return total != null ? total : 0;
+    }
+
+    /**
+     * Same as {@link #countOrdersByEmployeeId}, called inside the transaction that just saved an
+     * order of this employee: the in-memory count only includes it after commit, while the
+     * fallback query flushes and already counts it.
+     */
+    public long countOrdersByEmployeeIdIncludingUncommitted(Long employeeId) {
+        if (!seeded) {
+            return orderRepository.countOrdersByEmployeeId(employeeId);
+        }
+        return countOrdersByEmployeeId(employeeId) + 1;
+    }
+
+    @Scheduled(fixedDelayString = "${pointedge.order-counters.flush-interval-ms:300000}")
+    public synchronized void flush() {
+        if (!pending.isEmpty()) {
+            // removing a key hands over its delta; later orders for it start a fresh one
+            List<EmployeeOrderCounter> deltas = new ArrayList<>(pending.size());
+            for (DayKey key : new ArrayList<>(pending.keySet())) {
+                Long delta = pending.remove(key);
+                if (delta != null) {
+                    deltas.add(new EmployeeOrderCounter(null, key.employeeId(), key.day(), delta));
+                }
+            }
+            try {
+                transactionTemplate.executeWithoutResult(status -> employeeOrderCounterRepository.addAll(deltas));
+            } catch (RuntimeException e) {
+                log.error("Failed to add {} employee order counter deltas, will retry", deltas.size(), e);
+                synchronized (countsLock) {
+                    for (EmployeeOrderCounter delta : deltas) {
+                        pending.merge(new DayKey(delta.getEmployeeId(), delta.getOrderDay()), delta.getOrderCount(), Long::sum);
+                    }
+                }
+            }
+        }
+
+        if (seeded) {
+            reconcileSettledDays();
+            refreshTotals();
+        }
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        flush();
+    }
+
+    // recounts the days that settled since the last reconciliation from the orders table
+    private void reconcileSettledDays() {
+        LocalDate settledDay = lastSettledDay();
+        LocalDate reconciled = lastReconciledDay;
+        if (reconciled != null && !reconciled.isBefore(settledDay)) {
+            return;
+        }
+        LocalDate from = reconciled != null ? reconciled.plusDays(1) : settledDay;
+        try {
+            List<EmployeeOrderCounter> counts = toCounters(orderRepository.countOrdersByEmployeeAndDay(
+                    from.atStartOfDay(), settledDay.plusDays(1).atStartOfDay()));
+            transactionTemplate.executeWithoutResult(status -> employeeOrderCounterRepository.replaceAll(counts));
+            lastReconciledDay = settledDay;
+            log.info("Employee order counters recounted for {} to {}", from, settledDay);
+        } catch (RuntimeException e) {
+            log.error("Failed to recount employee order counters for {} to {}, will retry", from, settledDay, e);
+        }
+    }
+
+    /**
+     * Replaces the counts with the rollup, which holds every node's flushed orders, plus the
+     * orders of this node not flushed yet. Only flush adds this node's deltas to the rollup and it
+     * holds the monitor, so an order is either in the rollup read here or still pending.
+     */
+    private void refreshTotals() {
+        Map<Long, Long> refreshed = new ConcurrentHashMap<>();
+        try {
+            for (Object[] row : employeeOrderCounterRepository.sumOrderCounts()) {
+                refreshed.merge((Long) row[0], ((Number) row[1]).longValue(), Long::sum);
+            }
+        } catch (RuntimeException e) {
+            log.error("Failed to refresh employee order counts from the rollup, keeping the current ones", e);
+            return;
+        }
+        synchronized (countsLock) {
+            pending.forEach((key, count) -> refreshed.merge(key.employeeId(), count, Long::sum));
+            totals = refreshed;
+        }
+    }
+
+    // the latest day whose deltas every node has flushed by now
+    private LocalDate lastSettledDay() {
+        return LocalDateTime.now().minus(settleAfter).toLocalDate().minusDays(1);
+    }
+
+    private static List<EmployeeOrderCounter> toCounters(List<Object[]> rows) {
+        List<EmployeeOrderCounter> counters = new ArrayList<>(rows.size());
+        for (Object[] row : rows) {
+            counters.add(new EmployeeOrderCounter(null, ((Number) row[0]).longValue(), toLocalDate(row[1]), ((Number) row[2]).longValue()));
+        }
+        return counters;
+    }
+
+    private static LocalDate toLocalDate(Object value) {
+        return value instanceof LocalDate localDate ? localDate : ((Date) value).toLocalDate();
+    }
+
+    private record DayKey(Long employeeId, LocalDate day) {
+    }
+}
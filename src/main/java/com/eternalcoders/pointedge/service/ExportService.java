@@ -0,0 +1,248 @@
+package com.eternalcoders.pointedge.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.async.CallableProcessingInterceptor;
+import org.springframework.web.context.request.async.WebAsyncUtils;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import javax.sql.DataSource;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Arrays;
+import java.util.Optional;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Streams orders, order items and order details of a date range as CSV or NDJSON straight from
+ * a forward-only JDBC cursor to the response, so memory use does not grow with the range. Rows
+ * are written in id order; an interrupted export is resumed by passing the last id received
+ * as {@code afterId}. Each export holds one connection for its whole duration, so a semaphore
+ * caps how many run at once and leaves the rest of the pool to the tills.
+ * <p>
+ * On MySQL the statement is switched to Connector/J's row-by-row streaming mode. This is
+ * scoped to the export's statement, unlike {@code useCursorFetch} on the datasource URL, which
+ * would turn on server-side prepared statements for every query of the application.
+ */
+@Slf4j
+@Service
+public class ExportService {
+    // same text form as the JSON API
+    private static final DateTimeFormatter DATE_TIME = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss.SSSSSS");
+    private static final int WRITE_BUFFER_SIZE = 64 * 1024;
+
+    public enum Dataset {
+        ORDERS("orders",
+                "SELECT id, order_date, customer_name, customer_phone, loyalty_points, discount_code, amount, "
+                        + "total_discount, total, employee_id, cashier_name, cash_amount, card_amount, client_sale_id "
+                        + "FROM orders WHERE order_date >= ? AND order_date < ? AND id > ? ORDER BY id"),
+        ORDER_ITEMS("order-items",
+                "SELECT oi.id, oi.order_id, o.order_date, oi.product_id, oi.quantity, oi.price_per_unit "
+                        + "FROM order_item oi JOIN orders o ON oi.order_id = o.id "
+                        + "WHERE o.order_date >= ? AND o.order_date < ? AND oi.id > ? ORDER BY oi.id"),
+        ORDER_DETAILS("order-details",
+                "SELECT id, order_id, customer_id, item_id, discount_id, datetime, amount, total_discount, "
+                        + "item_discount, category_discount, loyalty_discount, loyalty_tier, points_earned "
+                        + "FROM order_details WHERE datetime >= ? AND datetime < ? AND id > ? ORDER BY id");
+
+        private final String path;
+        private final String sql;
+
+        Dataset(String path, String sql) {
+            this.path = path;
+            this.sql = sql;
+        }
+
+        public String getPath() {
+            return path;
+        }
+
+        public static Optional<Dataset> fromPath(String path) {
+            return Arrays.stream(values()).filter(dataset -> dataset.path.equals(path)).findFirst();
+        }
+    }
+
+    public enum Format {
+        CSV,
+        NDJSON
+    }
+
+    private final DataSource dataSource;
+    private final ObjectMapper objectMapper;
+    private final int fetchSize;
+    private final Semaphore permits;
+
+    public ExportService(DataSource dataSource,
+                         ObjectMapper objectMapper,
+                         @Value("${pointedge.export.fetch-size:1000}") int fetchSize,
+                         @Value("${pointedge.export.max-concurrent:1}") int maxConcurrent) {
+        this.dataSource = dataSource;
+        this.objectMapper = objectMapper;
+        this.fetchSize = fetchSize;
+        this.permits = new Semaphore(maxConcurrent);
+    }
+
+    // takes the export slot before the response starts, so a busy server can still answer 503
+    public StreamingResponseBody export(Dataset dataset, Format format, LocalDateTime from, LocalDateTime to, long afterId,
+                                        NativeWebRequest request) {
+        if (!permits.tryAcquire()) {
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Another export is running, please retry");
+        }
+        AtomicBoolean held = new AtomicBoolean(true);
+        Runnable release = () -> {
+            if (held.compareAndSet(true, false)) {
+                permits.release();
+            }
+        };
+        // the body may never run (async timeout before it starts, rejected task), but the async
+        // request always completes
+        WebAsyncUtils.getAsyncManager(request).registerCallableInterceptor(ExportService.class.getName(),
+                new CallableProcessingInterceptor() {
+                    @Override
+                    public <T> void afterCompletion(NativeWebRequest completed, Callable<T> task) {
+                        release.run();
+                    }
+                });
+        return out -> {
+            try {
+                stream(dataset, format, from, to, afterId, out);
+            } finally {
+                release.run();
+            }
+        };
+    }
+
+    private void stream(Dataset dataset, Format format, LocalDateTime from, LocalDateTime to, long afterId,
+                        OutputStream out) throws IOException {
+        long started = System.currentTimeMillis();
+        long rows;
+        try (Connection connection = dataSource.getConnection()) {
+            connection.setReadOnly(true);
+            try (PreparedStatement statement = connection.prepareStatement(
+                    dataset.sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+                // Connector/J reads the whole result into memory unless told to stream it; other drivers
+                // take the fetch size as rows per round trip
+                statement.setFetchSize(isMySql(connection) ? Integer.MIN_VALUE : fetchSize);
+                statement.setObject(1, from);
+                statement.setObject(2, to);
+                statement.setLong(3, afterId);
+                try (ResultSet resultSet = statement.executeQuery()) {
+                    rows = format == Format.CSV ? writeCsv(resultSet, out) : writeNdjson(resultSet, out);
+                }
+            }
+        } catch (SQLException e) {
+            throw new IOException("Export of " + dataset.path + " failed", e);
+        }
+        log.info("Exported {} {} rows as {} in {} ms", rows, dataset.path, format, System.currentTimeMillis() - started);
+    }
+
+    private static boolean isMySql(Connection connection) throws SQLException {
+        return "MySQL".equals(connection.getMetaData().getDatabaseProductName());
+    }
+
+    private long writeCsv(ResultSet resultSet, OutputStream out) throws SQLException, IOException {
+        String[] columns = columns(resultSet);
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), WRITE_BUFFER_SIZE);
+        writer.write(String.join(",", columns));
+        writer.write("\r\n");
+
+        long rows = 0;
+        while (resultSet.next()) {
+            for (int i = 0; i < columns.length; i++) {
+                if (i > 0) {
+                    writer.write(',');
+                }
+                Object value = resultSet.getObject(i + 1);
+                if (value != null) {
+                    writer.write(csvField(text(value)));
+                }
+            }
+            writer.write("\r\n");
+            rows++;
+        }
+        writer.flush();
+        return rows;
+    }
+
+    private long writeNdjson(ResultSet resultSet, OutputStream out) throws SQLException, IOException {
+        String[] columns = columns(resultSet);
+        long rows = 0;
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+            // the response stream is closed by the container, not by the generator
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            while (resultSet.next()) {
+                generator.writeStartObject();
+                for (int i = 0; i < columns.length; i++) {
+                    generator.writeFieldName(columns[i]);
+                    Object value = resultSet.getObject(i + 1);
+                    if (value == null) {
+                        generator.writeNull();
+                    } else if (value instanceof BigDecimal decimal) {
+                        generator.writeNumber(decimal);
+                    } else if (value instanceof Double || value instanceof Float) {
+                        generator.writeNumber(((Number) value).doubleValue());
+                    } else if (value instanceof Number number) {
+                        generator.writeNumber(number.longValue());
+                    } else if (value instanceof Boolean bool) {
+                        generator.writeBoolean(bool);
+                    } else {
+                        generator.writeString(text(value));
+                    }
+                }
+                generator.writeEndObject();
+                generator.writeRaw('\n');
+                rows++;
+            }
+        }
+        return rows;
+    }
+
+    private static String[] columns(ResultSet resultSet) throws SQLException {
+        ResultSetMetaData metaData = resultSet.getMetaData();
+        String[] columns = new String[metaData.getColumnCount()];
+        for (int i = 0; i < columns.length; i++) {
+            columns[i] = metaData.getColumnLabel(i + 1);
+        }
+        return columns;
+    }
+
+    private static String text(Object value) {
+        if (value instanceof LocalDateTime dateTime) {
+            return DATE_TIME.format(dateTime);
+        }
+        if (value instanceof java.sql.Timestamp timestamp) {
+            return DATE_TIME.format(timestamp.toLocalDateTime());
+        }
+        if (value instanceof BigDecimal decimal) {
+            return decimal.toPlainString();
+        }
+        return value.toString();
+    }
+
+    private static String csvField(String value) {
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+}
@@ -17,10 +17,12 @@ import java.util.UUID;
 @Service
 public class ImageService {
     private final ProductRepository productRepository;
+    private final ProductCatalogCache productCatalogCache;
     private final String UPLOAD_DIR = "uploads/products/";
 
-    public ImageService(ProductRepository productRepository) {
+    public ImageService(ProductRepository productRepository, ProductCatalogCache productCatalogCache) {
         this.productRepository = productRepository;
+        this.productCatalogCache = productCatalogCache;
     }
 
     public Resource getProductImage(String filename) throws IOException {
@@ -62,6 +64,7 @@ public class ImageService {
 
             product.setImageName(newFileName);
             productRepository.save(product);
+            productCatalogCache.evict(productId);
             return true;
         }
         return false;
@@ -76,6 +79,7 @@ public class ImageService {
             }
             product.setImageName(null);
             productRepository.save(product);
+            productCatalogCache.evict(productId);
             return true;
         }
         return false;
@@ -0,0 +1,9 @@
+package com.eternalcoders.pointedge.service;
+
+/**
+ * Hands out invoice numbers. The active implementation is chosen with
+ * {@code pointedge.invoice-numbers.strategy} (see {@code InvoiceNumberConfig}).
+ */
+public interface InvoiceNumberAllocator {
+    String nextInvoiceNumber();
+}
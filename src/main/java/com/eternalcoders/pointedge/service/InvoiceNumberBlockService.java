@@ -0,0 +1,31 @@
+package com.eternalcoders.pointedge.service;
+
+import com.eternalcoders.pointedge.entity.InvoiceNumberBlock;
+import com.eternalcoders.pointedge.repository.InvoiceNumberBlockRepository;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+@Service
+public class InvoiceNumberBlockService {
+    private final InvoiceNumberBlockRepository invoiceNumberBlockRepository;
+
+    public InvoiceNumberBlockService(InvoiceNumberBlockRepository invoiceNumberBlockRepository) {
+        this.invoiceNumberBlockRepository = invoiceNumberBlockRepository;
+    }
+
+    /**
+     * Reserves a block in its own short transaction so the counter row is never locked for the
+     * duration of a checkout. The row is created with an idempotent insert before it is locked:
+     * two nodes locking a missing row and then both inserting it would deadlock on InnoDB.
+     */
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public long reserveBlock(String prefix, int size) {
+        invoiceNumberBlockRepository.insertIfMissing(prefix);
+        InvoiceNumberBlock block = invoiceNumberBlockRepository.findByPrefixForUpdate(prefix)
+                .orElseThrow(() -> new IllegalStateException("Invoice number counter " + prefix + " is missing"));
+        long start = block.getNextValue();
+        block.setNextValue(start + size);
+        return start;
+    }
+}
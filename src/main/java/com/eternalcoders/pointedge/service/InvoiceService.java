@@ -7,9 +7,11 @@ import com.eternalcoders.pointedge.repository.InvoiceRepository;
 import jakarta.transaction.Transactional;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.util.Assert;
 
+import java.util.ArrayList;
 import java.util.List;
-import java.util.UUID;
 import java.time.LocalDateTime;
 
 @Service
@@ -18,12 +20,45 @@ public class InvoiceService {
     @Autowired
     private InvoiceRepository invoiceRepository;
 
+    @Autowired
+    private InvoiceNumberAllocator invoiceNumberAllocator;
+
+    /**
+     * Takes {@code count} invoice numbers (e.g. INV-S01-0000001234). Refilling a block of numbers
+     * needs a connection of its own, so call this before the request opens a transaction or
+     * otherwise touches the database: a caller already holding a connection could wait for the
+     * refill while the callers queued behind it hold every other connection. Numbers that end up
+     * unused are skipped.
+     */
+    public List<String> reserveInvoiceNumbers(int count) {
+        Assert.state(!TransactionSynchronizationManager.isActualTransactionActive(),
+                "Invoice numbers must be reserved before the transaction that uses them");
+        List<String> numbers = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            numbers.add(invoiceNumberAllocator.nextInvoiceNumber());
+        }
+        return numbers;
+    }
+
     @Transactional
-    public Invoice createInvoiceFromOrder(Order order) {
+    public Invoice createInvoiceFromOrder(Order order, String invoiceNumber) {
+        return invoiceRepository.save(buildInvoice(order, invoiceNumber));
+    }
+
+    // invoiceNumbers holds at least one number per order, as taken by reserveInvoiceNumbers
+    @Transactional
+    public List<Invoice> createInvoicesFromOrders(List<Order> orders, List<String> invoiceNumbers) {
+        List<Invoice> invoices = new ArrayList<>(orders.size());
+        for (int i = 0; i < orders.size(); i++) {
+            invoices.add(buildInvoice(orders.get(i), invoiceNumbers.get(i)));
+        }
+        return invoiceRepository.saveAll(invoices);
+    }
+
+    private Invoice buildInvoice(Order order, String invoiceNumber) {
         Invoice invoice = new Invoice();
 
-        // Generate Invoice Number (Example: INV-UUID)
-        invoice.setInvoiceNumber("INV-" + UUID.randomUUID().toString().substring(0, 8));
+        invoice.setInvoiceNumber(invoiceNumber);
         invoice.setDate(LocalDateTime.now());
         invoice.setTotalAmount(order.getTotal());
         invoice.setLoyaltyPoints(order.getLoyaltyPoints());
@@ -41,6 +76,6 @@ public class InvoiceService {
         }).toList();
 
         invoice.setItems(invoiceItems);
-        return invoiceRepository.save(invoice);
+        return invoice;
     }
 }
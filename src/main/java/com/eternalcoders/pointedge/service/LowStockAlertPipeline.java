@@ -0,0 +1,94 @@
+package com.eternalcoders.pointedge.service;
+
+import com.eternalcoders.pointedge.event.StockLevelChangedEvent;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Turns committed stock changes into "only N left" / "sold out" notifications off the checkout
+ * thread. Events for the same product are coalesced (latest stock level wins) and at most one
+ * low-stock alert per product is written per window; a sold-out alert is never held back by a
+ * previous low-stock alert. Pending alerts are written in one batch per flush.
+ */
+@Slf4j
+@Component
+public class LowStockAlertPipeline {
+    private final NotificationService notificationService;
+    private final Duration window;
+
+    private final Map<Long, StockLevelChangedEvent> pending = new ConcurrentHashMap<>();
+    private final Map<Long, Alert> lastAlerts = new ConcurrentHashMap<>();
+
+    public LowStockAlertPipeline(NotificationService notificationService,
+                                 @Value("${pointedge.low-stock-alerts.window:PT1M}") Duration window) {
+        this.notificationService = notificationService;
+        this.window = window;
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onStockLevelChanged(StockLevelChangedEvent event) {
+        if (event.getRemainingQuantity() < event.getMinimumQuantity() || event.getRemainingQuantity() == 0) {
+            pending.put(event.getProductId(), event);
+        } else {
+            pending.remove(event.getProductId());
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${pointedge.low-stock-alerts.flush-interval-ms:5000}")
+    public void flush() {
+        long now = System.currentTimeMillis();
+        Map<Long, String> batch = new LinkedHashMap<>();
+
+        for (Long productId : pending.keySet()) {
+            StockLevelChangedEvent event = pending.get(productId);
+            if (event == null) {
+                continue;
+            }
+            boolean soldOut = event.getRemainingQuantity() == 0;
+            Alert last = lastAlerts.get(productId);
+            boolean withinWindow = last != null && now - last.sentAt() < window.toMillis();
+            if (withinWindow && (last.soldOut() || !soldOut)) {
+                // keep the latest level pending until the window for this product has passed
+                continue;
+            }
+            if (!pending.remove(productId, event)) {
+                continue;
+            }
+
+            batch.put(productId, soldOut
+                    ? event.getProductName() + " is sold out."
+                    : "There are only " + event.getRemainingQuantity()
+                    + " items of " + event.getProductName() + " in stock.");
+            lastAlerts.put(productId, new Alert(now, soldOut));
+        }
+
+        if (!batch.isEmpty()) {
+            try {
+                notificationService.createNotifications(batch);
+            } catch (RuntimeException e) {
+                log.error("Failed to write {} low stock notifications", batch.size(), e);
+            }
+        }
+
+        lastAlerts.values().removeIf(alert -> now - alert.sentAt() >= window.toMillis());
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        lastAlerts.clear();
+        flush();
+    }
+
+    private record Alert(long sentAt, boolean soldOut) {
+    }
+}
@@ -0,0 +1,81 @@
+package com.eternalcoders.pointedge.service;
+
+import com.eternalcoders.pointedge.entity.LoyaltyThresholds;
+import com.eternalcoders.pointedge.event.LoyaltyThresholdsChangedEvent;
+import com.eternalcoders.pointedge.repository.CustomerRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Holds the loyalty thresholds (row id 1) in memory. The row changes a few times a year, so it
+ * is re-read right after a local update commits and otherwise only on a slow timer that picks up
+ * updates made on other nodes; the new snapshot replaces the old one atomically and in-flight
+ * requests keep the snapshot they started with. A re-read that finds the same values keeps the
+ * current snapshot and its version.
+ */
+@Slf4j
+@Component
+public class LoyaltyThresholdsCache {
+    private final CustomerRepository customerRepository;
+
+    private volatile LoyaltyThresholdsSnapshot snapshot;
+    private long version;
+
+    public LoyaltyThresholdsCache(CustomerRepository customerRepository) {
+        this.customerRepository = customerRepository;
+    }
+
+    public LoyaltyThresholdsSnapshot current() {
+        LoyaltyThresholdsSnapshot current = snapshot;
+        return current != null ? current : reload();
+    }
+
+    // ahead of the other listeners, so they already see the new snapshot
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onThresholdsChanged(LoyaltyThresholdsChangedEvent event) {
+        reload();
+    }
+
+    @Scheduled(fixedDelayString = "${pointedge.loyalty-thresholds.refresh-interval-ms:30000}")
+    public void refresh() {
+        if (snapshot == null) {
+            return;
+        }
+        try {
+            reload();
+        } catch (RuntimeException e) {
+            log.warn("Failed to re-read the loyalty thresholds, keeping version {}: {}", snapshot.version(), e.getMessage());
+        }
+    }
+
+    public synchronized LoyaltyThresholdsSnapshot reload() {
+        LoyaltyThresholds thresholds = customerRepository.findLoyaltyThresholds()
+                .orElseThrow(() -> new RuntimeException("Loyalty thresholds not found"));
+        if (sameValues(snapshot, thresholds)) {
+            return snapshot;
+        }
+        snapshot = new LoyaltyThresholdsSnapshot(
+                ++version,
+                thresholds.getGold(),
+                thresholds.getSilver(),
+                thresholds.getBronze(),
+                thresholds.getPoints()
+        );
+        log.info("Loyalty thresholds loaded (version {})", version);
+        return snapshot;
+    }
+
+    private static boolean sameValues(LoyaltyThresholdsSnapshot current, LoyaltyThresholds thresholds) {
+        return current != null
+                && current.gold() == thresholds.getGold()
+                && current.silver() == thresholds.getSilver()
+                && current.bronze() == thresholds.getBronze()
+                && current.points() == thresholds.getPoints();
+    }
+}
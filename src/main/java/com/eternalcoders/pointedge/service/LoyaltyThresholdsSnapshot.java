@@ -0,0 +1,32 @@
+package com.eternalcoders.pointedge.service;
+
+import com.eternalcoders.pointedge.dto.LoyaltyThresholdsDTO;
+import com.eternalcoders.pointedge.entity.Customer.Tier;
+
+/**
+ * Immutable copy of the loyalty thresholds row. {@code version} increases every time a new
+ * copy is loaded, so two readers can tell whether they priced against the same settings.
+ */
+public record LoyaltyThresholdsSnapshot(long version, double gold, double silver, double bronze, double points) {
+
+    // same boundaries as CustomerRepository.updateTiersInRange
+    public Tier tierFor(double customerPoints) {
+        if (customerPoints >= gold) {
+            return Tier.GOLD;
+        } else if (customerPoints >= silver) {
+            return Tier.SILVER;
+        } else if (customerPoints >= bronze) {
+            return Tier.BRONZE;
+        }
+        return Tier.NOTLOYALTY;
+    }
+
+    public LoyaltyThresholdsDTO toDTO() {
+        LoyaltyThresholdsDTO dto = new LoyaltyThresholdsDTO();
+        dto.setGold(gold);
+        dto.setSilver(silver);
+        dto.setBronze(bronze);
+        dto.setPoints(points);
+        return dto;
+    }
+}
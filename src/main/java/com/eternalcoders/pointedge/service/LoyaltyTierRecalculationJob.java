@@ -0,0 +1,257 @@
+package com.eternalcoders.pointedge.service;
+
+import com.eternalcoders.pointedge.dto.TierRecalculationStatusDTO;
+import com.eternalcoders.pointedge.dto.TierRecalculationStatusDTO.State;
+import com.eternalcoders.pointedge.entity.Customer.Tier;
+import com.eternalcoders.pointedge.event.LoyaltyThresholdsChangedEvent;
+import com.eternalcoders.pointedge.repository.CustomerRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Re-derives every customer's loyalty tier from the current thresholds in the background. The
+ * customers table is walked in id order, one chunk per short transaction, and only rows whose
+ * tier actually changes are written, so tills updating points never wait behind a table-wide
+ * UPDATE. Cached customers of a chunk take the tiers the chunk committed, so the cache never
+ * runs ahead of the table. A run can be paused and resumed from the last committed chunk; a
+ * threshold change during a run supersedes it and starts over with the new thresholds.
+ */
+@Slf4j
+@Component
+public class LoyaltyTierRecalculationJob {
+    private final CustomerRepository customerRepository;
+    private final CustomerCache customerCache;
+    private final LoyaltyThresholdsCache loyaltyThresholdsCache;
+    private final TransactionTemplate transactionTemplate;
+    private final int chunkSize;
+    private final Duration pauseBetweenChunks;
+
+    // chunks of two runs never interleave, so a superseded run cannot undo a newer one
+    private final Object chunkLock = new Object();
+
+    private volatile Run run;
+
+    public LoyaltyTierRecalculationJob(CustomerRepository customerRepository,
+                                       CustomerCache customerCache,
+                                       LoyaltyThresholdsCache loyaltyThresholdsCache,
+                                       TransactionTemplate transactionTemplate,
+                                       @Value("${pointedge.tier-recalculation.chunk-size:500}") int chunkSize,
+                                       @Value("${pointedge.tier-recalculation.pause-between-chunks:PT0.05S}") Duration pauseBetweenChunks) {
+        this.customerRepository = customerRepository;
+        this.customerCache = customerCache;
+        this.loyaltyThresholdsCache = loyaltyThresholdsCache;
+        this.transactionTemplate = transactionTemplate;
+        this.chunkSize = chunkSize;
+        this.pauseBetweenChunks = pauseBetweenChunks;
+    }
+
+    // runs after LoyaltyThresholdsCache has swapped in the new snapshot
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onThresholdsChanged(LoyaltyThresholdsChangedEvent event) {
+        start();
+    }
+
+    public synchronized TierRecalculationStatusDTO start() {
+        Run previous = run;
+        if (previous != null) {
+            cancel(previous);
+        }
+
+        LoyaltyThresholdsSnapshot thresholds = loyaltyThresholdsCache.current();
+        Run next = new Run(thresholds, customerRepository.countCustomers());
+        run = next;
+        launch(next);
+        log.info("Tier recalculation started for {} customers (thresholds version {})", next.total, thresholds.version());
+        return next.status();
+    }
+
+    public synchronized TierRecalculationStatusDTO pause() {
+        Run current = run;
+        if (current != null && current.state == State.RUNNING) {
+            current.pauseRequested = true;
+        }
+        return getStatus();
+    }
+
+    public synchronized TierRecalculationStatusDTO resume() {
+        Run current = run;
+        if (current == null) {
+            return getStatus();
+        }
+        if (current.thresholds.version() != loyaltyThresholdsCache.current().version()) {
+            // the thresholds changed while the run was stopped, its remaining chunks are stale
+            return start();
+        }
+        if (current.state == State.RUNNING) {
+            current.pauseRequested = false;
+        } else if (current.state == State.PAUSED || current.state == State.FAILED) {
+            launch(current);
+        }
+        return current.status();
+    }
+
+    public TierRecalculationStatusDTO getStatus() {
+        Run current = run;
+        if (current == null) {
+            return new TierRecalculationStatusDTO(State.IDLE, 0, 0, 0, 0, 0, 0, null, null, null);
+        }
+        return current.status();
+    }
+
+    private void cancel(Run previous) {
+        if (previous.state == State.RUNNING) {
+            previous.cancelled = true;
+        } else if (previous.state == State.PAUSED || previous.state == State.FAILED) {
+            previous.finish(State.CANCELLED, "Superseded by a newer recalculation");
+        }
+    }
+
+    private void launch(Run current) {
+        current.state = State.RUNNING;
+        current.message = null;
+        Thread.ofPlatform()
+                .name("tier-recalculation")
+                .daemon()
+                .start(() -> execute(current));
+    }
+
+    private void execute(Run current) {
+        try {
+            while (true) {
+                synchronized (this) {
+                    if (current.cancelled) {
+                        current.finish(State.CANCELLED, "Superseded by a newer recalculation");
+                        return;
+                    }
+                    if (current.pauseRequested) {
+                        current.pauseRequested = false;
+                        current.state = State.PAUSED;
+                        current.message = "Paused after customer id " + current.lastCustomerId;
+                        return;
+                    }
+                }
+
+                boolean more;
+                synchronized (chunkLock) {
+                    more = current.cancelled || processChunk(current);
+                }
+                if (!more) {
+                    synchronized (this) {
+                        current.finish(State.COMPLETED, null);
+                    }
+                    log.info("Tier recalculation finished: {} customers checked, {} re-tiered",
+                            current.processed, current.changed);
+                    return;
+                }
+
+                Thread.sleep(pauseBetweenChunks.toMillis());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            synchronized (this) {
+                current.state = State.FAILED;
+                current.message = "Interrupted after customer id " + current.lastCustomerId;
+            }
+        } catch (RuntimeException e) {
+            log.error("Tier recalculation failed after customer id {}, resume to continue", current.lastCustomerId, e);
+            synchronized (this) {
+                current.state = State.FAILED;
+                current.message = "Failed after customer id " + current.lastCustomerId + ": " + e.getMessage();
+            }
+        }
+    }
+
+    // false once every customer has been checked
+    private boolean processChunk(Run current) {
+        long afterId = current.lastCustomerId;
+        LoyaltyThresholdsSnapshot thresholds = current.thresholds;
+
+        Chunk chunk = transactionTemplate.execute(status -> {
+            List<Long> ids = customerRepository.findIdsAfter(afterId, PageRequest.of(0, chunkSize));
+            if (ids.isEmpty()) {
+                return null;
+            }
+            long lastId = ids.get(ids.size() - 1);
+            int changed = customerRepository.updateTiersInRange(
+                    afterId, lastId, thresholds.gold(), thresholds.silver(), thresholds.bronze());
+
+            Map<String, Tier> tiers = new HashMap<>();
+            if (changed > 0) {
+                for (Object[] row : customerRepository.findPhonesAndTiersInRange(afterId, lastId)) {
+                    if (row[0] != null && row[1] != null) {
+                        tiers.put((String) row[0], (Tier) row[1]);
+                    }
+                }
+            }
+            return new Chunk(lastId, ids.size(), changed, tiers);
+        });
+        if (chunk == null) {
+            return false;
+        }
+
+        // only now that the chunk is committed, so checkout never compares against a tier the table lacks
+        if (!chunk.tiers().isEmpty()) {
+            customerCache.updateTiers(chunk.tiers());
+        }
+
+        current.lastCustomerId = chunk.lastId();
+        current.processed += chunk.size();
+        current.changed += chunk.changed();
+        return true;
+    }
+
+    private record Chunk(long lastId, int size, int changed, Map<String, Tier> tiers) {
+    }
+
+    private static final class Run {
+        private final LoyaltyThresholdsSnapshot thresholds;
+        private final long total;
+        private final LocalDateTime startedAt = LocalDateTime.now();
+
+        private volatile State state = State.RUNNING;
+        private volatile long lastCustomerId;
+        private volatile long processed;
+        private volatile long changed;
+        private volatile LocalDateTime finishedAt;
+        private volatile String message;
+        private volatile boolean pauseRequested;
+        private volatile boolean cancelled;
+
+        private Run(LoyaltyThresholdsSnapshot thresholds, long total) {
+            this.thresholds = thresholds;
+            this.total = total;
+        }
+
+        private void finish(State finalState, String finalMessage) {
+            state = finalState;
+            message = finalMessage;
+            finishedAt = LocalDateTime.now();
+        }
+
+        private TierRecalculationStatusDTO status() {
+            return new TierRecalculationStatusDTO(
+                    state,
+                    thresholds.version(),
+                    lastCustomerId,
+                    processed,
+                    changed,
+                    total,
+                    total == 0 ? 1.0 : Math.min(1.0, (double) processed / total),
+                    startedAt,
+                    finishedAt,
+                    message
+            );
+        }
+    }
+}
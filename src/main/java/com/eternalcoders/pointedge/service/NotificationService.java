@@ -3,17 +3,22 @@ package com.eternalcoders.pointedge.service;
 import com.eternalcoders.pointedge.entity.Notification;
 import com.eternalcoders.pointedge.entity.Product;
 import com.eternalcoders.pointedge.repository.NotificationRepository;
+import com.eternalcoders.pointedge.repository.ProductRepository;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 
 @Service
 public class NotificationService {
     private final NotificationRepository notificationRepository;
+    private final ProductRepository productRepository;
 
-    public NotificationService(NotificationRepository notificationRepository) {
+    public NotificationService(NotificationRepository notificationRepository, ProductRepository productRepository) {
         this.notificationRepository = notificationRepository;
+        this.productRepository = productRepository;
     }
 
     @Transactional
@@ -24,6 +29,18 @@ public class NotificationService {
         notificationRepository.save(n);
     }
 
+    @Transactional
+    public void createNotifications(Map<Long, String> messagesByProductId) {
+        List<Notification> notifications = new ArrayList<>();
+        for (Map.Entry<Long, String> entry : messagesByProductId.entrySet()) {
+            Notification n = new Notification();
+            n.setProduct(productRepository.getReferenceById(entry.getKey()));
+            n.setMessage(entry.getValue());
+            notifications.add(n);
+        }
+        notificationRepository.saveAll(notifications);
+    }
+
     @Transactional(readOnly = true)
     public List<Notification> getAllNotifications() {
         return notificationRepository.findAll();
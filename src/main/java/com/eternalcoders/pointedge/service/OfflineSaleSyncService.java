@@ -0,0 +1,219 @@
+package com.eternalcoders.pointedge.service;
+
+import com.eternalcoders.pointedge.dto.OfflineSaleResultDTO;
+import com.eternalcoders.pointedge.dto.OfflineSaleResultDTO.Status;
+import com.eternalcoders.pointedge.dto.OrderRequestDTO;
+import com.eternalcoders.pointedge.entity.Invoice;
+import com.eternalcoders.pointedge.entity.Order;
+import com.eternalcoders.pointedge.entity.Product;
+import com.eternalcoders.pointedge.repository.OrderRepository;
+import com.eternalcoders.pointedge.repository.ProductRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Replays sales that tills queued while offline. Sales are processed in chunks, each in one
+ * transaction that locks the chunk's products once, allocates stock to sales in submission order,
+ * decrements stock with a single statement and saves orders and invoices in batches. A semaphore
+ * caps how many syncs run at once, so a reconnect storm queues here instead of in the pool.
+ */
+@Slf4j
+@Service
+public class OfflineSaleSyncService {
+    private static final int CHUNK_ATTEMPTS = 3;
+
+    private final OrderService orderService;
+    private final InvoiceService invoiceService;
+    private final OrderRepository orderRepository;
+    private final ProductRepository productRepository;
+    private final ProductCatalogCache productCatalogCache;
+    private final TransactionTemplate transactionTemplate;
+    private final Semaphore permits;
+    private final int chunkSize;
+
+    public OfflineSaleSyncService(OrderService orderService,
+                                  InvoiceService invoiceService,
+                                  OrderRepository orderRepository,
+                                  ProductRepository productRepository,
+                                  ProductCatalogCache productCatalogCache,
+                                  TransactionTemplate transactionTemplate,
+                                  @Value("${pointedge.offline-sync.max-concurrent:2}") int maxConcurrent,
+                                  @Value("${pointedge.offline-sync.chunk-size:100}") int chunkSize) {
+        this.orderService = orderService;
+        this.invoiceService = invoiceService;
+        this.orderRepository = orderRepository;
+        this.productRepository = productRepository;
+        this.productCatalogCache = productCatalogCache;
+        this.transactionTemplate = transactionTemplate;
+        this.permits = new Semaphore(maxConcurrent, true);
+        this.chunkSize = chunkSize;
+    }
+
+    // results are keyed by request identity: OrderRequestDTO equality is by value
+    public List<OfflineSaleResultDTO> syncSales(List<OrderRequestDTO> sales) {
+        boolean acquired;
+        try {
+            acquired = permits.tryAcquire(30, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            acquired = false;
+        }
+        if (!acquired) {
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Offline sync is busy, please retry");
+        }
+
+        try {
+            Map<OrderRequestDTO, OfflineSaleResultDTO> results = new IdentityHashMap<>();
+            List<OrderRequestDTO> unique = new ArrayList<>();
+            Set<String> seen = new HashSet<>();
+            for (OrderRequestDTO sale : sales) {
+                if (sale.getClientSaleId() == null || sale.getClientSaleId().isBlank()) {
+                    results.put(sale, new OfflineSaleResultDTO(null, Status.REJECTED, null, null, "Missing client sale id"));
+                } else if (!seen.add(sale.getClientSaleId())) {
+                    results.put(sale, new OfflineSaleResultDTO(sale.getClientSaleId(), Status.DUPLICATE, null, null, "Repeated in this batch"));
+                } else {
+                    unique.add(sale);
+                }
+            }
+
+            // before the first chunk touches the database, see InvoiceService.reserveInvoiceNumbers;
+            // numbers of duplicate or rejected sales are skipped
+            List<String> invoiceNumbers = invoiceService.reserveInvoiceNumbers(unique.size());
+            for (int from = 0; from < unique.size(); from += chunkSize) {
+                int to = Math.min(from + chunkSize, unique.size());
+                results.putAll(syncChunkWithRetry(unique.subList(from, to), invoiceNumbers.subList(from, to)));
+            }
+
+            List<OfflineSaleResultDTO> ordered = new ArrayList<>(sales.size());
+            for (OrderRequestDTO sale : sales) {
+                ordered.add(results.get(sale));
+            }
+            return ordered;
+        } finally {
+            permits.release();
+        }
+    }
+
+    /**
+     * Another node syncing the same client sale ids at the same time makes the chunk fail on the
+     * unique constraint and roll back. The chunk is then retried: sales recorded by the other
+     * node in the meantime come back as duplicates and the rest are recorded. Earlier chunks have
+     * already committed, so a chunk that keeps failing is reported as rejected rather than
+     * failing the whole request.
+     */
+    private Map<OrderRequestDTO, OfflineSaleResultDTO> syncChunkWithRetry(List<OrderRequestDTO> chunk, List<String> invoiceNumbers) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return transactionTemplate.execute(status -> syncChunk(chunk, invoiceNumbers));
+            } catch (DataIntegrityViolationException e) {
+                if (attempt >= CHUNK_ATTEMPTS) {
+                    log.warn("Offline sale chunk still conflicting after {} attempts, rejecting {} sales", attempt, chunk.size(), e);
+                    Map<OrderRequestDTO, OfflineSaleResultDTO> results = new IdentityHashMap<>();
+                    for (OrderRequestDTO sale : chunk) {
+                        results.put(sale, new OfflineSaleResultDTO(
+                                sale.getClientSaleId(), Status.REJECTED, null, null, "Conflicted with a concurrent sync, please retry"));
+                    }
+                    return results;
+                }
+                log.info("Offline sale chunk conflicted with a concurrent sync, retrying (attempt {})", attempt);
+            }
+        }
+    }
+
+    private Map<OrderRequestDTO, OfflineSaleResultDTO> syncChunk(List<OrderRequestDTO> chunk, List<String> invoiceNumbers) {
+        Map<OrderRequestDTO, OfflineSaleResultDTO> results = new IdentityHashMap<>();
+
+        Map<String, Long> existing = new HashMap<>();
+        for (Object[] row : orderRepository.findOrderIdsByClientSaleIds(
+                chunk.stream().map(OrderRequestDTO::getClientSaleId).toList())) {
+            existing.put((String) row[0], (Long) row[1]);
+        }
+
+        List<OrderRequestDTO> pending = new ArrayList<>();
+        for (OrderRequestDTO sale : chunk) {
+            Long orderId = existing.get(sale.getClientSaleId());
+            if (orderId != null) {
+                results.put(sale, new OfflineSaleResultDTO(sale.getClientSaleId(), Status.DUPLICATE, orderId, null, "Already recorded"));
+            } else {
+                pending.add(sale);
+            }
+        }
+        if (pending.isEmpty()) {
+            return results;
+        }
+
+        Map<Long, Product> products = new HashMap<>();
+        for (Product product : productRepository.findAllByIdForUpdate(orderService.aggregateQuantities(pending).keySet())) {
+            products.put(product.getId(), product);
+        }
+
+        // allocate stock to sales in the order the till recorded them
+        Map<Long, Long> available = new HashMap<>();
+        products.forEach((id, product) -> available.put(id, product.getStockQuantity()));
+        List<OrderRequestDTO> accepted = new ArrayList<>();
+        for (OrderRequestDTO sale : pending) {
+            Map<Long, Long> quantities = orderService.aggregateQuantities(List.of(sale));
+            String problem = null;
+            for (Map.Entry<Long, Long> entry : quantities.entrySet()) {
+                Product product = products.get(entry.getKey());
+                if (product == null) {
+                    problem = "Product not found with ID: " + entry.getKey();
+                    break;
+                }
+                if (available.get(entry.getKey()) < entry.getValue()) {
+                    problem = "Cannot order " + entry.getValue() + " of product " + product.getName()
+                            + " (only " + available.get(entry.getKey()) + " left)";
+                    break;
+                }
+            }
+            if (problem != null) {
+                results.put(sale, new OfflineSaleResultDTO(sale.getClientSaleId(), Status.REJECTED, null, null, problem));
+                continue;
+            }
+            quantities.forEach((id, quantity) -> available.merge(id, -quantity, Long::sum));
+            accepted.add(sale);
+        }
+        if (accepted.isEmpty()) {
+            return results;
+        }
+
+        Map<Long, Long> reserved = orderService.aggregateQuantities(accepted);
+        int updated = productRepository.reserveStock(reserved);
+        if (updated != reserved.size()) {
+            throw new IllegalStateException("Stock changed while syncing offline sales");
+        }
+        reserved.keySet().forEach(productCatalogCache::evict);
+        orderService.publishStockLevels(reserved, products);
+
+        List<Order> orders = new ArrayList<>(accepted.size());
+        for (OrderRequestDTO sale : accepted) {
+            orders.add(orderService.buildOrder(sale, products));
+        }
+        List<Order> savedOrders = orderRepository.saveAll(orders);
+        List<Invoice> invoices = invoiceService.createInvoicesFromOrders(savedOrders, invoiceNumbers);
+        savedOrders.forEach(orderService::publishOrderRecorded);
+
+        for (int i = 0; i < accepted.size(); i++) {
+            OrderRequestDTO sale = accepted.get(i);
+            results.put(sale, new OfflineSaleResultDTO(
+                    sale.getClientSaleId(), Status.CREATED, savedOrders.get(i).getId(), invoices.get(i).getInvoiceNumber(), null));
+        }
+        log.info("Synced {} offline sales ({} rejected or duplicate)", accepted.size(), chunk.size() - accepted.size());
+        return results;
+    }
+}
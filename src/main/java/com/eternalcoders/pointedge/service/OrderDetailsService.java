@@ -7,15 +7,17 @@ import com.eternalcoders.pointedge.repository.DiscountRepository;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.Optional;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
 
 @Service
 public class OrderDetailsService {
+    // dashboard windows, narrowest first
+    private static final String[] PERIODS = {"last24Hours", "last7Days", "last30Days", "lastYear"};
 
     @Autowired
     private OrderDetailsRepository orderDetailsRepository;
@@ -30,54 +32,26 @@ public class OrderDetailsService {
     public Map<String, Long> getOrderCounts() {
         LocalDateTime now = LocalDateTime.now();
         Map<String, Long> orderCounts = new HashMap<>();
-        
-        // Last 24 hours
-        orderCounts.put("last24Hours", 
-            orderDetailsRepository.countTotalOrdersInDateRange(now.minusHours(24), now));
-        
-        // Last 7 days
-        orderCounts.put("last7Days", 
-            orderDetailsRepository.countTotalOrdersInDateRange(now.minusDays(7), now));
-        
-        // Last 30 days
-        orderCounts.put("last30Days", 
-            orderDetailsRepository.countTotalOrdersInDateRange(now.minusDays(30), now));
-        
-        // Last year
-        orderCounts.put("lastYear", 
-            orderDetailsRepository.countTotalOrdersInDateRange(now.minusYears(1), now));
-        
+        Object[] counts = orderDetailsRepository.countOrdersByWindow(
+                now.minusHours(24), now.minusDays(7), now.minusDays(30), now.minusYears(1), now).get(0);
+        for (int i = 0; i < PERIODS.length; i++) {
+            orderCounts.put(PERIODS[i], WindowTotals.count(counts[i]));
+        }
         return orderCounts;
     }
     
     // count discounts by time range
     public Map<String, Map<String, Long>> getDiscountCountsByType() {
-        LocalDateTime now = LocalDateTime.now();
         Map<String, Map<String, Long>> result = new HashMap<>();
-        
-        Map<String, LocalDateTime> timePeriods = new HashMap<>();
-        timePeriods.put("last24Hours", now.minusHours(24));
-        timePeriods.put("last7Days", now.minusDays(7));
-        timePeriods.put("last30Days", now.minusDays(30));
-        timePeriods.put("lastYear", now.minusYears(1));
-        
         Map<String, Long> itemDiscountCounts = new HashMap<>();
         Map<String, Long> categoryDiscountCounts = new HashMap<>();
         Map<String, Long> loyaltyDiscountCounts = new HashMap<>();
         
-        for (Map.Entry<String, LocalDateTime> period : timePeriods.entrySet()) {
-            String periodName = period.getKey();
-            LocalDateTime startDate = period.getValue();
-            
-            itemDiscountCounts.put(periodName, 
-                orderDetailsRepository.countOrdersWithItemDiscountInDateRange(startDate, now));
-            
-            categoryDiscountCounts.put(periodName, 
-                orderDetailsRepository.countOrdersWithCategoryDiscountInDateRange(startDate, now));
-            
-            loyaltyDiscountCounts.put(periodName, 
-                orderDetailsRepository.countOrdersWithLoyaltyDiscountInDateRange(startDate, now));
-        }
+        windowTotals().forEach((period, totals) -> {
+            itemDiscountCounts.put(period, totals.itemDiscountCount());
+            categoryDiscountCounts.put(period, totals.categoryDiscountCount());
+            loyaltyDiscountCounts.put(period, totals.loyaltyDiscountCount());
+        });
         
         result.put("ITEM", itemDiscountCounts);
         result.put("CATEGORY", categoryDiscountCounts);
@@ -231,15 +205,10 @@ public class OrderDetailsService {
                 if (count >= 3) break;
                 
                 Long itemId = (Long) item[0];
-                Double amount = ((Number) item[1]).doubleValue();
-                Double discount = ((Number) item[2]).doubleValue();
-                Long itemCount = ((Number) item[3]).longValue();
-                
-                String itemName = "Unknown"; 
-                Optional<String> nameOpt = orderDetailsRepository.findNameById(itemId);
-                if (nameOpt.isPresent()) {
-                    itemName = nameOpt.get();
-                }
+                String itemName = item[1] != null ? (String) item[1] : "Unknown";
+                Double amount = ((Number) item[2]).doubleValue();
+                Double discount = ((Number) item[3]).doubleValue();
+                Long itemCount = ((Number) item[4]).longValue();
                 
                 totalAmount += amount;
                 totalDiscount += discount;
@@ -293,15 +262,10 @@ public class OrderDetailsService {
                 if (count >= 3) break;
                 
                 Long categoryId = (Long) category[0];
-                Double amount = ((Number) category[1]).doubleValue();
-                Double discount = ((Number) category[2]).doubleValue();
-                Long categoryCount = ((Number) category[3]).longValue();
-               
-                String categoryName = "Unknown";
-                Optional<String> nameOpt = orderDetailsRepository.findCategoryNameById(categoryId);
-                if (nameOpt.isPresent()) {
-                    categoryName = nameOpt.get();
-                }
+                String categoryName = category[1] != null ? (String) category[1] : "Unknown";
+                Double amount = ((Number) category[2]).doubleValue();
+                Double discount = ((Number) category[3]).doubleValue();
+                Long categoryCount = ((Number) category[4]).longValue();
                 
                 totalAmount += amount;
                 totalDiscount += discount;
@@ -329,91 +293,91 @@ public class OrderDetailsService {
 
     // get total discount
     public Map<String, Object> getAllDiscountTotals() {
-        LocalDateTime now = LocalDateTime.now();
         Map<String, Object> result = new HashMap<>();
-        
-        Map<String, LocalDateTime> timePeriods = new HashMap<>();
-        timePeriods.put("last24Hours", now.minusHours(24));
-        timePeriods.put("last7Days", now.minusDays(7));
-        timePeriods.put("last30Days", now.minusDays(30));
-        timePeriods.put("lastYear", now.minusYears(1));
-        
-        for (String period : timePeriods.keySet()) {
+        windowTotals().forEach((period, totals) -> {
             Map<String, Double> periodTotals = new HashMap<>();
-            periodTotals.put("loyaltyDiscount", 0.0);
-            periodTotals.put("itemDiscount", 0.0);
-            periodTotals.put("categoryDiscount", 0.0);
-            periodTotals.put("totalDiscount", 0.0);
+            periodTotals.put("loyaltyDiscount", totals.loyaltyDiscount());
+            periodTotals.put("itemDiscount", totals.itemDiscount());
+            periodTotals.put("categoryDiscount", totals.categoryDiscount());
+            periodTotals.put("totalDiscount", totals.totalDiscount());
             result.put(period, periodTotals);
-        }
-        
-        for (Map.Entry<String, LocalDateTime> period : timePeriods.entrySet()) {
-            String periodName = period.getKey();
-            LocalDateTime startDate = period.getValue();
-            Map<String, Double> periodTotals = (Map<String, Double>) result.get(periodName);
-            
-            Double loyaltyDiscount = orderDetailsRepository.sumLoyaltyDiscountInDateRange(startDate, now);
-            if (loyaltyDiscount != null) {
-                periodTotals.put("loyaltyDiscount", loyaltyDiscount);
-            }
-            
-            Double itemDiscount = orderDetailsRepository.sumItemDiscountInDateRange(startDate, now);
-            if (itemDiscount != null) {
-                periodTotals.put("itemDiscount", itemDiscount);
-            }
-            
-            Double categoryDiscount = orderDetailsRepository.sumCategoryDiscountInDateRange(startDate, now);
-            if (categoryDiscount != null) {
-                periodTotals.put("categoryDiscount", categoryDiscount);
-            }
-            
-            Double totalDiscount = orderDetailsRepository.sumTotalDiscountInDateRange(startDate, now);
-            if (totalDiscount != null) {
-                periodTotals.put("totalDiscount", totalDiscount);
-            }
-        }
-        
+        });
         return result;
     }
 
     // add total amounts 
     public Map<String, Object> getOrderSummaryMetrics() {
-        LocalDateTime now = LocalDateTime.now();
         Map<String, Object> result = new HashMap<>();
-        
-        Map<String, LocalDateTime> timePeriods = new HashMap<>();
-        timePeriods.put("last24Hours", now.minusHours(24));
-        timePeriods.put("last7Days", now.minusDays(7));
-        timePeriods.put("last30Days", now.minusDays(30));
-        timePeriods.put("lastYear", now.minusYears(1));
-        
-        for (Map.Entry<String, LocalDateTime> period : timePeriods.entrySet()) {
-            String periodName = period.getKey();
-            LocalDateTime startDate = period.getValue();
-            
+        windowTotals().forEach((period, totals) -> {
             Map<String, Object> periodMetrics = new HashMap<>();
-            
-            Double totalPointsEarned = orderDetailsRepository.sumPointsEarnedInDateRange(startDate, now);
-            periodMetrics.put("totalPointsEarned", totalPointsEarned != null ? totalPointsEarned : 0.0);
-            
-            Double totalAmount = orderDetailsRepository.sumTotalAmountInDateRange(startDate, now);
-            periodMetrics.put("totalAmount", totalAmount != null ? totalAmount : 0.0);
-            
-            Double totalLoyaltyAmount = orderDetailsRepository.sumAmountWithLoyaltyDiscountInDateRange(startDate, now);
-            periodMetrics.put("totalLoyaltyAmount", totalLoyaltyAmount != null ? totalLoyaltyAmount : 0.0);
-            
-            Double totalItemAmount = orderDetailsRepository.sumAmountWithItemDiscountInDateRange(startDate, now);
-            periodMetrics.put("totalItemAmount", totalItemAmount != null ? totalItemAmount : 0.0);
-            
-            Double totalCategoryAmount = orderDetailsRepository.sumAmountWithCategoryDiscountInDateRange(startDate, now);
-            periodMetrics.put("totalCategoryAmount", totalCategoryAmount != null ? totalCategoryAmount : 0.0);
-            
-            result.put(periodName, periodMetrics);
-        }
-        
+            periodMetrics.put("totalPointsEarned", totals.pointsEarned());
+            periodMetrics.put("totalAmount", totals.amount());
+            periodMetrics.put("totalLoyaltyAmount", totals.loyaltyAmount());
+            periodMetrics.put("totalItemAmount", totals.itemAmount());
+            periodMetrics.put("totalCategoryAmount", totals.categoryAmount());
+            result.put(period, periodMetrics);
+        });
         return result;
     }
 
+    /**
+     * Every counter and sum of the dashboard windows (last 24 hours, 7 days, 30 days and year)
+     * from a single pass over the last year of order_details. The query totals the disjoint
+     * slices between the window boundaries, and each window adds up the slices it spans. Only
+     * per-row sums and counts are totalled this way, since they add up exactly across slices.
+     * Distinct order counts do not: order_details rows written before checkout stamped the whole
+     * order once carry per-line timestamps, so an old order can straddle a boundary and would be
+     * counted in two slices. getOrderCounts therefore counts orders per window instead.
+     */
+    private Map<String, WindowTotals> windowTotals() {
+        LocalDateTime now = LocalDateTime.now();
+        WindowTotals[] slices = new WindowTotals[PERIODS.length];
+        for (Object[] row : orderDetailsRepository.sumTotalsByWindow(
+                now.minusHours(24), now.minusDays(7), now.minusDays(30), now.minusYears(1), now)) {
+            slices[((Number) row[0]).intValue()] = WindowTotals.of(row);
+        }
+
+        Map<String, WindowTotals> windows = new LinkedHashMap<>();
+        WindowTotals running = WindowTotals.EMPTY;
+        for (int i = 0; i < PERIODS.length; i++) {
+            if (slices[i] != null) {
+                running = running.plus(slices[i]);
+            }
+            windows.put(PERIODS[i], running);
+        }
+        return windows;
+    }
+
+    private record WindowTotals(long itemDiscountCount, long categoryDiscountCount, long loyaltyDiscountCount,
+                                double totalDiscount, double itemDiscount, double categoryDiscount, double loyaltyDiscount,
+                                double pointsEarned, double amount, double loyaltyAmount, double itemAmount, double categoryAmount) {
+        private static final WindowTotals EMPTY = new WindowTotals(0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0);
+
+        // columns as selected by OrderDetailsRepository.sumTotalsByWindow, after the slice index
+        private static WindowTotals of(Object[] row) {
+            return new WindowTotals(count(row[1]), count(row[2]), count(row[3]),
+                    sum(row[4]), sum(row[5]), sum(row[6]), sum(row[7]),
+                    sum(row[8]), sum(row[9]), sum(row[10]), sum(row[11]), sum(row[12]));
+        }
+
+        private WindowTotals plus(WindowTotals other) {
+            return new WindowTotals(itemDiscountCount + other.itemDiscountCount,
+                    categoryDiscountCount + other.categoryDiscountCount, loyaltyDiscountCount + other.loyaltyDiscountCount,
+                    totalDiscount + other.totalDiscount, itemDiscount + other.itemDiscount,
+                    categoryDiscount + other.categoryDiscount, loyaltyDiscount + other.loyaltyDiscount,
+                    pointsEarned + other.pointsEarned, amount + other.amount, loyaltyAmount + other.loyaltyAmount,
+                    itemAmount + other.itemAmount, categoryAmount + other.categoryAmount);
+        }
+
+        private static long count(Object value) {
+            return value != null ? ((Number) value).longValue() : 0L;
+        }
+
+        private static double sum(Object value) {
+            return value != null ? ((Number) value).doubleValue() : 0.0;
+        }
+    }
+
     // Add these methods to OrderDetailsService.java
 
 public Map<String, Long> getOrderCountsByCustomRange(LocalDateTime startDate, LocalDateTime endDate) {
@@ -476,7 +440,7 @@ public Map<String, Object> getItemDiscountAnalyticsForCustomRange(LocalDateTime
     for (Object[] item : itemAnalytics) {
         Map<String, Object> itemMap = new HashMap<>();
         itemMap.put("itemId", item[0]);
-        itemMap.put("itemName", item[1]);
+        itemMap.put("itemName", item[1] != null ? item[1] : "Unknown");
         itemMap.put("amount", ((Number) item[2]).doubleValue());
         itemMap.put("discount", ((Number) item[3]).doubleValue());
         itemMap.put("count", ((Number) item[4]).longValue());
@@ -506,7 +470,7 @@ public Map<String, Object> getCategoryDiscountAnalyticsForCustomRange(LocalDateT
     for (Object[] category : categoryAnalytics) {
         Map<String, Object> categoryMap = new HashMap<>();
         categoryMap.put("categoryId", category[0]);
-        categoryMap.put("categoryName", category[1]);
+        categoryMap.put("categoryName", category[1] != null ? category[1] : "Unknown");
         categoryMap.put("amount", ((Number) category[2]).doubleValue());
         categoryMap.put("discount", ((Number) category[3]).doubleValue());
         categoryMap.put("count", ((Number) category[4]).longValue());
@@ -0,0 +1,40 @@
+package com.eternalcoders.pointedge.service;
+
+import com.eternalcoders.pointedge.entity.OrderDetails;
+import com.eternalcoders.pointedge.repository.OrderDetailsRepository;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Writes the {@code order_details} analytics rows of one order with multi-row INSERTs instead of
+ * one statement per cart line. The rows are written inside the checkout transaction, so they
+ * commit or roll back together with the points and tier updates of the same order.
+ */
+@Component
+public class OrderDetailsWriter {
+    private final OrderDetailsRepository orderDetailsRepository;
+
+    // strictly increasing millisecond stamp, so two orders never share an id on this node
+    private final AtomicLong lastOrderStamp = new AtomicLong();
+
+    public OrderDetailsWriter(OrderDetailsRepository orderDetailsRepository) {
+        this.orderDetailsRepository = orderDetailsRepository;
+    }
+
+    public String nextOrderId(Long customerId) {
+        long now = System.currentTimeMillis();
+        long stamp = lastOrderStamp.updateAndGet(last -> Math.max(last + 1, now));
+        return "ORD-" + stamp + "-" + customerId;
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void write(List<OrderDetails> rows) {
+        if (!rows.isEmpty()) {
+            orderDetailsRepository.insertAll(rows);
+        }
+    }
+}
@@ -3,22 +3,29 @@ package com.eternalcoders.pointedge.service;
 import com.eternalcoders.pointedge.dto.OrderRequestDTO;
 import com.eternalcoders.pointedge.dto.OrderStatsDTO;
 import com.eternalcoders.pointedge.dto.ProductOrderQuantityDTO;
+import com.eternalcoders.pointedge.dto.StockShortfallDTO;
 import com.eternalcoders.pointedge.entity.Order;
 import com.eternalcoders.pointedge.entity.OrderItem;
+import com.eternalcoders.pointedge.entity.Product;
+import com.eternalcoders.pointedge.event.OrderRecordedEvent;
+import com.eternalcoders.pointedge.event.StockLevelChangedEvent;
 import com.eternalcoders.pointedge.exception.InsufficientStockException;
 import com.eternalcoders.pointedge.repository.OrderItemRepository;
 import com.eternalcoders.pointedge.repository.OrderRepository;
 import com.eternalcoders.pointedge.repository.ProductRepository;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -28,14 +35,20 @@ public class OrderService {
     private final OrderItemRepository orderItemRepository;
     private final ProductRepository productRepository;
     private final InvoiceService invoiceService;
-    private final NotificationService notificationService;
+    private final ProductCatalogCache productCatalogCache;
+    private final ApplicationEventPublisher eventPublisher;
+    private final EmployeeOrderCounterService employeeOrderCounterService;
+    private final TransactionTemplate transactionTemplate;
 
-    public OrderService(OrderRepository orderRepository, OrderItemRepository orderItemRepository, ProductRepository productRepository, InvoiceService invoiceService, NotificationService notificationService) {
+    public OrderService(OrderRepository orderRepository, OrderItemRepository orderItemRepository, ProductRepository productRepository, InvoiceService invoiceService, ProductCatalogCache productCatalogCache, ApplicationEventPublisher eventPublisher, EmployeeOrderCounterService employeeOrderCounterService, TransactionTemplate transactionTemplate) {
         this.orderRepository = orderRepository;
         this.orderItemRepository = orderItemRepository;
         this.productRepository = productRepository;
         this.invoiceService = invoiceService;
-        this.notificationService = notificationService;
+        this.productCatalogCache = productCatalogCache;
+        this.eventPublisher = eventPublisher;
+        this.employeeOrderCounterService = employeeOrderCounterService;
+        this.transactionTemplate = transactionTemplate;
     }
 
     public Order getOrderById(Long id) {
@@ -44,22 +57,59 @@ public class OrderService {
 
     @Transactional
     public Order addOrder(Order order) {
+        Map<Long, Long> quantities = new LinkedHashMap<>();
         for (OrderItem item : order.getOrderItems()) {
-            int updated = productRepository.reduceStock(
-                    item.getProduct().getId(),
-                    item.getQuantity()
-            );
-            if (updated == 0) {
-                throw new InsufficientStockException(
-                        item.getProduct().getName()
-                                + " only has " + item.getProduct().getStockQuantity()
-                                + " items left, cannot fulfill quantity of "
-                                + item.getQuantity()
-                );
-            }
+            quantities.merge(item.getProduct().getId(), item.getQuantity(), Long::sum);
             item.setOrder(order);
         }
-        return orderRepository.save(order);
+        Map<Long, Product> products = reserveStock(quantities);
+        // the request body only carries product ids, file the lines under the locked entities
+        for (OrderItem item : order.getOrderItems()) {
+            item.setProduct(products.get(item.getProduct().getId()));
+        }
+        Order savedOrder = orderRepository.save(order);
+        publishOrderRecorded(savedOrder);
+        return savedOrder;
+    }
+
+    /**
+     * Reserves stock for a whole cart (product id -> quantity) with one locking read and one
+     * bulk decrement, regardless of the number of lines. When any product is short, nothing is
+     * decremented and the thrown {@link InsufficientStockException} lists every short product.
+     * The returned products hold the stock quantities read under lock, before the decrement.
+     */
+    @Transactional
+    public Map<Long, Product> reserveStock(Map<Long, Long> quantities) {
+        Map<Long, Product> productsById = new HashMap<>();
+        for (Product product : productRepository.findAllByIdForUpdate(quantities.keySet())) {
+            productsById.put(product.getId(), product);
+        }
+
+        List<StockShortfallDTO> shortfalls = new ArrayList<>();
+        for (Map.Entry<Long, Long> entry : quantities.entrySet()) {
+            Product product = productsById.get(entry.getKey());
+            if (product == null) {
+                throw new RuntimeException("Product not found with ID: " + entry.getKey());
+            }
+            if (product.getStockQuantity() < entry.getValue()) {
+                shortfalls.add(new StockShortfallDTO(
+                        product.getId(),
+                        product.getName(),
+                        entry.getValue(),
+                        product.getStockQuantity()
+                ));
+            }
+        }
+        if (!shortfalls.isEmpty()) {
+            throw new InsufficientStockException(shortfalls);
+        }
+
+        int updated = productRepository.reserveStock(quantities);
+        if (updated != quantities.size()) {
+            throw new InsufficientStockException("Stock changed while reserving the order, please retry");
+        }
+        quantities.keySet().forEach(productCatalogCache::evict);
+        return productsById;
     }
 
     public Page<ProductOrderQuantityDTO> getTotalOrdersForProducts(
@@ -87,8 +137,79 @@ public class OrderService {
         );
     }
 
-    @Transactional
+    // the invoice number is taken before the checkout transaction opens, see InvoiceService.reserveInvoiceNumbers
     public Map<String, Object> createOrderWithInvoice(OrderRequestDTO dto) {
+        String invoiceNumber = invoiceService.reserveInvoiceNumbers(1).get(0);
+        return transactionTemplate.execute(status -> {
+            Map<Long, Long> quantities = aggregateQuantities(List.of(dto));
+            Map<Long, Product> products = reserveStock(quantities);
+            publishStockLevels(quantities, products);
+
+            Order savedOrder = orderRepository.save(buildOrder(dto, products));
+
+            var savedInvoice = invoiceService.createInvoiceFromOrder(savedOrder, invoiceNumber);
+            publishOrderRecorded(savedOrder);
+
+            Long totalOrderCount = savedOrder.getEmployeeId() != null
+                    ? employeeOrderCounterService.countOrdersByEmployeeIdIncludingUncommitted(savedOrder.getEmployeeId())
+                    : 0L;
+
+            Map<String, Object> response = new HashMap<>();
+            response.put("orderId", savedOrder.getId());
+            response.put("invoiceNumber", savedInvoice.getInvoiceNumber());
+            response.put("totalOrdersByEmployee", totalOrderCount);
+
+            return response;
+        });
+    }
+
+    /**
+     * Sums the requested quantity per product over all lines of the given orders.
+     */
+    public Map<Long, Long> aggregateQuantities(List<OrderRequestDTO> orders) {
+        Map<Long, Long> quantities = new LinkedHashMap<>();
+        for (OrderRequestDTO dto : orders) {
+            for (var itemDTO : dto.getItems()) {
+                quantities.merge(itemDTO.getProductId(), (long) itemDTO.getQuantity(), Long::sum);
+            }
+        }
+        return quantities;
+    }
+
+    /**
+     * Publishes the post-checkout stock level of every reserved product; {@code products} must hold
+     * the quantities read before the decrement, as returned by {@link #reserveStock(Map)}.
+     */
+    public void publishStockLevels(Map<Long, Long> quantities, Map<Long, Product> products) {
+        for (Map.Entry<Long, Long> entry : quantities.entrySet()) {
+            var product = products.get(entry.getKey());
+            eventPublisher.publishEvent(new StockLevelChangedEvent(
+                    product.getId(),
+                    product.getName(),
+                    product.getStockQuantity() - entry.getValue(),
+                    product.getMinimumQuantity()
+            ));
+        }
+    }
+
+    public void publishOrderRecorded(Order order) {
+        List<OrderRecordedEvent.Line> lines = new ArrayList<>();
+        if (order.getOrderItems() != null) {
+            for (OrderItem item : order.getOrderItems()) {
+                Product product = item.getProduct();
+                lines.add(new OrderRecordedEvent.Line(
+                        product.getId(),
+                        product.getCategory().getId(),
+                        product.getBrand().getId(),
+                        item.getQuantity(),
+                        item.getPricePerUnit() * item.getQuantity()
+                ));
+            }
+        }
+        eventPublisher.publishEvent(new OrderRecordedEvent(order.getId(), order.getEmployeeId(), order.getOrderDate(), lines));
+    }
+
+    public Order buildOrder(OrderRequestDTO dto, Map<Long, Product> products) {
         var order = new Order();
         order.setCustomerName(dto.getCustomerName());
         order.setCustomerPhone(dto.getCustomerPhone());
@@ -101,61 +222,19 @@ public class OrderService {
         order.setCashierName(dto.getCashierName());
         order.setCashAmount(dto.getCashAmount());
         order.setCardAmount(dto.getCardAmount());
+        order.setClientSaleId(dto.getClientSaleId());
 
         List<OrderItem> items = new ArrayList<>();
         for (var itemDTO : dto.getItems()) {
-            var product = productRepository.findById(itemDTO.getProductId())
-                    .orElseThrow(() -> new RuntimeException(
-                            "Product not found with ID: " + itemDTO.getProductId()
-                    ));
-
-            int updated = productRepository.reduceStock(
-                    product.getId(),
-                    itemDTO.getQuantity()
-            );
-            if (updated == 0) {
-                throw new InsufficientStockException(
-                        "Cannot order " + itemDTO.getQuantity()
-                                + " of product " + product.getName()
-                                + " (only " + product.getStockQuantity() + " left)"
-                );
-            }
-
-            long newQty = product.getStockQuantity() - itemDTO.getQuantity();
-            if (newQty == 0) {
-                notificationService.createNotification(
-                        product,
-                        product.getName() + " is sold out."
-                );
-            } else if (newQty < product.getMinimumQuantity()) {
-                notificationService.createNotification(
-                        product,
-                        "There are only " + newQty
-                                + " items of " + product.getName() + " in stock."
-                );
-            }
-
             var oi = new OrderItem();
-            oi.setProduct(product);
+            oi.setProduct(products.get(itemDTO.getProductId()));
             oi.setQuantity(itemDTO.getQuantity());
             oi.setPricePerUnit(itemDTO.getPricePerUnit());
             oi.setOrder(order);
             items.add(oi);
         }
         order.setOrderItems(items);
-
-        Order savedOrder = orderRepository.save(order);
-
-        var savedInvoice = invoiceService.createInvoiceFromOrder(savedOrder);
-
-        Long totalOrderCount = orderRepository.countTotalOrdersByEmployee(savedOrder.getEmployeeId());
-
-        Map<String, Object> response = new HashMap<>();
-        response.put("orderId", savedOrder.getId());
-        response.put("invoiceNumber", savedInvoice.getInvoiceNumber());
-        response.put("totalOrdersByEmployee", totalOrderCount);
-
-        return response;
+        return order;
     }
 
     public OrderStatsDTO getOrderStats(
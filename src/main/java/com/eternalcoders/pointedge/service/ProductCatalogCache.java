@@ -0,0 +1,244 @@
+package com.eternalcoders.pointedge.service;
+
+import com.eternalcoders.pointedge.dto.CatalogCacheStatsDTO;
+import com.eternalcoders.pointedge.entity.Brand;
+import com.eternalcoders.pointedge.entity.Category;
+import com.eternalcoders.pointedge.entity.Product;
+import com.eternalcoders.pointedge.repository.ProductRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Size-bounded, in-memory copy of the product catalog keyed by id and barcode, so scanner
+ * lookups do not hit the database. Products are held as immutable {@link Entry} snapshots, never
+ * as managed entities. Entries are dropped whenever a product, its image or its stock changes on
+ * this node; inside a transaction the eviction is repeated after commit so a concurrent reader
+ * cannot re-cache the pre-commit row. Edits made on other nodes are picked up once an entry is
+ * older than the configured TTL.
+ */
+@Slf4j
+@Component
+public class ProductCatalogCache {
+    private final ProductRepository productRepository;
+    private final int maxSize;
+    private final long ttlNanos;
+
+    private final Map<Long, Slot> productsById = new ConcurrentHashMap<>();
+    private final Map<String, Long> idsByBarcode = new ConcurrentHashMap<>();
+
+    // bumped on every eviction; a load only populates the cache if no eviction raced with it
+    private final AtomicLong generation = new AtomicLong();
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+
+    public ProductCatalogCache(ProductRepository productRepository,
+                               @Value("${pointedge.catalog-cache.max-size:20000}") int maxSize,
+                               @Value("${pointedge.catalog-cache.ttl:60s}") Duration ttl) {
+        this.productRepository = productRepository;
+        this.maxSize = maxSize;
+        this.ttlNanos = ttl.toNanos();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        long startGeneration = generation.get();
+        var products = productRepository.findAll(PageRequest.of(0, maxSize, Sort.by("id"))).getContent();
+        if (generation.get() == startGeneration) {
+            products.forEach(this::put);
+        }
+        log.info("Product catalog cache warmed with {} products", productsById.size());
+    }
+
+    public Optional<Entry> findByBarcode(String barcode) {
+        Long id = idsByBarcode.get(barcode);
+        Entry cached = id != null ? fresh(id) : null;
+        if (cached != null && barcode.equals(cached.barcode())) {
+            hits.incrementAndGet();
+            return Optional.of(cached);
+        }
+
+        misses.incrementAndGet();
+        long startGeneration = generation.get();
+        Optional<Product> loaded = productRepository.findByBarcode(barcode);
+        if (generation.get() == startGeneration) {
+            loaded.ifPresent(this::put);
+        }
+        return loaded.map(Entry::of);
+    }
+
+    public Optional<Entry> findById(Long productId) {
+        Entry cached = fresh(productId);
+        if (cached != null) {
+            hits.incrementAndGet();
+            return Optional.of(cached);
+        }
+
+        misses.incrementAndGet();
+        long startGeneration = generation.get();
+        Optional<Product> loaded = productRepository.findById(productId);
+        if (generation.get() == startGeneration) {
+            loaded.ifPresent(this::put);
+        }
+        return loaded.map(Entry::of);
+    }
+
+    // cached products plus one query for all misses; unknown ids are left out of the result
+    public Map<Long, Entry> findAllById(Collection<Long> productIds) {
+        Map<Long, Entry> found = new HashMap<>();
+        List<Long> missing = new ArrayList<>();
+        for (Long productId : productIds) {
+            Entry cached = fresh(productId);
+            if (cached != null) {
+                found.put(productId, cached);
+            } else {
+                missing.add(productId);
+            }
+        }
+        hits.addAndGet(found.size());
+        if (missing.isEmpty()) {
+            return found;
+        }
+
+        misses.addAndGet(missing.size());
+        long startGeneration = generation.get();
+        List<Product> loaded = productRepository.findAllById(missing);
+        boolean cacheable = generation.get() == startGeneration;
+        for (Product product : loaded) {
+            found.put(product.getId(), Entry.of(product));
+            if (cacheable) {
+                put(product);
+            }
+        }
+        return found;
+    }
+
+    public void evict(Long productId) {
+        if (productId == null) {
+            return;
+        }
+        remove(productId);
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    remove(productId);
+                }
+            });
+        }
+    }
+
+    public CatalogCacheStatsDTO getStats() {
+        long hitCount = hits.get();
+        long missCount = misses.get();
+        long lookups = hitCount + missCount;
+        return new CatalogCacheStatsDTO(
+                productsById.size(),
+                maxSize,
+                hitCount,
+                missCount,
+                evictions.get(),
+                lookups == 0 ? 0 : (double) hitCount / lookups
+        );
+    }
+
+    // null when the product is not cached or its entry has outlived the TTL
+    private Entry fresh(Long productId) {
+        Slot slot = productsById.get(productId);
+        if (slot == null) {
+            return null;
+        }
+        if (System.nanoTime() - slot.loadedAt() > ttlNanos) {
+            if (productsById.remove(productId, slot) && slot.product().barcode() != null) {
+                idsByBarcode.remove(slot.product().barcode(), productId);
+            }
+            return null;
+        }
+        return slot.product();
+    }
+
+    private void put(Product product) {
+        if (product.getId() == null) {
+            return;
+        }
+        if (!productsById.containsKey(product.getId()) && productsById.size() >= maxSize) {
+            Iterator<Long> iterator = productsById.keySet().iterator();
+            if (iterator.hasNext()) {
+                Long victim = iterator.next();
+                Slot removed = productsById.remove(victim);
+                if (removed != null && removed.product().barcode() != null) {
+                    idsByBarcode.remove(removed.product().barcode(), victim);
+                }
+            }
+        }
+        productsById.put(product.getId(), new Slot(Entry.of(product), System.nanoTime()));
+        if (product.getBarcode() != null) {
+            idsByBarcode.put(product.getBarcode(), product.getId());
+        }
+    }
+
+    private void remove(Long productId) {
+        generation.incrementAndGet();
+        Slot removed = productsById.remove(productId);
+        if (removed != null) {
+            evictions.incrementAndGet();
+            if (removed.product().barcode() != null) {
+                idsByBarcode.remove(removed.product().barcode(), productId);
+            }
+        }
+    }
+
+    private record Slot(Entry product, long loadedAt) {
+    }
+
+    public record Entry(Long id, String name, String barcode, double price, long stockQuantity,
+                        long minimumQuantity, boolean hidden, Long brandId, String brandName,
+                        Long categoryId, String categoryName, String imageName) {
+        static Entry of(Product product) {
+            Brand brand = product.getBrand();
+            Category category = product.getCategory();
+            return new Entry(
+                    product.getId(),
+                    product.getName(),
+                    product.getBarcode(),
+                    product.getPrice(),
+                    product.getStockQuantity(),
+                    product.getMinimumQuantity(),
+                    product.isHidden(),
+                    brand != null ? brand.getId() : null,
+                    brand != null ? brand.getName() : null,
+                    category != null ? category.getId() : null,
+                    category != null ? category.getName() : null,
+                    product.getImageName()
+            );
+        }
+
+        // a detached copy for API responses; changing it never touches the cache or the database
+        public Product toProduct() {
+            return new Product(id, name, barcode, price, stockQuantity, minimumQuantity, hidden,
+                    brandId != null ? new Brand(brandId, brandName) : null,
+                    categoryId != null ? new Category(categoryId, categoryName) : null,
+                    imageName);
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package com.eternalcoders.pointedge.service;
 
+import com.eternalcoders.pointedge.dto.CatalogCacheStatsDTO;
 import com.eternalcoders.pointedge.entity.Brand;
 import com.eternalcoders.pointedge.entity.Category;
 import com.eternalcoders.pointedge.entity.Product;
@@ -15,11 +16,13 @@ public class ProductService {
     private final ProductRepository productRepository;
     private final BrandRepository brandRepository;
     private final CategoryRepository categoryRepository;
+    private final ProductCatalogCache productCatalogCache;
 
-    public ProductService(ProductRepository productRepository, BrandRepository brandRepository, CategoryRepository categoryRepository) {
+    public ProductService(ProductRepository productRepository, BrandRepository brandRepository, CategoryRepository categoryRepository, ProductCatalogCache productCatalogCache) {
         this.productRepository = productRepository;
         this.brandRepository = brandRepository;
         this.categoryRepository = categoryRepository;
+        this.productCatalogCache = productCatalogCache;
     }
 
     public Page<Product> getFilteredProducts(Long brandId, Long categoryId, Boolean hidden, String search, Pageable pageable) {
@@ -27,10 +30,10 @@ public class ProductService {
     }
 
     public Product getProductByBarcode(String barcode) {
-        Product product = productRepository.findByBarcode(barcode).orElse(null);
-        if (product != null && !product.isHidden())
-            return product;
-        return null;
+        return productCatalogCache.findByBarcode(barcode)
+                .filter(product -> !product.hidden())
+                .map(ProductCatalogCache.Entry::toProduct)
+                .orElse(null);
     }
 
     public Product addProduct(Product product) {
@@ -38,7 +41,9 @@ public class ProductService {
 
         persistNewBrandAndCategory(product);
 
-        return productRepository.save(product);
+        Product saved = productRepository.save(product);
+        productCatalogCache.evict(saved.getId());
+        return saved;
     }
 
     public Product updateProduct(Product product) {
@@ -46,7 +51,13 @@ public class ProductService {
 
         persistNewBrandAndCategory(product);
 
-        return productRepository.save(product);
+        Product saved = productRepository.save(product);
+        productCatalogCache.evict(saved.getId());
+        return saved;
+    }
+
+    public CatalogCacheStatsDTO getCatalogCacheStats() {
+        return productCatalogCache.getStats();
     }
 
     private void persistNewBrandAndCategory(Product product) {
@@ -0,0 +1,13 @@
+package com.eternalcoders.pointedge.service;
+
+import java.util.UUID;
+
+/**
+ * The original {@code INV-xxxxxxxx} scheme, kept selectable for installations that rely on it.
+ */
+public class RandomInvoiceNumberAllocator implements InvoiceNumberAllocator {
+    @Override
+    public String nextInvoiceNumber() {
+        return "INV-" + UUID.randomUUID().toString().substring(0, 8);
+    }
+}
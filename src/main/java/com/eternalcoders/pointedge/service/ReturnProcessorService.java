@@ -3,6 +3,7 @@ package com.eternalcoders.pointedge.service;
 import com.eternalcoders.pointedge.dto.*;
 import com.eternalcoders.pointedge.entity.*;
 import com.eternalcoders.pointedge.enums.RequestStatus;
+import com.eternalcoders.pointedge.event.ReturnRecordedEvent;
 import com.eternalcoders.pointedge.exception.EntityNotFoundException;
 import com.eternalcoders.pointedge.repository.*;
 import jakarta.persistence.EntityManager;
@@ -11,6 +12,7 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.ApplicationContext;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -33,6 +35,8 @@ public class ReturnProcessorService {
     private final CustomerRepository customerRepository;
     private final ReturnItemRepository returnItemRepository;
     private final EmployeeRepository employeeRepository;
+    private final ProductCatalogCache productCatalogCache;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Autowired
     private ApplicationContext context; // Used for proxy-based method call
@@ -163,12 +167,13 @@ public class ReturnProcessorService {
                 record.setReplacementProduct(product);
             }
 
-            returnRecordRepository.save(record);
+            saveReturnRecord(record);
 
             // Only modify stock and invoice for Cash/Card
             if ("Cash".equalsIgnoreCase(method) || "Card".equalsIgnoreCase(method)) {
                 product.setStockQuantity(product.getStockQuantity() + item.getQuantity());
                 productRepository.save(product);
+                productCatalogCache.evict(product.getId());
 
                 int remainingQty = invoiceItem.getQuantity() - item.getQuantity();
                 if (remainingQty < 0) {
@@ -265,7 +270,7 @@ public class ReturnProcessorService {
             record.setRefundAmount(item.getRefundAmount());
             record.setReplacementProduct(item.getProduct());
 
-            returnRecordRepository.save(record);
+            saveReturnRecord(record);
         }
 
         requestReturn.setStatus(RequestStatus.COMPLETED);
@@ -301,6 +306,7 @@ public class ReturnProcessorService {
 
             product.setStockQuantity(product.getStockQuantity() + item.getQuantity());
             productRepository.save(product);
+            productCatalogCache.evict(product.getId());
 
             invoiceItem.setQuantity(invoiceItem.getQuantity() - item.getQuantity());
             invoiceItemRepository.save(invoiceItem);
@@ -315,7 +321,7 @@ public class ReturnProcessorService {
             record.setReturnedAt(LocalDateTime.now());
             record.setRefundAmount(item.getRefundAmount());
 
-            returnRecordRepository.save(record);
+            saveReturnRecord(record);
 
             totalRefundAmount += item.getRefundAmount();
         }
@@ -356,6 +362,7 @@ public class ReturnProcessorService {
 
             product.setStockQuantity(product.getStockQuantity() + item.getQuantity());
             productRepository.save(product);
+            productCatalogCache.evict(product.getId());
 
             invoiceItem.setQuantity(invoiceItem.getQuantity() - item.getQuantity());
             invoiceItemRepository.save(invoiceItem);
@@ -370,7 +377,7 @@ public class ReturnProcessorService {
             record.setReturnedAt(LocalDateTime.now());
             record.setRefundAmount(item.getRefundAmount());
 
-            returnRecordRepository.save(record);
+            saveReturnRecord(record);
 
             totalRefundAmount += item.getRefundAmount();
         }
@@ -473,6 +480,7 @@ public class ReturnProcessorService {
 
             product.setStockQuantity(product.getStockQuantity() + item.getQuantity());
             productRepository.save(product);
+            productCatalogCache.evict(product.getId());
 
             invoiceItem.setQuantity(invoiceItem.getQuantity() - item.getQuantity());
             invoiceItemRepository.save(invoiceItem);
@@ -487,7 +495,7 @@ public class ReturnProcessorService {
             record.setReturnedAt(LocalDateTime.now());
             record.setRefundAmount(item.getRefundAmount());
 
-            returnRecordRepository.save(record);
+            saveReturnRecord(record);
 
             totalRefundAmount += item.getRefundAmount();
         }
@@ -527,6 +535,7 @@ public class ReturnProcessorService {
 
             product.setStockQuantity(product.getStockQuantity() + item.getQuantity());
             productRepository.save(product);
+            productCatalogCache.evict(product.getId());
 
             invoiceItem.setQuantity(invoiceItem.getQuantity() - item.getQuantity());
             invoiceItemRepository.save(invoiceItem);
@@ -541,7 +550,7 @@ public class ReturnProcessorService {
             record.setReturnedAt(LocalDateTime.now());
             record.setRefundAmount(item.getRefundAmount());
 
-            returnRecordRepository.save(record);
+            saveReturnRecord(record);
 
             totalRefundAmount += item.getRefundAmount();
         }
@@ -590,7 +599,7 @@ public class ReturnProcessorService {
             record.setRefundAmount(item.getRefundAmount());
             record.setReplacementProduct(item.getProduct());
 
-            returnRecordRepository.save(record);
+            saveReturnRecord(record);
         }
 
         requestReturn.setStatus(RequestStatus.COMPLETED);
@@ -598,5 +607,10 @@ public class ReturnProcessorService {
         requestReturnRepository.save(requestReturn);
     }
 
-
-}
\ No newline at end of file
+    // every return goes through here so the sales rollup sees it once the transaction commits
+    private void saveReturnRecord(ReturnRecord record) {
+        returnRecordRepository.save(record);
+        eventPublisher.publishEvent(new ReturnRecordedEvent(
+                record.getProductId(), record.getQuantityReturned(), record.getRefundAmount(), record.getReturnedAt()));
+    }
+}
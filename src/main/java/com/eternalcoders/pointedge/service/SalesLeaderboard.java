@@ -0,0 +1,125 @@
+package com.eternalcoders.pointedge.service;
+
+import com.eternalcoders.pointedge.entity.SalesRollup;
+import com.eternalcoders.pointedge.event.SalesRollupFlushedEvent;
+import com.eternalcoders.pointedge.repository.SalesRollupRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.TreeSet;
+
+/**
+ * All-time units sold and revenue per product, ranked both ways in memory. Seeded from the
+ * sales rollup and bumped by every delta this node flushes to it, so the rankings trail the
+ * checkouts by one rollup flush. Sales flushed by other nodes arrive with the next reseed,
+ * which also runs on a timer. Each product sits in two ordered sets that act as priority
+ * queues whose entries can be re-ranked in place, so a flush costs O(deltas x log products)
+ * and reading the top K costs O(K), whatever the catalog size.
+ */
+@Slf4j
+@Component
+public class SalesLeaderboard {
+    private static final Comparator<Standing> BY_QUANTITY = Comparator
+            .comparingLong(Standing::quantity).reversed()
+            .thenComparing(Standing::productId);
+    private static final Comparator<Standing> BY_REVENUE = Comparator
+            .comparingDouble(Standing::revenue).reversed()
+            .thenComparing(Standing::productId);
+
+    private final SalesRollupRepository salesRollupRepository;
+    private final SalesRollupService salesRollupService;
+
+    // guarded by this
+    private final Map<Long, Standing> standings = new HashMap<>();
+    private final NavigableSet<Standing> byQuantity = new TreeSet<>(BY_QUANTITY);
+    private final NavigableSet<Standing> byRevenue = new TreeSet<>(BY_REVENUE);
+
+    private volatile boolean seeded;
+
+    public SalesLeaderboard(SalesRollupRepository salesRollupRepository, SalesRollupService salesRollupService) {
+        this.salesRollupRepository = salesRollupRepository;
+        this.salesRollupService = salesRollupService;
+    }
+
+    // runs after SalesRollupService has backfilled an empty rollup
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(initialDelayString = "${pointedge.sales-leaderboard.reseed-interval-ms:300000}",
+            fixedDelayString = "${pointedge.sales-leaderboard.reseed-interval-ms:300000}")
+    public void seed() {
+        // read and swapped in while flushes wait, so no flushed delta is missed or counted twice
+        int products = salesRollupService.readAfterFlush(() -> {
+            List<Object[]> rows = salesRollupRepository.sumSalesByProduct();
+            synchronized (this) {
+                standings.clear();
+                byQuantity.clear();
+                byRevenue.clear();
+                for (Object[] row : rows) {
+                    Standing standing = new Standing((Long) row[0], ((Number) row[1]).longValue(), ((Number) row[2]).doubleValue());
+                    standings.put(standing.productId(), standing);
+                    byQuantity.add(standing);
+                    byRevenue.add(standing);
+                }
+            }
+            return rows.size();
+        });
+        seeded = true;
+        log.info("Sales leaderboard seeded with {} products", products);
+    }
+
+    // published from inside the flush, so it is ordered with the reads of seed()
+    @EventListener
+    public synchronized void onRollupFlushed(SalesRollupFlushedEvent event) {
+        for (SalesRollup delta : event.getDeltas()) {
+            if (delta.getQuantitySold() == 0 && delta.getRevenue() == 0) {
+                continue;
+            }
+            Standing previous = standings.get(delta.getProductId());
+            Standing next;
+            if (previous == null) {
+                next = new Standing(delta.getProductId(), delta.getQuantitySold(), delta.getRevenue());
+            } else {
+                byQuantity.remove(previous);
+                byRevenue.remove(previous);
+                next = new Standing(delta.getProductId(),
+                        previous.quantity() + delta.getQuantitySold(), previous.revenue() + delta.getRevenue());
+            }
+            standings.put(next.productId(), next);
+            byQuantity.add(next);
+            byRevenue.add(next);
+        }
+    }
+
+    public boolean isSeeded() {
+        return seeded;
+    }
+
+    public synchronized List<Standing> topByQuantity(int limit) {
+        return first(byQuantity, limit);
+    }
+
+    public synchronized List<Standing> topByRevenue(int limit) {
+        return first(byRevenue, limit);
+    }
+
+    private static List<Standing> first(NavigableSet<Standing> ranking, int limit) {
+        List<Standing> top = new ArrayList<>(Math.min(limit, ranking.size()));
+        Iterator<Standing> iterator = ranking.iterator();
+        while (top.size() < limit && iterator.hasNext()) {
+            top.add(iterator.next());
+        }
+        return top;
+    }
+
+    public record Standing(Long productId, long quantity, double revenue) {
+    }
+}
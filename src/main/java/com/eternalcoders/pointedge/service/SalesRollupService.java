@@ -0,0 +1,237 @@
+package com.eternalcoders.pointedge.service;
+
+import com.eternalcoders.pointedge.entity.SalesRollup;
+import com.eternalcoders.pointedge.entity.SalesRollupState;
+import com.eternalcoders.pointedge.event.AnalyticsDataChangedEvent;
+import com.eternalcoders.pointedge.event.OrderRecordedEvent;
+import com.eternalcoders.pointedge.event.ReturnRecordedEvent;
+import com.eternalcoders.pointedge.event.SalesRollupFlushedEvent;
+import com.eternalcoders.pointedge.repository.SalesRollupRepository;
+import com.eternalcoders.pointedge.repository.SalesRollupStateRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Maintains the {@code sales_rollup} table the sales analytics are served from. Committed
+ * orders and returns are folded into per-row deltas in memory and added to the table on a
+ * schedule, so concurrent checkouts share one upsert. Returns are booked on the day they were
+ * made under employee 0. {@link #rebuild()} recomputes the table from the full history.
+ *
+ * <p>Every node flushes its own deltas, so flushes, rebuilds and the first-start backfill all
+ * lock the single {@code sales_rollup_state} row and never overlap across nodes. A rebuild
+ * stamps that row with its start time; deltas are kept per second of arrival, and on their
+ * next flush the other nodes drop the seconds that ended before the stamp, since the rebuilt
+ * history already holds those sales. This assumes node clocks are kept in sync.
+ */
+@Slf4j
+@Service
+public class SalesRollupService {
+    private static final Long NO_EMPLOYEE = 0L;
+    private static final Long STATE_ID = 1L;
+
+    private final SalesRollupRepository salesRollupRepository;
+    private final SalesRollupStateRepository salesRollupStateRepository;
+    private final ProductCatalogCache productCatalogCache;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+
+    private final Map<PendingKey, SalesRollup> pending = new ConcurrentHashMap<>();
+
+    public SalesRollupService(SalesRollupRepository salesRollupRepository,
+                              SalesRollupStateRepository salesRollupStateRepository,
+                              ProductCatalogCache productCatalogCache,
+                              TransactionTemplate transactionTemplate,
+                              ApplicationEventPublisher eventPublisher) {
+        this.salesRollupRepository = salesRollupRepository;
+        this.salesRollupStateRepository = salesRollupStateRepository;
+        this.productCatalogCache = productCatalogCache;
+        this.transactionTemplate = transactionTemplate;
+        this.eventPublisher = eventPublisher;
+    }
+
+    // first start with an empty rollup: backfill it from the existing orders and returns; nodes
+    // starting together queue on the state row and only the first one finds the table empty
+    @EventListener(ApplicationReadyEvent.class)
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    public synchronized void backfillIfEmpty() {
+        long started = System.currentTimeMillis();
+        Long rows = transactionTemplate.execute(status -> {
+            SalesRollupState state = lockState();
+            return salesRollupRepository.count() == 0 ? rebuildLocked(state) : null;
+        });
+        if (rows != null) {
+            eventPublisher.publishEvent(new AnalyticsDataChangedEvent());
+            log.info("Sales rollup backfilled: {} rows in {} ms", rows, System.currentTimeMillis() - started);
+        }
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onOrderRecorded(OrderRecordedEvent event) {
+        LocalDate day = event.getOrderDate() != null ? event.getOrderDate().toLocalDate() : LocalDate.now();
+        Long employeeId = event.getEmployeeId() != null ? event.getEmployeeId() : NO_EMPLOYEE;
+        for (OrderRecordedEvent.Line line : event.getLines()) {
+            add(new RollupKey(day, line.productId(), line.categoryId(), line.brandId(), employeeId),
+                    line.quantity(), line.revenue(), 0, 0);
+        }
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onReturnRecorded(ReturnRecordedEvent event) {
+        Optional<ProductCatalogCache.Entry> product = productCatalogCache.findById(event.getProductId());
+        if (product.isEmpty()) {
+            log.warn("Return of unknown product {} left out of the sales rollup", event.getProductId());
+            return;
+        }
+        LocalDateTime returnedAt = event.getReturnedAt() != null ? event.getReturnedAt() : LocalDateTime.now();
+        add(new RollupKey(returnedAt.toLocalDate(), product.get().id(),
+                        product.get().categoryId(), product.get().brandId(), NO_EMPLOYEE),
+                0, 0, event.getQuantityReturned(), event.getRefundAmount());
+    }
+
+    private void add(RollupKey key, long quantitySold, double revenue, long quantityReturned, double refundedAmount) {
+        add(new PendingKey(key, System.currentTimeMillis() / 1000), quantitySold, revenue, quantityReturned, refundedAmount);
+    }
+
+    private void add(PendingKey pendingKey, long quantitySold, double revenue, long quantityReturned, double refundedAmount) {
+        pending.compute(pendingKey, (pk, delta) -> {
+            if (delta == null) {
+                RollupKey k = pk.key();
+                delta = new SalesRollup(null, k.day(), k.productId(), k.categoryId(), k.brandId(), k.employeeId(), 0, 0, 0, 0);
+            }
+            delta.setQuantitySold(delta.getQuantitySold() + quantitySold);
+            delta.setRevenue(delta.getRevenue() + revenue);
+            delta.setQuantityReturned(delta.getQuantityReturned() + quantityReturned);
+            delta.setRefundedAmount(delta.getRefundedAmount() + refundedAmount);
+            return delta;
+        });
+    }
+
+    @Scheduled(fixedDelayString = "${pointedge.sales-rollup.flush-interval-ms:1000}")
+    public synchronized void flush() {
+        if (pending.isEmpty()) {
+            return;
+        }
+        // removing a key hands over its delta; later events for it start a fresh one
+        Map<PendingKey, SalesRollup> taken = new HashMap<>(pending.size() * 2);
+        for (PendingKey key : new ArrayList<>(pending.keySet())) {
+            SalesRollup delta = pending.remove(key);
+            if (delta != null) {
+                taken.put(key, delta);
+            }
+        }
+
+        Flushed flushed;
+        try {
+            flushed = transactionTemplate.execute(status -> {
+                Instant rebuiltAt = lockState().getRebuiltAt();
+                Map<RollupKey, SalesRollup> deltas = new HashMap<>(taken.size() * 2);
+                int stale = 0;
+                for (Map.Entry<PendingKey, SalesRollup> entry : taken.entrySet()) {
+                    if (rebuiltAt != null && entry.getKey().receivedBefore(rebuiltAt)) {
+                        stale++;
+                    } else {
+                        deltas.merge(entry.getKey().key(), entry.getValue(), SalesRollupService::sum);
+                    }
+                }
+                salesRollupRepository.addAll(deltas.values());
+                return new Flushed(List.copyOf(deltas.values()), stale);
+            });
+        } catch (RuntimeException e) {
+            log.error("Failed to add {} sales rollup deltas, will retry", taken.size(), e);
+            taken.forEach((key, delta) -> add(key,
+                    delta.getQuantitySold(), delta.getRevenue(), delta.getQuantityReturned(), delta.getRefundedAmount()));
+            return;
+        }
+
+        // the deltas are committed; a failing listener must not put them back in pending
+        if (flushed.dropped() > 0) {
+            log.info("Dropped {} sales rollup deltas received before the last rebuild", flushed.dropped());
+        }
+        eventPublisher.publishEvent(new SalesRollupFlushedEvent(flushed.added()));
+        eventPublisher.publishEvent(new AnalyticsDataChangedEvent());
+    }
+
+    /**
+     * Flushes, then runs {@code read} before any later flush can commit, so what it reads plus
+     * the {@link SalesRollupFlushedEvent}s that follow hold every delta of this node exactly once.
+     */
+    public synchronized <T> T readAfterFlush(Supplier<T> read) {
+        flush();
+        return read.get();
+    }
+
+    /**
+     * Recomputes the rollup from the orders and returns tables while holding the state row, and
+     * stamps the row so every node drops the deltas the history already contains. Sales
+     * committed in the moment between the stamp and the history read can still be counted
+     * twice, so run it when the tills are quiet.
+     */
+    public synchronized long rebuild() {
+        long started = System.currentTimeMillis();
+        Long rows = transactionTemplate.execute(status -> rebuildLocked(lockState()));
+        eventPublisher.publishEvent(new AnalyticsDataChangedEvent());
+        log.info("Sales rollup rebuilt: {} rows in {} ms", rows, System.currentTimeMillis() - started);
+        return rows != null ? rows : 0;
+    }
+
+    private long rebuildLocked(SalesRollupState state) {
+        state.setRebuiltAt(Instant.now());
+        return salesRollupRepository.rebuildFromHistory();
+    }
+
+    // held until the surrounding transaction ends
+    private SalesRollupState lockState() {
+        return salesRollupStateRepository.findByIdForUpdate(STATE_ID).orElseGet(() -> {
+            salesRollupStateRepository.insertIfMissing(STATE_ID);
+            return salesRollupStateRepository.findByIdForUpdate(STATE_ID).orElseThrow();
+        });
+    }
+
+    // a new row, so the taken deltas stay intact for a retry
+    private static SalesRollup sum(SalesRollup a, SalesRollup b) {
+        return new SalesRollup(null, a.getSaleDay(), a.getProductId(), a.getCategoryId(), a.getBrandId(), a.getEmployeeId(),
+                a.getQuantitySold() + b.getQuantitySold(),
+                a.getRevenue() + b.getRevenue(),
+                a.getQuantityReturned() + b.getQuantityReturned(),
+                a.getRefundedAmount() + b.getRefundedAmount());
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        flush();
+    }
+
+    private record RollupKey(LocalDate day, Long productId, Long categoryId, Long brandId, Long employeeId) {
+    }
+
+    private record Flushed(List<SalesRollup> added, int dropped) {
+    }
+
+    // a rollup row's delta from the events one node received within one second
+    private record PendingKey(RollupKey key, long receivedSecond) {
+        boolean receivedBefore(Instant instant) {
+            return (receivedSecond + 1) * 1000 <= instant.toEpochMilli();
+        }
+    }
+}
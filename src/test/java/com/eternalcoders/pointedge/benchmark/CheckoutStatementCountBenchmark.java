@@ -0,0 +1,92 @@
+package com.eternalcoders.pointedge.benchmark;
+
+import com.eternalcoders.pointedge.dto.OrderItemDTO;
+import com.eternalcoders.pointedge.dto.OrderRequestDTO;
+import com.eternalcoders.pointedge.entity.Product;
+import com.eternalcoders.pointedge.repository.ProductRepository;
+import com.eternalcoders.pointedge.service.OrderService;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Reports JDBC statements per checkout for carts of 1, 10 and 40 lines. The "batch size 1"
+ * column forces a JDBC batch size of 1 on the current sequence-keyed mapping, so every insert is
+ * its own statement; it approximates, but is not, the old IDENTITY mapping, which additionally
+ * fetched each generated key. The "batched" column uses the configured batch size.
+ *
+ * <p>Not part of the regular suite; run with
+ * {@code mvn test -Dtest=CheckoutStatementCountBenchmark}.
+ */
+@SpringBootTest
+@ActiveProfiles("benchmark")
+class CheckoutStatementCountBenchmark {
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Test
+    void statementsPerCheckout() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+        List<Product> products = productRepository.findAll();
+
+        // warm up id pools and caches so both columns measure steady state
+        checkout(products, 1, null, statistics);
+
+        System.out.printf("%-6s %18s %18s%n", "lines", "batch size 1 stmts", "batched stmts");
+        for (int lines : new int[]{1, 10, 40}) {
+            long batchSizeOne = checkout(products, lines, 1, statistics);
+            long batched = checkout(products, lines, null, statistics);
+            System.out.printf("%-6d %18d %18d%n", lines, batchSizeOne, batched);
+        }
+    }
+
+    private long checkout(List<Product> products, int lines, Integer batchSize, Statistics statistics) {
+        OrderRequestDTO dto = new OrderRequestDTO();
+        dto.setCustomerName("Benchmark");
+        dto.setEmployeeId(1L);
+        dto.setCashAmount(BigDecimal.ZERO);
+        dto.setCardAmount(BigDecimal.ZERO);
+        List<OrderItemDTO> items = new ArrayList<>();
+        for (int i = 0; i < lines; i++) {
+            Product product = products.get(i % products.size());
+            OrderItemDTO item = new OrderItemDTO();
+            item.setProductId(product.getId());
+            item.setQuantity(1);
+            item.setPricePerUnit(product.getPrice());
+            items.add(item);
+        }
+        dto.setItems(items);
+
+        statistics.clear();
+        transactionTemplate.executeWithoutResult(status -> {
+            entityManager.unwrap(Session.class).setJdbcBatchSize(batchSize);
+            orderService.createOrderWithInvoice(dto);
+        });
+        return statistics.getPrepareStatementCount();
+    }
+}
@@ -0,0 +1,90 @@
+package com.eternalcoders.pointedge.benchmark;
+
+import com.eternalcoders.pointedge.service.BlockInvoiceNumberAllocator;
+import com.eternalcoders.pointedge.service.InvoiceNumberAllocator;
+import com.eternalcoders.pointedge.service.RandomInvoiceNumberAllocator;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Contention benchmark for the invoice number allocators. Block reservations are simulated with
+ * a shared counter and a fixed round-trip delay, standing in for the locked UPDATE on
+ * {@code invoice_number_blocks}. Several allocators share one counter to model multiple app nodes.
+ *
+ * <p>Run with {@code mvn test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=com.eternalcoders.pointedge.benchmark.InvoiceNumberAllocatorBenchmark}.
+ */
+public class InvoiceNumberAllocatorBenchmark {
+    private static final int NUMBERS_PER_THREAD = 20_000;
+    private static final long ROUND_TRIP_NANOS = TimeUnit.MILLISECONDS.toNanos(2);
+
+    public static void main(String[] args) throws Exception {
+        System.out.printf("%-10s %6s %6s %8s %14s %12s%n", "allocator", "nodes", "threads", "block", "numbers/sec", "collisions");
+        for (int threads : new int[]{1, 4, 16, 64}) {
+            run("random", 1, threads, 0);
+            for (int blockSize : new int[]{1, 100, 1000}) {
+                for (int nodes : new int[]{1, 3}) {
+                    run("block", nodes, threads, blockSize);
+                }
+            }
+        }
+    }
+
+    private static void run(String kind, int nodes, int threads, int blockSize) throws InterruptedException {
+        AtomicLong sharedCounter = new AtomicLong(1);
+        Object rowLock = new Object();
+        InvoiceNumberAllocator[] allocators = new InvoiceNumberAllocator[nodes];
+        for (int i = 0; i < nodes; i++) {
+            allocators[i] = "random".equals(kind)
+                    ? new RandomInvoiceNumberAllocator()
+                    : new BlockInvoiceNumberAllocator("INV-S01", blockSize, (prefix, size) -> {
+                        synchronized (rowLock) {
+                            LockSupport.parkNanos(ROUND_TRIP_NANOS);
+                            return sharedCounter.getAndAdd(size);
+                        }
+                    });
+        }
+
+        int perThread = "block".equals(kind) && blockSize == 1 ? NUMBERS_PER_THREAD / 100 : NUMBERS_PER_THREAD;
+        Set<String> seen = ConcurrentHashMap.newKeySet();
+        AtomicLong collisions = new AtomicLong();
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(threads);
+
+        for (int t = 0; t < threads; t++) {
+            InvoiceNumberAllocator allocator = allocators[t % nodes];
+            pool.execute(() -> {
+                try {
+                    start.await();
+                    for (int i = 0; i < perThread; i++) {
+                        if (!seen.add(allocator.nextInvoiceNumber())) {
+                            collisions.incrementAndGet();
+                        }
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } finally {
+                    done.countDown();
+                }
+            });
+        }
+
+        long begin = System.nanoTime();
+        start.countDown();
+        done.await();
+        long elapsed = System.nanoTime() - begin;
+        pool.shutdown();
+
+        double perSecond = (double) perThread * threads / elapsed * TimeUnit.SECONDS.toNanos(1);
+        System.out.printf("%-10s %6d %6d %8s %14.0f %12d%n",
+                kind, nodes, threads, "block".equals(kind) ? blockSize : "-", perSecond, collisions.get());
+    }
+}
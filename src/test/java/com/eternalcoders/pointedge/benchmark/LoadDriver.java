@@ -0,0 +1,125 @@
+package com.eternalcoders.pointedge.benchmark;
+
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Closed-loop HTTP load generator shared by the benchmarks: a fixed number of clients each send
+ * the next request as soon as the previous one returns, for a fixed duration.
+ */
+final class LoadDriver {
+    private final HttpClient client = HttpClient.newBuilder()
+            .connectTimeout(Duration.ofSeconds(10))
+            .build();
+
+    record Result(String name, long requests, long errors, double throughput, double p50Millis, double p99Millis) {
+        @Override
+        public String toString() {
+            return String.format("%-28s %8d req %6d err %10.1f req/s  p50 %8.2f ms  p99 %8.2f ms",
+                    name, requests, errors, throughput, p50Millis, p99Millis);
+        }
+    }
+
+    /**
+     * One kind of request in a weighted mix; {@code weight} is relative to the other steps.
+     */
+    record Step(String name, int weight, Supplier<HttpRequest> request) {
+    }
+
+    Result run(String name, int clients, Duration duration, Supplier<HttpRequest> requests) throws InterruptedException {
+        return runMix(name, clients, duration, List.of(new Step(name, 1, requests))).get(0);
+    }
+
+    /**
+     * Runs a weighted mix of requests and returns one result per step followed by a combined
+     * result named after the mix.
+     */
+    List<Result> runMix(String name, int clients, Duration duration, List<Step> steps) throws InterruptedException {
+        int totalWeight = steps.stream().mapToInt(Step::weight).sum();
+        List<List<Long>> latencies = new ArrayList<>();
+        List<AtomicLong> errors = new ArrayList<>();
+        for (int i = 0; i < steps.size(); i++) {
+            latencies.add(Collections.synchronizedList(new ArrayList<>()));
+            errors.add(new AtomicLong());
+        }
+        long deadline = System.nanoTime() + duration.toNanos();
+
+        ExecutorService pool = Executors.newFixedThreadPool(clients);
+        for (int i = 0; i < clients; i++) {
+            pool.execute(() -> {
+                while (System.nanoTime() < deadline) {
+                    int step = pick(steps, totalWeight);
+                    long start = System.nanoTime();
+                    try {
+                        HttpResponse<Void> response = client.send(steps.get(step).request().get(), HttpResponse.BodyHandlers.discarding());
+                        if (response.statusCode() >= 400) {
+                            errors.get(step).incrementAndGet();
+                        }
+                    } catch (Exception e) {
+                        errors.get(step).incrementAndGet();
+                    }
+                    latencies.get(step).add(System.nanoTime() - start);
+                }
+            });
+        }
+        pool.shutdown();
+        pool.awaitTermination(duration.toSeconds() + 60, TimeUnit.SECONDS);
+
+        List<Result> results = new ArrayList<>();
+        List<Long> all = new ArrayList<>();
+        long allErrors = 0;
+        for (int i = 0; i < steps.size(); i++) {
+            List<Long> stepLatencies = new ArrayList<>(latencies.get(i));
+            all.addAll(stepLatencies);
+            allErrors += errors.get(i).get();
+            if (steps.size() > 1) {
+                results.add(summarize(steps.get(i).name(), stepLatencies, errors.get(i).get(), duration));
+            }
+        }
+        results.add(summarize(name, all, allErrors, duration));
+        return results;
+    }
+
+    private static int pick(List<Step> steps, int totalWeight) {
+        int roll = ThreadLocalRandom.current().nextInt(totalWeight);
+        for (int i = 0; i < steps.size(); i++) {
+            roll -= steps.get(i).weight();
+            if (roll < 0) {
+                return i;
+            }
+        }
+        return steps.size() - 1;
+    }
+
+    private static Result summarize(String name, List<Long> latencies, long errors, Duration duration) {
+        List<Long> sorted = new ArrayList<>(latencies);
+        Collections.sort(sorted);
+        return new Result(
+                name,
+                sorted.size(),
+                errors,
+                sorted.size() / (double) duration.toSeconds(),
+                percentile(sorted, 0.50),
+                percentile(sorted, 0.99)
+        );
+    }
+
+    private static double percentile(List<Long> sorted, double p) {
+        if (sorted.isEmpty()) {
+            return 0;
+        }
+        int index = (int) Math.min(sorted.size() - 1, Math.ceil(p * sorted.size()) - 1);
+        return sorted.get(Math.max(index, 0)) / 1_000_000.0;
+    }
+}
@@ -0,0 +1,14 @@
+package com.eternalcoders.pointedge.benchmark;
+
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = "spring.threads.virtual.enabled=false")
+@ActiveProfiles("benchmark")
+class PlatformThreadLoadBenchmark extends ThreadModeLoadBenchmark {
+    @Override
+    protected String mode() {
+        return "platform threads";
+    }
+}
@@ -0,0 +1,97 @@
+package com.eternalcoders.pointedge.benchmark;
+
+import com.eternalcoders.pointedge.entity.Customer;
+import com.eternalcoders.pointedge.entity.Product;
+import com.eternalcoders.pointedge.repository.CustomerRepository;
+import com.eternalcoders.pointedge.repository.ProductRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.web.server.LocalServerPort;
+
+import java.net.URI;
+import java.net.http.HttpRequest;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Drives the checkout and discount preview endpoints with an increasing number of concurrent
+ * clients. Subclasses pin the request execution mode, so running both prints comparable tables:
+ * {@code mvn test -Dtest='*ThreadLoadBenchmark'}.
+ */
+abstract class ThreadModeLoadBenchmark {
+    private static final Duration RUN_TIME = Duration.ofSeconds(20);
+    // a seeded loyalty customer, so discount previews take the priced path rather than customer-not-found
+    static final String LOAD_PHONE = "0770000001";
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    protected abstract String mode();
+
+    @Test
+    void checkoutAndDiscountPreview() throws InterruptedException {
+        List<Product> products = productRepository.findAll();
+        // plenty of stock so checkouts never fail on shortfalls during the run
+        products.forEach(product -> product.setStockQuantity(1_000_000));
+        productRepository.saveAll(products);
+        seedLoadCustomer(customerRepository);
+
+        LoadDriver driver = new LoadDriver();
+        System.out.println("== " + mode() + " ==");
+        for (int clients : new int[]{10, 50, 200}) {
+            System.out.println(driver.run("checkout x" + clients, clients, RUN_TIME, () -> post("/orders/save", checkoutBody(products))));
+            System.out.println(driver.run("discount preview x" + clients, clients, RUN_TIME,
+                    () -> post("/api/v1/discount/complete-discount-info", discountBody(products))));
+        }
+    }
+
+    private HttpRequest post(String path, String json) {
+        return HttpRequest.newBuilder(URI.create("http://localhost:" + port + path))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(json))
+                .build();
+    }
+
+    static void seedLoadCustomer(CustomerRepository customerRepository) {
+        if (!customerRepository.existsByPhone(LOAD_PHONE)) {
+            customerRepository.save(new Customer(null, "Load Customer", Customer.Title.MR, "load@example.com",
+                    LOAD_PHONE, 3000.0, Customer.Tier.SILVER));
+        }
+    }
+
+    static String checkoutBody(List<Product> products) {
+        StringBuilder items = new StringBuilder();
+        int lines = 1 + ThreadLocalRandom.current().nextInt(10);
+        for (int i = 0; i < lines; i++) {
+            Product product = products.get(ThreadLocalRandom.current().nextInt(products.size()));
+            if (i > 0) {
+                items.append(',');
+            }
+            items.append("{\"productId\":").append(product.getId())
+                    .append(",\"quantity\":1,\"pricePerUnit\":").append(product.getPrice()).append('}');
+        }
+        return "{\"customerName\":\"Load\",\"employeeId\":1,\"cashierName\":\"Load\","
+                + "\"amount\":0,\"totalDiscount\":0,\"total\":0,\"cashAmount\":0,\"cardAmount\":0,"
+                + "\"items\":[" + items + "]}";
+    }
+
+    static String discountBody(List<Product> products) {
+        StringBuilder items = new StringBuilder();
+        int lines = 1 + ThreadLocalRandom.current().nextInt(10);
+        for (int i = 0; i < lines; i++) {
+            Product product = products.get(ThreadLocalRandom.current().nextInt(products.size()));
+            if (i > 0) {
+                items.append(',');
+            }
+            items.append('"').append(product.getId()).append("\":1");
+        }
+        return "{\"phone\":\"" + LOAD_PHONE + "\",\"items\":{" + items + "}}";
+    }
+}
@@ -0,0 +1,144 @@
+package com.eternalcoders.pointedge.benchmark;
+
+import com.eternalcoders.pointedge.entity.Product;
+import com.eternalcoders.pointedge.repository.CustomerRepository;
+import com.eternalcoders.pointedge.repository.ProductRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Replays a store's till traffic against the real controllers on the in-memory "benchmark"
+ * database: barcode scans, discount previews, checkouts, return-desk invoice lookups and
+ * dashboard polling. Prints p50/p99 latency and throughput per request kind and for the whole
+ * mix, followed by JDBC statements per request of each kind. Use it as the baseline every
+ * performance change is measured against.
+ *
+ * <p>Not part of the regular suite; run with
+ * {@code mvn test -Dtest=TillMixLoadBenchmark -Dloadtest.clients=20 -Dloadtest.seconds=60}.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("benchmark")
+class TillMixLoadBenchmark {
+    private static final Pattern INVOICE_NUMBER = Pattern.compile("\"invoiceNumber\"\\s*:\\s*\"([^\"]+)\"");
+    private static final int SEED_ORDERS = 200;
+    private static final int STATEMENT_SAMPLES = 50;
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private final HttpClient client = HttpClient.newHttpClient();
+
+    @Test
+    void tillMix() throws Exception {
+        List<Product> products = productRepository.findAll();
+        // plenty of stock so checkouts never fail on shortfalls during the run
+        products.forEach(product -> product.setStockQuantity(1_000_000));
+        productRepository.saveAll(products);
+        ThreadModeLoadBenchmark.seedLoadCustomer(customerRepository);
+
+        // earlier sales for the return desk and the dashboards to look at
+        List<String> invoiceNumbers = new ArrayList<>();
+        for (int i = 0; i < SEED_ORDERS; i++) {
+            String body = client.send(post("/orders/save", ThreadModeLoadBenchmark.checkoutBody(products)),
+                    HttpResponse.BodyHandlers.ofString()).body();
+            Matcher matcher = INVOICE_NUMBER.matcher(body);
+            if (matcher.find()) {
+                invoiceNumbers.add(matcher.group(1));
+            }
+        }
+
+        List<LoadDriver.Step> mix = List.of(
+                new LoadDriver.Step("scan", 50, () -> get("/products/" + random(products).getBarcode())),
+                new LoadDriver.Step("discount preview", 20,
+                        () -> post("/api/v1/discount/complete-discount-info", ThreadModeLoadBenchmark.discountBody(products))),
+                new LoadDriver.Step("checkout", 15, () -> post("/orders/save", ThreadModeLoadBenchmark.checkoutBody(products))),
+                new LoadDriver.Step("return lookup", 5, () -> returnLookup(random(invoiceNumbers))),
+                new LoadDriver.Step("dashboard poll", 10, this::dashboardPoll)
+        );
+
+        int clients = Integer.getInteger("loadtest.clients", 20);
+        Duration runTime = Duration.ofSeconds(Integer.getInteger("loadtest.seconds", 60));
+
+        System.out.println("== till mix, " + clients + " clients, " + runTime.toSeconds() + "s ==");
+        new LoadDriver().runMix("till mix", clients, runTime, mix).forEach(System.out::println);
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+        System.out.println("== JDBC statements per request ==");
+        for (LoadDriver.Step step : mix) {
+            System.out.printf("%-28s %8.1f%n", step.name(), statementsPerRequest(statistics, step.request()));
+        }
+    }
+
+    // requests are issued one at a time here so the statement counter is not shared with other calls
+    private double statementsPerRequest(Statistics statistics, Supplier<HttpRequest> request) throws Exception {
+        long before = statistics.getPrepareStatementCount();
+        for (int i = 0; i < STATEMENT_SAMPLES; i++) {
+            client.send(request.get(), HttpResponse.BodyHandlers.discarding());
+        }
+        return (statistics.getPrepareStatementCount() - before) / (double) STATEMENT_SAMPLES;
+    }
+
+    // the return desk looks up the invoice, then its history and any open refund requests
+    private HttpRequest returnLookup(String invoiceNumber) {
+        String[] paths = {
+                "/api/return-exchange/invoice/" + invoiceNumber,
+                "/api/return-exchange/history/" + invoiceNumber,
+                "/api/return-exchange/refund-requests/invoice/" + invoiceNumber + "/details"
+        };
+        return get(paths[ThreadLocalRandom.current().nextInt(paths.length)]);
+    }
+
+    private HttpRequest dashboardPoll() {
+        String[] paths = {
+                "/api/dashboard/employee-stats",
+                "/api/analytics/sales-over-time",
+                "/api/analytics/top-selling-products",
+                "/api/v1/discount/analytics/orders/count",
+                "/orders/stats"
+        };
+        return get(paths[ThreadLocalRandom.current().nextInt(paths.length)]);
+    }
+
+    private HttpRequest get(String path) {
+        return HttpRequest.newBuilder(URI.create("http://localhost:" + port + path)).GET().build();
+    }
+
+    private HttpRequest post(String path, String json) {
+        return HttpRequest.newBuilder(URI.create("http://localhost:" + port + path))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(json))
+                .build();
+    }
+
+    private static <T> T random(List<T> values) {
+        return values.get(ThreadLocalRandom.current().nextInt(values.size()));
+    }
+}
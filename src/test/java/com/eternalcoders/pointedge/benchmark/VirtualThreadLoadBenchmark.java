@@ -0,0 +1,14 @@
+package com.eternalcoders.pointedge.benchmark;
+
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = "spring.threads.virtual.enabled=true")
+@ActiveProfiles("benchmark")
+class VirtualThreadLoadBenchmark extends ThreadModeLoadBenchmark {
+    @Override
+    protected String mode() {
+        return "virtual threads + connection bulkhead";
+    }
+}
@@ -0,0 +1,160 @@
+package com.eternalcoders.pointedge.service;
+
+import com.eternalcoders.pointedge.dto.DailySalesDTO;
+import com.eternalcoders.pointedge.dto.SalesSeriesDTO;
+import com.eternalcoders.pointedge.dto.SalesSeriesDTO.Bucket;
+import com.eternalcoders.pointedge.entity.Order;
+import com.eternalcoders.pointedge.entity.OrderItem;
+import com.eternalcoders.pointedge.entity.Product;
+import com.eternalcoders.pointedge.repository.OrderRepository;
+import com.eternalcoders.pointedge.repository.ProductRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.catchThrowableOfType;
+import static org.assertj.core.api.Assertions.tuple;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class AnalyticsServiceSalesSeriesTest {
+    private static final ZoneId SERVER = ZoneId.systemDefault();
+
+    // server-local order times; nothing else in the test data is this old
+    private static final LocalDateTime MORNING = LocalDateTime.of(2020, 3, 10, 10, 0);
+    private static final LocalDateTime LATE_EVENING = LocalDateTime.of(2020, 3, 10, 23, 0);
+    private static final LocalDateTime NEXT_NIGHT = LocalDateTime.of(2020, 3, 11, 1, 0);
+    private static final LocalDateTime LATER = LocalDateTime.of(2020, 3, 20, 12, 0);
+
+    private static boolean seeded;
+
+    @Autowired
+    private AnalyticsService analyticsService;
+
+    @Autowired
+    private SalesRollupService salesRollupService;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void seedOrders() {
+        if (seeded) {
+            return;
+        }
+        Product product = productRepository.findAll().get(0);
+        order(product, MORNING, 100);
+        order(product, LATE_EVENING, 50);
+        order(product, NEXT_NIGHT, 25);
+        order(product, LATER, 10);
+        salesRollupService.rebuild();
+        seeded = true;
+    }
+
+    @Test
+    void widensTheRangeToWholeBucketsAndReportsEmptyOnesAsZero() {
+        SalesSeriesDTO series = analyticsService.getSalesSeries(
+                MORNING.plusMinutes(30), MORNING.plusHours(2).plusMinutes(15), Bucket.HOUR, SERVER);
+
+        assertThat(series.getBucket()).isEqualTo(Bucket.HOUR);
+        assertThat(series.getFrom()).isEqualTo(MORNING);
+        assertThat(series.getTo()).isEqualTo(MORNING.plusHours(3));
+        assertThat(series.getPoints())
+                .extracting(DailySalesDTO::getDate, DailySalesDTO::getTotalSales)
+                .containsExactly(
+                        tuple(MORNING, 100.0),
+                        tuple(MORNING.plusHours(1), 0.0),
+                        tuple(MORNING.plusHours(2), 0.0));
+    }
+
+    @Test
+    void daysFollowTheServerClockFromTheRollup() {
+        SalesSeriesDTO series = analyticsService.getSalesSeries(
+                LocalDateTime.of(2020, 3, 10, 0, 0), LocalDateTime.of(2020, 3, 12, 0, 0), Bucket.DAY, SERVER);
+
+        assertThat(series.getPoints())
+                .extracting(DailySalesDTO::getDate, DailySalesDTO::getTotalSales)
+                .containsExactly(
+                        tuple(LocalDateTime.of(2020, 3, 10, 0, 0), 150.0),
+                        tuple(LocalDateTime.of(2020, 3, 11, 0, 0), 25.0));
+    }
+
+    @Test
+    void daysFollowTheRequestedZoneWhenItsOffsetDiffers() {
+        // five and a half hours ahead of the server, so the late evening order falls on the next day
+        int serverOffset = SERVER.getRules().getOffset(MORNING).getTotalSeconds();
+        ZoneId ahead = ZoneOffset.ofTotalSeconds(serverOffset + 5 * 3600 + 1800);
+
+        SalesSeriesDTO series = analyticsService.getSalesSeries(
+                LocalDateTime.of(2020, 3, 10, 0, 0), LocalDateTime.of(2020, 3, 12, 0, 0), Bucket.DAY, ahead);
+
+        assertThat(series.getZone()).isEqualTo(ahead.getId());
+        assertThat(series.getPoints())
+                .extracting(DailySalesDTO::getDate, DailySalesDTO::getTotalSales)
+                .containsExactly(
+                        tuple(LocalDateTime.of(2020, 3, 10, 0, 0), 100.0),
+                        tuple(LocalDateTime.of(2020, 3, 11, 0, 0), 75.0));
+    }
+
+    @Test
+    void escalatesToACoarserBucketWhenTheRangeHasTooManyPoints() {
+        // 1440 minutes is over the 500 point limit, 24 hours is not
+        SalesSeriesDTO series = analyticsService.getSalesSeries(
+                LocalDateTime.of(2020, 3, 10, 0, 0), LocalDateTime.of(2020, 3, 11, 0, 0), Bucket.MINUTE, SERVER);
+
+        assertThat(series.getRequestedBucket()).isEqualTo(Bucket.MINUTE);
+        assertThat(series.getBucket()).isEqualTo(Bucket.HOUR);
+        assertThat(series.getPoints()).hasSize(24);
+        assertThat(series.getPoints().stream().mapToDouble(DailySalesDTO::getTotalSales).sum()).isEqualTo(150.0);
+    }
+
+    @Test
+    void movesAStartCenturiesBeforeTheFirstSaleUpToIt() {
+        SalesSeriesDTO series = analyticsService.getSalesSeries(
+                LocalDateTime.of(1900, 1, 1, 0, 0), LocalDateTime.of(2020, 4, 1, 0, 0), Bucket.DAY, SERVER);
+
+        assertThat(series.getBucket()).isEqualTo(Bucket.DAY);
+        assertThat(series.getFrom()).isEqualTo(LocalDateTime.of(2020, 3, 10, 0, 0));
+        assertThat(series.getPoints()).hasSize(22);
+        assertThat(series.getPoints().stream().mapToDouble(DailySalesDTO::getTotalSales).sum()).isEqualTo(185.0);
+    }
+
+    @Test
+    void rejectsARangeWithTooManyMonthsEvenFromTheFirstSale() {
+        ResponseStatusException exception = catchThrowableOfType(
+                () -> analyticsService.getSalesSeries(
+                        LocalDateTime.of(2020, 3, 1, 0, 0), LocalDateTime.of(2099, 1, 1, 0, 0), Bucket.MONTH, SERVER),
+                ResponseStatusException.class);
+
+        assertThat(exception).isNotNull();
+        assertThat(exception.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+    }
+
+    private void order(Product product, LocalDateTime at, double amount) {
+        Order order = new Order();
+        order.setAmount(amount);
+        order.setTotal(amount);
+        order.setOrderItems(new ArrayList<>(List.of(new OrderItem(null, amount, 1, order, product))));
+        Order saved = orderRepository.save(order);
+        // orderDate is a creation timestamp, so backdate the row afterwards
+        jdbcTemplate.update("UPDATE orders SET order_date = ? WHERE id = ?", at, saved.getId());
+    }
+}
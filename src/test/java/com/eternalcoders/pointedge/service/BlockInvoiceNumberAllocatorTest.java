@@ -0,0 +1,108 @@
+package com.eternalcoders.pointedge.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class BlockInvoiceNumberAllocatorTest {
+    private static final String PREFIX = "INV-S01";
+
+    // stands in for the invoice_number_blocks row shared by every node
+    private final AtomicLong counter = new AtomicLong(1);
+    private final AtomicInteger reservations = new AtomicInteger();
+
+    private final BlockInvoiceNumberAllocator.BlockSource source = (prefix, size) -> {
+        assertThat(prefix).isEqualTo(PREFIX);
+        reservations.incrementAndGet();
+        return counter.getAndAdd(size);
+    };
+
+    @Test
+    void numbersArePrefixedZeroPaddedAndIncreasing() {
+        BlockInvoiceNumberAllocator allocator = new BlockInvoiceNumberAllocator(PREFIX, 10, source);
+
+        assertThat(allocator.nextInvoiceNumber()).isEqualTo("INV-S01-0000000001");
+        assertThat(allocator.nextInvoiceNumber()).isEqualTo("INV-S01-0000000002");
+        assertThat(allocator.nextInvoiceNumber()).isEqualTo("INV-S01-0000000003");
+    }
+
+    @Test
+    void reservesTheNextBlockOnlyWhenTheCurrentOneRunsOut() {
+        BlockInvoiceNumberAllocator allocator = new BlockInvoiceNumberAllocator(PREFIX, 3, source);
+
+        List<String> numbers = new ArrayList<>();
+        for (int i = 0; i < 7; i++) {
+            numbers.add(allocator.nextInvoiceNumber());
+        }
+
+        assertThat(reservations).hasValue(3);
+        assertThat(numbers).containsExactly(
+                "INV-S01-0000000001", "INV-S01-0000000002", "INV-S01-0000000003",
+                "INV-S01-0000000004", "INV-S01-0000000005", "INV-S01-0000000006",
+                "INV-S01-0000000007");
+    }
+
+    @Test
+    void nodesSharingTheCounterGetDisjointBlocks() {
+        BlockInvoiceNumberAllocator first = new BlockInvoiceNumberAllocator(PREFIX, 5, source);
+        BlockInvoiceNumberAllocator second = new BlockInvoiceNumberAllocator(PREFIX, 5, source);
+
+        assertThat(first.nextInvoiceNumber()).isEqualTo("INV-S01-0000000001");
+        assertThat(second.nextInvoiceNumber()).isEqualTo("INV-S01-0000000006");
+        assertThat(first.nextInvoiceNumber()).isEqualTo("INV-S01-0000000002");
+        assertThat(second.nextInvoiceNumber()).isEqualTo("INV-S01-0000000007");
+    }
+
+    @Test
+    void concurrentCallersGetUniqueNumbersIncreasingPerCaller() throws Exception {
+        int threads = 8;
+        int perThread = 2_000;
+        BlockInvoiceNumberAllocator allocator = new BlockInvoiceNumberAllocator(PREFIX, 7, source);
+
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        List<Future<List<String>>> results = new ArrayList<>();
+        try {
+            for (int t = 0; t < threads; t++) {
+                Callable<List<String>> caller = () -> {
+                    List<String> numbers = new ArrayList<>(perThread);
+                    for (int i = 0; i < perThread; i++) {
+                        numbers.add(allocator.nextInvoiceNumber());
+                    }
+                    return numbers;
+                };
+                results.add(pool.submit(caller));
+            }
+
+            Set<String> all = new HashSet<>();
+            for (Future<List<String>> result : results) {
+                List<String> numbers = result.get();
+                // zero padding makes string order numeric order
+                assertThat(numbers).isSorted();
+                all.addAll(numbers);
+            }
+            assertThat(all).hasSize(threads * perThread);
+            // no block is wasted while the node keeps running
+            assertThat(counter.get() - 1).isLessThan(threads * perThread + 7);
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    @Test
+    void rejectsEmptyBlocks() {
+        assertThatThrownBy(() -> new BlockInvoiceNumberAllocator(PREFIX, 0, source))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
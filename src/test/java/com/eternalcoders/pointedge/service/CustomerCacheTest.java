@@ -0,0 +1,52 @@
+package com.eternalcoders.pointedge.service;
+
+import com.eternalcoders.pointedge.entity.Customer;
+import com.eternalcoders.pointedge.repository.CustomerRepository;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class CustomerCacheTest {
+    private static final String PHONE = "0770000014";
+    private static final Duration TTL = Duration.ofMillis(300);
+
+    private final CustomerRepository customerRepository = mock(CustomerRepository.class);
+    private final CustomerCache cache = new CustomerCache(customerRepository, 100, TTL);
+
+    @Test
+    void servesCachedCustomersWithinTheTtl() {
+        when(customerRepository.findByPhone(PHONE)).thenReturn(Optional.of(customer(10.0)));
+
+        cache.findByPhone(PHONE);
+        cache.updatePoints(PHONE, 12.0);
+
+        assertThat(cache.findByPhone(PHONE)).hasValueSatisfying(entry -> assertThat(entry.points()).isEqualTo(12.0));
+        verify(customerRepository, times(1)).findByPhone(PHONE);
+    }
+
+    @Test
+    void rereadsCustomersChangedOnAnotherNodeOnceTheTtlIsOver() throws InterruptedException {
+        when(customerRepository.findByPhone(PHONE)).thenReturn(Optional.of(customer(10.0)));
+        cache.findByPhone(PHONE);
+        // a local points update does not restart the TTL
+        cache.updatePoints(PHONE, 12.0);
+
+        when(customerRepository.findByPhone(PHONE)).thenReturn(Optional.of(customer(40.0)));
+        Thread.sleep(TTL.toMillis() + 50);
+
+        assertThat(cache.findByPhone(PHONE)).hasValueSatisfying(entry -> assertThat(entry.points()).isEqualTo(40.0));
+        verify(customerRepository, times(2)).findByPhone(PHONE);
+    }
+
+    private static Customer customer(double points) {
+        return new Customer(14L, "Cache Customer", Customer.Title.MRS, "cache@example.com", PHONE, points,
+                Customer.Tier.SILVER);
+    }
+}
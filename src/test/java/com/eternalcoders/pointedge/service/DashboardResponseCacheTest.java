@@ -0,0 +1,61 @@
+package com.eternalcoders.pointedge.service;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.core.env.StandardEnvironment;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class DashboardResponseCacheTest {
+    private static final Duration INTERVAL = Duration.ofMillis(300);
+
+    private final DashboardResponseCache cache =
+            new DashboardResponseCache(new StandardEnvironment(), Duration.ofMinutes(5), INTERVAL);
+
+    private final AtomicInteger loads = new AtomicInteger();
+
+    @Test
+    void servesCachedResponsesUntilTheirGroupIsInvalidated() {
+        load("analytics.revenue");
+        load("order-details.orders-count");
+
+        cache.onOrderDetailsRecorded(null);
+
+        assertThat(load("analytics.revenue")).isEqualTo(1);
+        assertThat(load("order-details.orders-count")).isEqualTo(3);
+    }
+
+    @Test
+    void ordersDoNotInvalidateOrderDetailsEndpoints() {
+        load("order-details.orders-count");
+        load("dashboard.employee-stats");
+
+        cache.onOrderRecorded(null);
+
+        assertThat(load("order-details.orders-count")).isEqualTo(1);
+        assertThat(load("dashboard.employee-stats")).isEqualTo(3);
+    }
+
+    @Test
+    void invalidatesAGroupAtMostOncePerInterval() throws InterruptedException {
+        load("performance.search");
+        cache.invalidate("performance");
+        assertThat(load("performance.search")).isEqualTo(2);
+
+        // changes right after an invalidation keep the fresh response until the interval is over
+        cache.invalidate("performance");
+        cache.invalidate("performance");
+        assertThat(load("performance.search")).isEqualTo(2);
+
+        Thread.sleep(INTERVAL.toMillis() + 50);
+        assertThat(load("performance.search")).isEqualTo(3);
+        assertThat(load("performance.search")).isEqualTo(3);
+    }
+
+    // the load count when the response was computed
+    private int load(String endpoint) {
+        return cache.get(endpoint, loads::incrementAndGet);
+    }
+}
@@ -0,0 +1,99 @@
+package com.eternalcoders.pointedge.service;
+
+import com.eternalcoders.pointedge.entity.Discount;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+
+class DiscountWindowTest {
+    private static final LocalDateTime START = LocalDateTime.of(2025, 1, 31, 10, 0);
+
+    @ParameterizedTest
+    @CsvSource({
+            "P30D,       2025-03-02T10:00",
+            "p1m,        2025-02-28T10:00",
+            "PT12H,      2025-01-31T22:00",
+            "PT90M,      2025-01-31T11:30",
+            "30 days,    2025-03-02T10:00",
+            "1 day,      2025-02-01T10:00",
+            "3d,         2025-02-03T10:00",
+            "2 weeks,    2025-02-14T10:00",
+            "1w,         2025-02-07T10:00",
+            "1 month,    2025-02-28T10:00",
+            "2 mo,       2025-03-31T10:00",
+            "1 year,     2026-01-31T10:00",
+            "6 hours,    2025-01-31T16:00",
+            "2h,         2025-01-31T12:00",
+            "45 minutes, 2025-01-31T10:45",
+            "  7 DAYS ,  2025-02-07T10:00",
+            "30,         2025-03-02T10:00",
+            "0,          2025-01-31T10:00",
+    })
+    void readsEveryAcceptedDurationForm(String duration, LocalDateTime expectedEnd) {
+        DiscountWindow window = DiscountWindow.of(START, duration);
+
+        assertThat(window.start()).isEqualTo(START);
+        assertThat(window.end()).isEqualTo(expectedEnd);
+    }
+
+    @Test
+    void missingDurationOrStartIsOpenEnded() {
+        assertThat(DiscountWindow.of(START, null).end()).isNull();
+        assertThat(DiscountWindow.of(START, "  ").end()).isNull();
+
+        DiscountWindow noStart = DiscountWindow.of(null, "30 days");
+        assertThat(noStart.start()).isEqualTo(LocalDateTime.MIN);
+        assertThat(noStart.end()).isNull();
+        assertThat(noStart.contains(START)).isTrue();
+    }
+
+    @ParameterizedTest
+    @CsvSource({"forever", "30 fortnights", "P", "P1X", "-3 days", "days 30", "99999999999999999999 days"})
+    void rejectsUnreadableDurations(String duration) {
+        assertThatIllegalArgumentException()
+                .isThrownBy(() -> DiscountWindow.of(START, duration))
+                .withMessageContaining("duration");
+    }
+
+    @Test
+    void ruleIndexTreatsUnreadableDurationAsOpenEnded() {
+        Discount discount = new Discount();
+        discount.setId(7L);
+        discount.setStartDate(START);
+        discount.setDuration("until further notice");
+
+        DiscountWindow window = DiscountRuleIndex.windowOf(discount);
+
+        assertThat(window.start()).isEqualTo(START);
+        assertThat(window.end()).isNull();
+        assertThat(window.contains(START.plusYears(10))).isTrue();
+        assertThat(window.nextBoundaryAfter(START)).isNull();
+    }
+
+    @Test
+    void containsIncludesStartAndExcludesEnd() {
+        DiscountWindow window = DiscountWindow.of(START, "1 day");
+
+        assertThat(window.contains(START.minusNanos(1))).isFalse();
+        assertThat(window.contains(START)).isTrue();
+        assertThat(window.contains(window.end().minusNanos(1))).isTrue();
+        assertThat(window.contains(window.end())).isFalse();
+    }
+
+    @Test
+    void nextBoundaryIsStrictlyAfterTheGivenTime() {
+        DiscountWindow window = DiscountWindow.of(START, "1 day");
+        LocalDateTime end = START.plusDays(1);
+
+        assertThat(window.nextBoundaryAfter(START.minusNanos(1))).isEqualTo(START);
+        assertThat(window.nextBoundaryAfter(START)).isEqualTo(end);
+        assertThat(window.nextBoundaryAfter(end.minusNanos(1))).isEqualTo(end);
+        assertThat(window.nextBoundaryAfter(end)).isNull();
+        assertThat(DiscountWindow.of(START, null).nextBoundaryAfter(START)).isNull();
+    }
+}
@@ -0,0 +1,65 @@
+package com.eternalcoders.pointedge.service;
+
+import com.eternalcoders.pointedge.repository.InvoiceNumberBlockRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class InvoiceNumberBlockServiceTest {
+    @Autowired
+    private InvoiceNumberBlockService invoiceNumberBlockService;
+
+    @Autowired
+    private InvoiceNumberBlockRepository invoiceNumberBlockRepository;
+
+    @Test
+    void firstReservationCreatesTheCounterAndLaterOnesContinueIt() {
+        String prefix = "INV-TEST-FIRST";
+
+        assertThat(invoiceNumberBlockService.reserveBlock(prefix, 100)).isEqualTo(1L);
+        assertThat(invoiceNumberBlockService.reserveBlock(prefix, 100)).isEqualTo(101L);
+        assertThat(invoiceNumberBlockService.reserveBlock(prefix, 5)).isEqualTo(201L);
+        assertThat(invoiceNumberBlockRepository.findById(prefix))
+                .hasValueSatisfying(block -> assertThat(block.getNextValue()).isEqualTo(206L));
+    }
+
+    @Test
+    void nodesRacingForANewPrefixGetDisjointBlocks() throws Exception {
+        String prefix = "INV-TEST-RACE";
+        int nodes = 4;
+
+        ExecutorService pool = Executors.newFixedThreadPool(nodes);
+        try {
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<Long>> starts = new ArrayList<>();
+            for (int i = 0; i < nodes; i++) {
+                starts.add(pool.submit(() -> {
+                    start.await();
+                    return invoiceNumberBlockService.reserveBlock(prefix, 10);
+                }));
+            }
+            start.countDown();
+
+            List<Long> firstNumbers = new ArrayList<>();
+            for (Future<Long> future : starts) {
+                firstNumbers.add(future.get(30, TimeUnit.SECONDS));
+            }
+            assertThat(firstNumbers).containsExactlyInAnyOrder(1L, 11L, 21L, 31L);
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+}
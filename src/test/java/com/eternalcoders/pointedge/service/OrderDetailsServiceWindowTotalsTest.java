@@ -0,0 +1,169 @@
+package com.eternalcoders.pointedge.service;
+
+import com.eternalcoders.pointedge.entity.Customer;
+import com.eternalcoders.pointedge.entity.OrderDetails;
+import com.eternalcoders.pointedge.repository.CustomerRepository;
+import com.eternalcoders.pointedge.repository.OrderDetailsRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+// Compares the single-pass dashboard windows with the per-window queries they replaced
+@SpringBootTest
+@ActiveProfiles("test")
+class OrderDetailsServiceWindowTotalsTest {
+    private static final String PHONE = "0770000022";
+
+    private static boolean seeded;
+
+    @Autowired
+    private OrderDetailsService orderDetailsService;
+
+    @Autowired
+    private OrderDetailsRepository orderDetailsRepository;
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @BeforeEach
+    void seedOrderDetails() {
+        if (seeded) {
+            return;
+        }
+        Customer customer = customerRepository.save(new Customer(null, "Window Customer", Customer.Title.MR,
+                "window@example.com", PHONE, 0.0, Customer.Tier.GOLD));
+        LocalDateTime now = LocalDateTime.now();
+        List<OrderDetails> rows = new ArrayList<>();
+
+        // one order per slice, a few minutes clear of every boundary
+        rows.add(row(customer, "W-1", now.minusHours(2), 100.0, 5.0, 0.0, 2.0));
+        rows.add(row(customer, "W-1", now.minusHours(2), 40.0, 0.0, 3.0, 0.0));
+        rows.add(row(customer, "W-2", now.minusDays(3), 80.0, 0.0, 0.0, 4.0));
+        rows.add(row(customer, "W-3", now.minusDays(20), 60.0, 6.0, 1.0, 0.0));
+        rows.add(row(customer, "W-4", now.minusDays(200), 30.0, 0.0, 0.0, 0.0));
+
+        // orders from before checkout stamped the whole order once, one row each side of a boundary
+        rows.add(row(customer, "W-5", now.minusHours(24).plusMinutes(5), 20.0, 1.0, 0.0, 0.0));
+        rows.add(row(customer, "W-5", now.minusHours(24).minusMinutes(5), 25.0, 0.0, 0.0, 1.5));
+        rows.add(row(customer, "W-6", now.minusDays(30).plusMinutes(5), 15.0, 0.0, 2.0, 0.0));
+        rows.add(row(customer, "W-6", now.minusDays(30).minusMinutes(5), 10.0, 0.5, 0.0, 0.0));
+
+        // older than a year, outside every window
+        rows.add(row(customer, "W-7", now.minusYears(1).minusDays(2), 90.0, 9.0, 0.0, 0.0));
+        orderDetailsRepository.saveAll(rows);
+        seeded = true;
+    }
+
+    @Test
+    void orderCountsMatchThePerWindowQueries() {
+        Map<String, Long> counts = orderDetailsService.getOrderCounts();
+        LocalDateTime now = LocalDateTime.now();
+
+        windows(now).forEach((period, start) -> assertThat(counts.get(period)).as(period)
+                .isEqualTo(orderDetailsRepository.countTotalOrdersInDateRange(start, now)));
+    }
+
+    @Test
+    void ordersStraddlingABoundaryAreCountedOncePerWindow() {
+        Map<String, Long> counts = orderDetailsService.getOrderCounts();
+        LocalDateTime now = LocalDateTime.now();
+
+        // W-5 has a row on both sides of the 24 hour boundary and must not be counted twice in 7 days
+        assertThat(counts.get("last7Days"))
+                .isEqualTo(orderDetailsRepository.countTotalOrdersInDateRange(now.minusDays(7), now))
+                .isLessThan(orderDetailsRepository.countTotalOrdersInDateRange(now.minusHours(24), now)
+                        + orderDetailsRepository.countTotalOrdersInDateRange(now.minusDays(7), now.minusHours(24)));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void discountCountsMatchThePerWindowQueries() {
+        Map<String, Map<String, Long>> counts = orderDetailsService.getDiscountCountsByType();
+        LocalDateTime now = LocalDateTime.now();
+
+        windows(now).forEach((period, start) -> {
+            assertThat(counts.get("ITEM").get(period)).as(period)
+                    .isEqualTo(orderDetailsRepository.countOrdersWithItemDiscountInDateRange(start, now));
+            assertThat(counts.get("CATEGORY").get(period)).as(period)
+                    .isEqualTo(orderDetailsRepository.countOrdersWithCategoryDiscountInDateRange(start, now));
+            assertThat(counts.get("LOYALTY").get(period)).as(period)
+                    .isEqualTo(orderDetailsRepository.countOrdersWithLoyaltyDiscountInDateRange(start, now));
+        });
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void discountTotalsMatchThePerWindowQueries() {
+        Map<String, Object> totals = orderDetailsService.getAllDiscountTotals();
+        LocalDateTime now = LocalDateTime.now();
+
+        windows(now).forEach((period, start) -> {
+            Map<String, Double> periodTotals = (Map<String, Double>) totals.get(period);
+            assertSum(periodTotals.get("loyaltyDiscount"), orderDetailsRepository.sumLoyaltyDiscountInDateRange(start, now));
+            assertSum(periodTotals.get("itemDiscount"), orderDetailsRepository.sumItemDiscountInDateRange(start, now));
+            assertSum(periodTotals.get("categoryDiscount"), orderDetailsRepository.sumCategoryDiscountInDateRange(start, now));
+            assertSum(periodTotals.get("totalDiscount"), orderDetailsRepository.sumTotalDiscountInDateRange(start, now));
+        });
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void summaryMetricsMatchThePerWindowQueries() {
+        Map<String, Object> metrics = orderDetailsService.getOrderSummaryMetrics();
+        LocalDateTime now = LocalDateTime.now();
+
+        windows(now).forEach((period, start) -> {
+            Map<String, Object> periodMetrics = (Map<String, Object>) metrics.get(period);
+            assertSum(periodMetrics.get("totalPointsEarned"), orderDetailsRepository.sumPointsEarnedInDateRange(start, now));
+            assertSum(periodMetrics.get("totalAmount"), orderDetailsRepository.sumTotalAmountInDateRange(start, now));
+            assertSum(periodMetrics.get("totalLoyaltyAmount"),
+                    orderDetailsRepository.sumAmountWithLoyaltyDiscountInDateRange(start, now));
+            assertSum(periodMetrics.get("totalItemAmount"),
+                    orderDetailsRepository.sumAmountWithItemDiscountInDateRange(start, now));
+            assertSum(periodMetrics.get("totalCategoryAmount"),
+                    orderDetailsRepository.sumAmountWithCategoryDiscountInDateRange(start, now));
+        });
+    }
+
+    private static Map<String, LocalDateTime> windows(LocalDateTime now) {
+        Map<String, LocalDateTime> windows = new LinkedHashMap<>();
+        windows.put("last24Hours", now.minusHours(24));
+        windows.put("last7Days", now.minusDays(7));
+        windows.put("last30Days", now.minusDays(30));
+        windows.put("lastYear", now.minusYears(1));
+        return windows;
+    }
+
+    // the old code reported an empty window as 0.0, and slices add up in a different order
+    private static void assertSum(Object actual, Double expected) {
+        assertThat((Double) actual).isCloseTo(expected != null ? expected : 0.0, within(1e-9));
+    }
+
+    private static OrderDetails row(Customer customer, String orderId, LocalDateTime datetime, double amount,
+                                    double itemDiscount, double categoryDiscount, double loyaltyDiscount) {
+        return OrderDetails.builder()
+                .customer(customer)
+                .orderId(orderId)
+                .itemId(1L)
+                .datetime(datetime)
+                .amount(amount)
+                .itemDiscount(itemDiscount)
+                .categoryDiscount(categoryDiscount)
+                .loyaltyDiscount(loyaltyDiscount)
+                .totalDiscount(itemDiscount + categoryDiscount + loyaltyDiscount)
+                .loyaltyTier("GOLD")
+                .pointsEarned(amount / 100)
+                .build();
+    }
+}
@@ -0,0 +1,109 @@
+package com.eternalcoders.pointedge.service;
+
+import com.eternalcoders.pointedge.dto.StockShortfallDTO;
+import com.eternalcoders.pointedge.entity.Order;
+import com.eternalcoders.pointedge.entity.OrderItem;
+import com.eternalcoders.pointedge.entity.Product;
+import com.eternalcoders.pointedge.exception.InsufficientStockException;
+import com.eternalcoders.pointedge.repository.BrandRepository;
+import com.eternalcoders.pointedge.repository.CategoryRepository;
+import com.eternalcoders.pointedge.repository.ProductRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.catchThrowableOfType;
+import static org.assertj.core.api.Assertions.tuple;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class OrderServiceStockReservationTest {
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private BrandRepository brandRepository;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Test
+    void shortCartReservesNothingAndReportsEveryShortProduct() {
+        Product plenty = product("Reservation plenty", 10);
+        Product few = product("Reservation few", 1);
+        Product none = product("Reservation none", 0);
+
+        Map<Long, Long> cart = new LinkedHashMap<>();
+        cart.put(plenty.getId(), 2L);
+        cart.put(few.getId(), 3L);
+        cart.put(none.getId(), 1L);
+
+        InsufficientStockException exception =
+                catchThrowableOfType(() -> orderService.reserveStock(cart), InsufficientStockException.class);
+
+        assertThat(exception).isNotNull();
+        assertThat(exception.getShortfalls())
+                .extracting(StockShortfallDTO::getProductId, StockShortfallDTO::getRequested, StockShortfallDTO::getAvailable)
+                .containsExactlyInAnyOrder(
+                        tuple(few.getId(), 3L, 1L),
+                        tuple(none.getId(), 1L, 0L));
+        assertThat(stockOf(plenty)).isEqualTo(10);
+        assertThat(stockOf(few)).isEqualTo(1);
+        assertThat(stockOf(none)).isZero();
+    }
+
+    @Test
+    void fullCartDecrementsEveryLine() {
+        Product first = product("Reservation first", 5);
+        Product second = product("Reservation second", 7);
+
+        orderService.reserveStock(Map.of(first.getId(), 5L, second.getId(), 2L));
+
+        assertThat(stockOf(first)).isZero();
+        assertThat(stockOf(second)).isEqualTo(5);
+    }
+
+    @Test
+    void addOrderAcceptsLinesThatOnlyCarryTheProductId() {
+        Product stocked = product("Reservation by id", 4);
+        Product reference = new Product();
+        reference.setId(stocked.getId());
+
+        OrderItem item = new OrderItem();
+        item.setProduct(reference);
+        item.setQuantity(3);
+        item.setPricePerUnit(100);
+        Order order = new Order();
+        order.setOrderItems(new ArrayList<>(List.of(item)));
+
+        Order saved = orderService.addOrder(order);
+
+        assertThat(saved.getOrderItems().get(0).getProduct().getCategory().getId())
+                .isEqualTo(stocked.getCategory().getId());
+        assertThat(stockOf(stocked)).isEqualTo(1);
+    }
+
+    private Product product(String name, long stock) {
+        Product product = new Product();
+        product.setName(name);
+        product.setPrice(100);
+        product.setStockQuantity(stock);
+        product.setBrand(brandRepository.findAll().get(0));
+        product.setCategory(categoryRepository.findAll().get(0));
+        return productRepository.save(product);
+    }
+
+    private long stockOf(Product product) {
+        return productRepository.findById(product.getId()).orElseThrow().getStockQuantity();
+    }
+}